@@ -1,13 +1,18 @@
 package net.kineticraft.lostcity;
 
 import lombok.Getter;
-import net.kineticraft.lostcity.data.KCPlayer;
 import net.kineticraft.lostcity.discord.DiscordAPI;
 import net.kineticraft.lostcity.discord.DiscordChannel;
+import net.kineticraft.lostcity.discord.DiscordQueue;
+import net.kineticraft.lostcity.mechanics.Roster;
+import net.kineticraft.lostcity.mechanics.WorkQueue;
+import net.kineticraft.lostcity.mechanics.alerts.AlertCategory;
+import net.kineticraft.lostcity.mechanics.alerts.Alerts;
 import net.kineticraft.lostcity.mechanics.system.Restrict;
 import net.kineticraft.lostcity.mechanics.system.MechanicManager;
 import net.kineticraft.lostcity.utils.ServerUtils;
 import net.kineticraft.lostcity.utils.TextUtils;
+import net.kineticraft.lostcity.utils.tasks.Job.Priority;
 import net.md_5.bungee.api.chat.BaseComponent;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -19,8 +24,9 @@ import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
 import java.io.InputStream;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Core - Kineticraft Plugin Core
@@ -55,8 +61,7 @@ public class Core extends JavaPlugin {
      * @param message
      */
     public static void warn(String message) {
-        alertStaff(ChatColor.RED + message);
-        DiscordAPI.sendMessage(DiscordChannel.ORYX, message);
+        Alerts.alert(AlertCategory.WARNING, message);
     }
 
     /**
@@ -100,12 +105,16 @@ public class Core extends JavaPlugin {
      * @param message
      */
     public static void alert(EnumRank minRank, DiscordChannel channel, String message) {
-        getOnlineAsync().stream().map(KCPlayer::getWrapper).filter(pw -> pw.getRank().isAtLeast(minRank))
-                .map(KCPlayer::getPlayer).forEach(p -> p.sendMessage(message));
+        List<Player> players = new ArrayList<>();
+        Roster.getSnapshot().forEachAtLeast(minRank, players::add);
+        WorkQueue.forEach("Alert", Priority.HIGH, players, p -> p.sendMessage(message)); // Large fan-outs spread over ticks.
         Bukkit.getConsoleSender().sendMessage(message);
 
-        if (channel != null)
-            DiscordAPI.sendMessage(channel,  message);
+        if (channel == DiscordChannel.INGAME) {
+            DiscordAPI.sendMessage(channel, message); // Queued like chat, so it stays in order with the chat relay.
+        } else if (channel != null) {
+            DiscordAPI.sendMessage(channel, message, DiscordQueue.Priority.ALERT);
+        }
     }
 
     /**
@@ -147,25 +156,27 @@ public class Core extends JavaPlugin {
     }
 
     /**
-     * Gets a list of non-vanished online players.
+     * Gets a list of non-vanished online players. Safe for async operations.
      * @return players
      */
     public static List<Player> getOnlinePlayers() {
-        List<Player> players = new ArrayList<>(getOnlineAsync());
-        players.removeAll(getHiddenPlayers());
-        return players;
+        return Roster.getSnapshot().getVisible();
     }
 
+    /**
+     * Gets a list of vanished online players. Safe for async operations.
+     * @return players
+     */
     public static List<Player> getHiddenPlayers() {
-        return getOnlineAsync().stream().filter(p -> KCPlayer.getWrapper(p).isVanished()).collect(Collectors.toList());
+        return Roster.getSnapshot().getHidden();
     }
 
     /**
      * Get all online players, safe for async operations.
      * @return players
      */
-    public static Set<Player> getOnlineAsync() {
-        return new HashSet<>(Bukkit.getOnlinePlayers());
+    public static List<Player> getOnlineAsync() {
+        return Roster.getSnapshot().getAll();
     }
 
     /**
@@ -3,11 +3,14 @@ package net.kineticraft.lostcity.commands;
 import com.google.common.collect.Lists;
 import lombok.Getter;
 import lombok.Setter;
+import net.kineticraft.lostcity.commands.args.ArgException;
+import net.kineticraft.lostcity.commands.args.ArgSchema;
+import net.kineticraft.lostcity.commands.args.ArgType;
+import net.kineticraft.lostcity.commands.args.CommandArgs;
+import net.kineticraft.lostcity.mechanics.NameIndex;
 import net.kineticraft.lostcity.utils.Utils;
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
-import org.bukkit.entity.Player;
 
 import java.util.*;
 import java.util.function.Function;
@@ -28,6 +31,8 @@ public abstract class Command {
     private String help;
     private List<String> alias;
     private Map<Integer, Function<CommandSender, Iterable<String>>> autoCompletes = new HashMap<>();
+    private List<ArgType<?>> argTypes = new ArrayList<>();
+    private ArgSchema schema;
 
     @Setter private String lastAlias; // A hacky method to allow us to throw the player the usage with the alias they used.
 
@@ -54,7 +59,25 @@ public abstract class Command {
      * @return minArgs
      */
     public int getMinArgs() {
-        return (int) Arrays.stream(getRawUsage().split(" ")).filter(s -> s.startsWith("<") && s.endsWith(">")).count();
+        return getSchema().getMinArgs();
+    }
+
+    /**
+     * Get the compiled usage of this command, compiling it if it hasn't been yet.
+     * @return schema
+     */
+    public ArgSchema getSchema() {
+        if (schema == null)
+            compile();
+        return schema;
+    }
+
+    /**
+     * Compile the usage and typed arguments of this command.
+     * Called once when the command is registered.
+     */
+    public void compile() {
+        this.schema = new ArgSchema(getRawUsage(), getArgTypes());
     }
 
     /**
@@ -95,6 +118,8 @@ public abstract class Command {
     protected void execute(CommandSender sender,  String[] args, Runnable runnable) {
         try {
             runnable.run();
+        } catch (ArgException ae) {
+            sender.sendMessage(ChatColor.RED + ae.getMessage()); // Such as a required typed argument being missing.
         } catch (NumberFormatException nfe) {
             // Couldn't get a number from input, such as from Integer.parseInt
             sender.sendMessage(ChatColor.RED + "Invalid number '" + Utils.getInput(nfe) + "'.");
@@ -149,7 +174,15 @@ public abstract class Command {
             return;
         }
 
-        execute(sender, args, () -> onCommand(sender, args));
+        CommandArgs parsed;
+        try {
+            parsed = getSchema().parse(sender, args);
+        } catch (ArgException ae) {
+            sender.sendMessage(ChatColor.RED + ae.getMessage());
+            return;
+        }
+
+        execute(sender, args, () -> onCommand(sender, parsed));
     }
 
     /**
@@ -165,12 +198,10 @@ public abstract class Command {
             if (getAutoCompletes().containsKey(argCheck)) {
                 completions.addAll(Lists.newArrayList(getAutoCompletes().get(argCheck).apply(sender)));
             } else {
-                String[] rawArgs = getRawUsage().split(" ");
-                if (rawArgs.length > argCheck) {
-                    String options = rawArgs[argCheck];
-                    if (options.contains("|"))
-                        completions.addAll(Arrays.asList(options.substring(1, options.length() - 1).split("\\|")));
-                }
+                String prefix = argCheck >= 0 && argCheck < args.length ? args[argCheck] : "";
+                Iterable<String> options = getSchema().complete(sender, argCheck, prefix);
+                if (options != null)
+                    options.forEach(completions::add);
             }
         });
 
@@ -200,10 +231,23 @@ public abstract class Command {
 
     /**
      * The code specific to each command.
+     * Every command must override this or the typed overload, so reaching this default is a bug.
      * @param sender
      * @param args
      */
-    protected abstract void onCommand(CommandSender sender,  String[] args);
+    protected void onCommand(CommandSender sender,  String[] args) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not implement either onCommand.");
+    }
+
+    /**
+     * The code specific to each command, with typed arguments resolved.
+     * Commands which declare typed arguments should override this instead.
+     * @param sender
+     * @param args
+     */
+    protected void onCommand(CommandSender sender, CommandArgs args) {
+        onCommand(sender, args.getRaw());
+    }
 
     /**
      * Can the given sender perform this command?
@@ -300,6 +344,17 @@ public abstract class Command {
         getAutoCompletes().put(arg, options);
     }
 
+    /**
+     * Declare the types of this command's arguments, in usage order.
+     * A null type leaves that argument as raw input.
+     * @param types
+     */
+    protected void args(ArgType<?>... types) {
+        getArgTypes().clear();
+        getArgTypes().addAll(Arrays.asList(types));
+        this.schema = null; // Recompile on next use.
+    }
+
     /**
      * Add an auto-complete for all online players.
      */
@@ -312,7 +367,7 @@ public abstract class Command {
      * @param arg
      */
     protected void autocompleteOnline(int arg) {
-        autocomplete(arg, p -> Bukkit.getOnlinePlayers().stream().map(Player::getName).collect(Collectors.toList()));
+        autocomplete(arg, p -> NameIndex.getNames(p, null));
     }
 
     /**
@@ -15,6 +15,8 @@ import net.kineticraft.lostcity.guis.CommandGUIs;
 import net.kineticraft.lostcity.guis.GUIType;
 import net.kineticraft.lostcity.item.ItemType;
 import net.kineticraft.lostcity.mechanics.Chat;
+import net.kineticraft.lostcity.mechanics.alerts.AlertCategory;
+import net.kineticraft.lostcity.mechanics.alerts.Alerts;
 import net.kineticraft.lostcity.mechanics.system.Mechanic;
 import net.kineticraft.lostcity.utils.Utils;
 import org.bukkit.Bukkit;
@@ -105,6 +107,7 @@ public class Commands extends Mechanic {
         addCommand(new CommandBright());
         addCommand(new CommandBroadcast());
         addCommand(new CommandDeathTeleport());
+        addCommand(new CommandDiscordCache());
         addCommand(new CommandEdit());
         addCommand(new CommandEntityCount());
         addCommand(new CommandFly());
@@ -127,6 +130,7 @@ public class Commands extends Mechanic {
         addCommand(new CommandTeleport());
         addCommand(new CommandToLocation());
         addCommand(new CommandTestVote());
+        addCommand(new CommandTimers());
         addCommand(new CommandUnmute());
         addCommand(new CommandVanish());
         addCommand(new CommandVoteParty());
@@ -150,8 +154,11 @@ public class Commands extends Mechanic {
      * @param command
      */
     public static void addCommand(Command command) {
-        if (Core.isApplicableBuild(command))
-            getCommands().add(command);
+        if (!Core.isApplicableBuild(command))
+            return;
+
+        command.compile(); // Compile the usage once, rather than every time it's run.
+        getCommands().add(command);
     }
 
     @Override
@@ -215,7 +222,8 @@ public class Commands extends Mechanic {
             return false; // Not a command.
 
         if (sender instanceof DiscordSender) // Log all discord sent commands.
-            Core.alertStaff(ChatColor.GREEN + sender.getName() + ": " + ChatColor.GRAY + type.getPrefix() + input);
+            Alerts.alert(AlertCategory.COMMAND, sender.getName() + type.getPrefix() + input,
+                    ChatColor.GREEN + sender.getName() + ": " + ChatColor.GRAY + type.getPrefix() + input);
 
         if (Bukkit.isPrimaryThread()) {
             runCommand(command, sender, cmd, Utils.shift(args));
@@ -284,7 +292,7 @@ public class Commands extends Mechanic {
         }
 
         if (!input.startsWith("/trigger ")) // Alert staff of commands used, if the command isn't /trigger.
-            Core.alertStaff(p.getName() + ": " + ChatColor.GRAY + input);
+            Alerts.alert(AlertCategory.COMMAND, p.getName() + input, p.getName() + ": " + ChatColor.GRAY + input);
 
         evt.setCancelled(handleCommand(p, CommandType.SLASH, input) || handleCommand(p, CommandType.TRIGGER, input)); // Don't show 'unknown command....'
     }
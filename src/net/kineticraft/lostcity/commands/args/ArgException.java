@@ -0,0 +1,12 @@
+package net.kineticraft.lostcity.commands.args;
+
+/**
+ * Thrown when command input can't be parsed into a typed argument.
+ * The message is shown directly to the CommandSender, so it should be user friendly.
+ */
+public class ArgException extends RuntimeException {
+
+    public ArgException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,89 @@
+package net.kineticraft.lostcity.commands.args;
+
+import lombok.Getter;
+import org.bukkit.command.CommandSender;
+
+import java.util.*;
+
+/**
+ * A compiled command usage. Built once when a command is registered, so handling a command
+ * doesn't need to re-read the usage string.
+ */
+@Getter
+public class ArgSchema {
+
+    private final int minArgs;
+    private final ArgType<?>[] types;
+    private final List<List<String>> options = new ArrayList<>();
+
+    public ArgSchema(String usage, List<ArgType<?>> types) {
+        String[] tokens = usage.isEmpty() ? new String[0] : usage.split(" ");
+        int required = 0;
+
+        for (String token : tokens) {
+            if (token.startsWith("<") && token.endsWith(">"))
+                required++;
+
+            // Static choices, ie: <set|add>
+            options.add(token.contains("|") ? Collections.unmodifiableList(Arrays.asList(
+                    token.substring(1, token.length() - 1).split("\\|"))) : Collections.emptyList());
+        }
+
+        this.minArgs = required;
+        this.types = types.toArray(new ArgType<?>[0]);
+    }
+
+    /**
+     * Does this schema have any typed arguments?
+     * @return typed
+     */
+    public boolean isTyped() {
+        return getTypes().length > 0;
+    }
+
+    /**
+     * Resolve raw input into typed values.
+     * Throws an ArgException if any supplied argument is invalid.
+     *
+     * @param sender
+     * @param args
+     * @return parsed
+     */
+    public CommandArgs parse(CommandSender sender, String[] args) {
+        Object[] values = new Object[Math.max(getTypes().length, args.length)];
+
+        for (int i = 0; i < args.length; i++) {
+            ArgType<?> type = i < getTypes().length ? getTypes()[i] : null;
+            if (type == null) {
+                values[i] = args[i];
+                continue;
+            }
+
+            if (type.isGreedy()) { // Consume the rest of the input.
+                values[i] = type.parse(sender, String.join(" ", Arrays.copyOfRange(args, i, args.length)));
+                break;
+            }
+
+            values[i] = type.parse(sender, args[i]);
+        }
+
+        return new CommandArgs(args, values);
+    }
+
+    /**
+     * Get the completions for a given argument index, or null if this schema doesn't know about it.
+     * @param sender
+     * @param index
+     * @param prefix
+     * @return completions
+     */
+    public Iterable<String> complete(CommandSender sender, int index, String prefix) {
+        if (index < 0)
+            return null;
+
+        if (index < getTypes().length && getTypes()[index] != null)
+            return getTypes()[index].complete(sender, prefix);
+
+        return index < getOptions().size() && !getOptions().get(index).isEmpty() ? getOptions().get(index) : null;
+    }
+}
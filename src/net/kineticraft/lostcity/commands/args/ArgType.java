@@ -0,0 +1,50 @@
+package net.kineticraft.lostcity.commands.args;
+
+import org.bukkit.command.CommandSender;
+
+import java.util.Collections;
+
+/**
+ * Represents a typed command argument, which turns raw input into a value.
+ * Types are shared between commands, so they should not hold per-invocation state.
+ */
+public abstract class ArgType<T> {
+
+    /**
+     * Turn raw input into a value of this type.
+     * Throws an ArgException with a friendly message if the input is not valid.
+     *
+     * @param sender
+     * @param input
+     * @return value
+     */
+    public abstract T parse(CommandSender sender, String input);
+
+    /**
+     * Get the tab-completions for this argument.
+     * @param sender
+     * @return completions
+     */
+    public Iterable<String> complete(CommandSender sender) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Get the tab-completions for this argument which may match what has been typed so far.
+     * Types backed by a sorted index can override this to avoid building the full list.
+     * @param sender
+     * @param prefix
+     * @return completions
+     */
+    public Iterable<String> complete(CommandSender sender, String prefix) {
+        return complete(sender);
+    }
+
+    /**
+     * Does this argument consume all remaining input?
+     * @return greedy
+     */
+    public boolean isGreedy() {
+        return false;
+    }
+}
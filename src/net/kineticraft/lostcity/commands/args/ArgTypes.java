@@ -0,0 +1,198 @@
+package net.kineticraft.lostcity.commands.args;
+
+import net.kineticraft.lostcity.data.KCPlayer;
+import net.kineticraft.lostcity.discord.DiscordSender;
+import net.kineticraft.lostcity.mechanics.NameIndex;
+import net.kineticraft.lostcity.utils.TimeInterval;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Contains the built-in argument types.
+ */
+public class ArgTypes {
+
+    /**
+     * An online player who is visible to the sender.
+     */
+    public static final ArgType<Player> ONLINE = new ArgType<Player>() {
+        @Override
+        public Player parse(CommandSender sender, String input) {
+            Player player = Bukkit.getPlayerExact(input);
+            if (player == null)
+                player = Bukkit.getPlayer(input); // Fallback to partial name matching.
+
+            if (player == null || KCPlayer.getWrapper(player).isVanished(sender))
+                throw new ArgException("Player not found" + (sender instanceof DiscordSender ? " in-game" : "") + ".");
+            return player;
+        }
+
+        @Override
+        public Iterable<String> complete(CommandSender sender) {
+            return NameIndex.getNames(sender, null);
+        }
+
+        @Override
+        public Iterable<String> complete(CommandSender sender, String prefix) {
+            return NameIndex.getNames(sender, prefix);
+        }
+    };
+
+    /**
+     * The data of any player who has joined before, online or not.
+     */
+    public static final ArgType<KCPlayer> OFFLINE = new ArgType<KCPlayer>() {
+        @Override
+        public KCPlayer parse(CommandSender sender, String input) {
+            KCPlayer player = KCPlayer.getWrapper(input);
+            if (player == null)
+                throw new ArgException("Player not found.");
+            return player;
+        }
+
+        @Override
+        public Iterable<String> complete(CommandSender sender) {
+            return ONLINE.complete(sender);
+        }
+
+        @Override
+        public Iterable<String> complete(CommandSender sender, String prefix) {
+            return ONLINE.complete(sender, prefix);
+        }
+    };
+
+    /**
+     * A single word.
+     */
+    public static final ArgType<String> WORD = new ArgType<String>() {
+        @Override
+        public String parse(CommandSender sender, String input) {
+            return input;
+        }
+    };
+
+    /**
+     * All remaining input, joined by spaces.
+     */
+    public static final ArgType<String> TEXT = new ArgType<String>() {
+        @Override
+        public String parse(CommandSender sender, String input) {
+            return input;
+        }
+
+        @Override
+        public boolean isGreedy() {
+            return true;
+        }
+    };
+
+    /**
+     * A whole number.
+     */
+    public static final ArgType<Integer> INTEGER = new ArgType<Integer>() {
+        @Override
+        public Integer parse(CommandSender sender, String input) {
+            try {
+                return Integer.parseInt(input);
+            } catch (NumberFormatException nfe) {
+                throw new ArgException("Invalid number '" + input + "'.");
+            }
+        }
+    };
+
+    /**
+     * A decimal number.
+     */
+    public static final ArgType<Double> DECIMAL = new ArgType<Double>() {
+        @Override
+        public Double parse(CommandSender sender, String input) {
+            try {
+                return Double.parseDouble(input);
+            } catch (NumberFormatException nfe) {
+                throw new ArgException("Invalid number '" + input + "'.");
+            }
+        }
+    };
+
+    /**
+     * A length of time, in milliseconds. Accepts input such as "3d" or "1h30m".
+     */
+    public static final ArgType<Long> DURATION = new ArgType<Long>() {
+        private final Pattern token = Pattern.compile("(\\d{1,9})([a-z]+)");
+
+        @Override
+        public Long parse(CommandSender sender, String input) {
+            long total = 0;
+            Matcher matcher = token.matcher(input.toLowerCase());
+            int end = 0;
+
+            while (matcher.lookingAt()) { // Every character must belong to a <number><unit> token.
+                String unit = matcher.group(2);
+                TimeInterval interval = Arrays.stream(TimeInterval.values())
+                        .filter(ti -> ti.getSuffix().startsWith(unit)).findFirst() // Allows "m", "min", "mo", "month".
+                        .orElseThrow(() -> new ArgException("Unknown time unit '" + unit + "' in '" + input + "'."));
+                total += Long.parseLong(matcher.group(1)) * interval.getInterval() * 1000L;
+                end = matcher.end();
+                matcher.region(end, input.length());
+            }
+
+            if (end < input.length() || total <= 0)
+                throw new ArgException("Invalid duration '" + input + "'. Use a number then a unit, such as 1h30m or 7day.");
+            return total;
+        }
+
+        @Override
+        public Iterable<String> complete(CommandSender sender) {
+            return Arrays.asList("30min", "1hr", "1day", "7day");
+        }
+    };
+
+    /**
+     * Create an argument type which only accepts the constants of an enum.
+     * @param enumClass
+     * @param <E>
+     * @return type
+     */
+    public static <E extends Enum<E>> ArgType<E> ofEnum(Class<E> enumClass) {
+        return ofEnum(enumClass, Enum::name);
+    }
+
+    /**
+     * Create an argument type which only accepts the constants of an enum, by a custom name.
+     * @param enumClass
+     * @param namer
+     * @param <E>
+     * @return type
+     */
+    public static <E extends Enum<E>> ArgType<E> ofEnum(Class<E> enumClass, Function<E, String> namer) {
+        Map<String, E> byName = new HashMap<>();
+        for (E value : enumClass.getEnumConstants())
+            byName.put(namer.apply(value).toUpperCase(), value);
+
+        List<String> names = Collections.unmodifiableList(Arrays.stream(enumClass.getEnumConstants()).map(namer)
+                .collect(Collectors.toList()));
+        String display = enumClass.getSimpleName();
+
+        return new ArgType<E>() {
+            @Override
+            public E parse(CommandSender sender, String input) {
+                E value = byName.get(input.toUpperCase());
+                if (value == null)
+                    throw new ArgException(input + " is not a valid " + display + ".");
+                return value;
+            }
+
+            @Override
+            public Iterable<String> complete(CommandSender sender) {
+                return names;
+            }
+        };
+    }
+}
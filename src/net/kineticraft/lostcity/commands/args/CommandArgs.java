@@ -0,0 +1,138 @@
+package net.kineticraft.lostcity.commands.args;
+
+import lombok.Getter;
+import net.kineticraft.lostcity.data.KCPlayer;
+import org.bukkit.entity.Player;
+
+import java.util.Date;
+
+/**
+ * Holds the resolved arguments of a single command invocation.
+ */
+@Getter
+public class CommandArgs {
+
+    private final String[] raw;
+    private final Object[] values;
+
+    public CommandArgs(String[] raw, Object[] values) {
+        this.raw = raw;
+        this.values = values;
+    }
+
+    /**
+     * Get the number of raw arguments supplied.
+     * @return length
+     */
+    public int length() {
+        return getRaw().length;
+    }
+
+    /**
+     * Was a value supplied for the given argument?
+     * @param index
+     * @return has
+     */
+    public boolean has(int index) {
+        return index < getValues().length && getValues()[index] != null;
+    }
+
+    /**
+     * Get the resolved value of an argument, or null if it was not supplied.
+     * @param index
+     * @param <T>
+     * @return value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(int index) {
+        return has(index) ? (T) getValues()[index] : null;
+    }
+
+    /**
+     * Get the resolved value of an argument, or a fallback if it was not supplied.
+     * @param index
+     * @param fallback
+     * @param <T>
+     * @return value
+     */
+    public <T> T get(int index, T fallback) {
+        return has(index) ? get(index) : fallback;
+    }
+
+    /**
+     * Get an online player argument.
+     * @param index
+     * @return player
+     */
+    public Player getPlayer(int index) {
+        return get(index);
+    }
+
+    /**
+     * Get a player data argument.
+     * @param index
+     * @return wrapper
+     */
+    public KCPlayer getWrapper(int index) {
+        return get(index);
+    }
+
+    /**
+     * Get a string argument.
+     * @param index
+     * @return string
+     */
+    public String getString(int index) {
+        return get(index);
+    }
+
+    /**
+     * Get an integer argument which must have been supplied.
+     * @param index
+     * @return integer
+     */
+    public int getInt(int index) {
+        return this.<Number>require(index).intValue();
+    }
+
+    /**
+     * Get an integer argument, or a fallback if it was not supplied.
+     * @param index
+     * @param fallback
+     * @return integer
+     */
+    public int getInt(int index, int fallback) {
+        return has(index) ? getInt(index) : fallback;
+    }
+
+    /**
+     * Get a duration argument which must have been supplied, as the date it ends at.
+     * @param index
+     * @return date
+     */
+    public Date getDate(int index) {
+        return new Date(System.currentTimeMillis() + this.<Long>require(index));
+    }
+
+    /**
+     * Get a duration argument as the date it ends at, or a fallback if it was not supplied.
+     * @param index
+     * @param fallback
+     * @return date
+     */
+    public Date getDate(int index, Date fallback) {
+        return has(index) ? getDate(index) : fallback;
+    }
+
+    /**
+     * Get the resolved value of an argument, throwing an ArgException if it was not supplied.
+     * @param index
+     * @param <T>
+     * @return value
+     */
+    private <T> T require(int index) {
+        if (!has(index))
+            throw new ArgException("Missing argument #" + (index + 1) + ".");
+        return get(index);
+    }
+}
@@ -1,12 +1,12 @@
 package net.kineticraft.lostcity.commands.player;
 
-import net.kineticraft.lostcity.Core;
 import net.kineticraft.lostcity.EnumRank;
 import net.kineticraft.lostcity.commands.PlayerCommand;
-import net.kineticraft.lostcity.data.KCPlayer;
+import net.kineticraft.lostcity.mechanics.Roster;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
 
 import java.util.Arrays;
 import java.util.stream.Collectors;
@@ -23,15 +23,15 @@ public class CommandList extends PlayerCommand {
 
     @Override
     protected void onCommand(CommandSender sender, String[] args) {
-        sender.sendMessage(ChatColor.GRAY + "There are " + ChatColor.GREEN + Core.getOnlinePlayers().size()
+        Roster.Snapshot online = Roster.getSnapshot();
+        sender.sendMessage(ChatColor.GRAY + "There are " + ChatColor.GREEN + online.getVisible().size()
                 + ChatColor.GRAY + " online players out of " + ChatColor.GREEN + Bukkit.getMaxPlayers()
                 + ChatColor.GRAY + ".");
-        Arrays.stream(EnumRank.values()).forEach(r -> sendGroup(sender, r));
+        Arrays.stream(EnumRank.values()).forEach(r -> sendGroup(sender, online, r));
     }
 
-    private void sendGroup(CommandSender sender, EnumRank rank) {
-        String players = Core.getOnlinePlayers().stream().map(KCPlayer::getWrapper)
-                .filter(p -> p.getRank() == rank).map(KCPlayer::getUsername)
+    private void sendGroup(CommandSender sender, Roster.Snapshot online, EnumRank rank) {
+        String players = online.getVisible(rank).stream().map(Player::getName)
                 .collect(Collectors.joining(ChatColor.WHITE + ", " + ChatColor.GRAY));
 
         if (players.length() > 0)
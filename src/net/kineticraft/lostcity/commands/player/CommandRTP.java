@@ -1,10 +1,10 @@
 package net.kineticraft.lostcity.commands.player;
 
 import net.kineticraft.lostcity.commands.PlayerCommand;
+import net.kineticraft.lostcity.mechanics.RandomTeleports;
 import net.kineticraft.lostcity.mechanics.metadata.MetadataManager;
-import net.kineticraft.lostcity.utils.Utils;
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -22,7 +22,7 @@ public class CommandRTP extends PlayerCommand {
     protected void onCommand(CommandSender sender, String[] args) {
         Player player = (Player) sender;
 
-        if (MetadataManager.updateCooldown(player, "rtp", 20 * 60 * 10)) // 10 Minutes
+        if (MetadataManager.alertCooldown(player, "rtp"))
             return;
 
         if (player.getWorld().getEnvironment() != World.Environment.NORMAL) {
@@ -30,7 +30,13 @@ public class CommandRTP extends PlayerCommand {
             return;
         }
 
-        Bukkit.dispatchCommand(Bukkit.getConsoleSender(), "spreadplayers 0 0 0 15000 false " + player.getName());
-        player.teleport(Utils.findSafe(player.getLocation())); // Prevent suffocation.
+        Location dest = RandomTeleports.take(player.getWorld());
+        if (dest == null) {
+            sender.sendMessage(ChatColor.RED + "No destinations are ready yet, please try again in a minute.");
+            return;
+        }
+
+        MetadataManager.setCooldown(player, "rtp", 20 * 60 * 10); // 10 Minutes
+        player.teleport(dest);
     }
 }
@@ -2,13 +2,13 @@ package net.kineticraft.lostcity.commands.player;
 
 import net.kineticraft.lostcity.commands.PlayerCommand;
 import net.kineticraft.lostcity.data.KCPlayer;
+import net.kineticraft.lostcity.mechanics.NameIndex;
 import net.kineticraft.lostcity.utils.Utils;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 
 import java.util.List;
-import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -19,8 +19,7 @@ public class CommandRealName extends PlayerCommand {
 
     public CommandRealName() {
         super("<nick>", "Displays a player's real name.", "realname", "rn");
-        autocomplete(p -> Bukkit.getOnlinePlayers().stream().map(KCPlayer::getWrapper)
-                .map(KCPlayer::getNickname).filter(Objects::nonNull).collect(Collectors.toList()));
+        autocomplete(p -> NameIndex.getNicknames(p, null));
     }
 
     @Override
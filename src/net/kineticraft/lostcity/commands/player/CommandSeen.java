@@ -1,13 +1,15 @@
 package net.kineticraft.lostcity.commands.player;
 
 import net.kineticraft.lostcity.commands.PlayerCommand;
-import net.kineticraft.lostcity.data.QueryTools;
+import net.kineticraft.lostcity.commands.args.ArgTypes;
+import net.kineticraft.lostcity.commands.args.CommandArgs;
+import net.kineticraft.lostcity.data.KCPlayer;
 import net.kineticraft.lostcity.discord.DiscordSender;
 import net.kineticraft.lostcity.mechanics.Punishments;
+import net.kineticraft.lostcity.mechanics.Sessions;
 import net.kineticraft.lostcity.mechanics.metadata.Metadata;
 import net.kineticraft.lostcity.mechanics.metadata.MetadataManager;
 import net.kineticraft.lostcity.utils.Utils;
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 
@@ -19,34 +21,32 @@ public class CommandSeen extends PlayerCommand {
 
     public CommandSeen() {
         super("<player>", "Check when a player was last seen.", "seen");
-        autocompleteOnline();
+        args(ArgTypes.OFFLINE);
     }
 
     @Override
-    protected void onCommand(CommandSender sender, String[] args) {
+    protected void onCommand(CommandSender sender, CommandArgs args) {
+        KCPlayer p = args.getWrapper(0);
+        long seenTime = System.currentTimeMillis() - (p.isOnline() && p.isVanished()
+                ? MetadataManager.getMetadata(p.getPlayer(), Metadata.VANISH_TIME).asLong() : Sessions.getLastSeen(p));
 
-        QueryTools.getData(args[0], p -> {
-            long now = System.currentTimeMillis();
-            long seenTime = now - (p.isOnline() ?
-                    (p.isVanished() ? MetadataManager.getMetadata(p.getPlayer(), Metadata.VANISH_TIME).asLong() : now)
-                    : Bukkit.getOfflinePlayer(p.getUuid()).getLastPlayed());
+        sender.sendMessage(ChatColor.GRAY + "Showing report of " + ChatColor.GRAY + p.getUsername() + ChatColor.GRAY + ":");
+        sendValue(sender, "Last Seen", Utils.formatTime(seenTime));
 
-            sender.sendMessage(ChatColor.GRAY + "Showing report of " + ChatColor.GRAY + p.getUsername() + ChatColor.GRAY + ":");
-            sendValue(sender, "Last Seen", Utils.formatTime(seenTime));
+        // Show extra data to helpers.
+        if (Utils.isStaff(sender) && !(sender instanceof DiscordSender))
+            sendValue(sender, "IP Address", p.getLastIP());
 
-            // Show extra data to helpers.
-            if (Utils.isStaff(sender) && !(sender instanceof DiscordSender))
-                sendValue(sender, "IP Address", p.getLastIP());
+        if (Utils.isStaff(sender) && p.isOnline() && !p.isVanished(sender))
+            sendValue(sender, "Idle", Utils.formatTime(Sessions.getIdleTime(p.getPlayer())));
 
-            // Show punishments.
-            sendValue(sender, "Muted", p.isMuted());
+        // Show punishments.
+        sendValue(sender, "Muted", p.isMuted());
 
-            if (!p.getPunishments().isEmpty()) {
-                sendValue(sender, "Banned", p.isBanned());
-                sender.sendMessage(ChatColor.GRAY + "Punishments:");
-                p.getPunishments().stream().map(Punishments.Punishment::toString).map(s -> " - " + s).forEach(sender::sendMessage);
-            }
-
-        }, () -> sender.sendMessage(ChatColor.RED + "Player not found."));
+        if (!p.getPunishments().isEmpty()) {
+            sendValue(sender, "Banned", p.isBanned());
+            sender.sendMessage(ChatColor.GRAY + "Punishments:");
+            p.getPunishments().stream().map(Punishments.Punishment::toString).map(s -> " - " + s).forEach(sender::sendMessage);
+        }
     }
 }
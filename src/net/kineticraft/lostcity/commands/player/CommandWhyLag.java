@@ -2,10 +2,17 @@ package net.kineticraft.lostcity.commands.player;
 
 import lombok.AllArgsConstructor;
 import net.kineticraft.lostcity.commands.PlayerCommand;
+import net.kineticraft.lostcity.discord.DiscordQueue;
+import net.kineticraft.lostcity.mechanics.Async;
+import net.kineticraft.lostcity.mechanics.ChunkHousekeeper;
 import net.kineticraft.lostcity.mechanics.ServerManager;
+import net.kineticraft.lostcity.mechanics.TickClock;
+import net.kineticraft.lostcity.mechanics.WorkQueue;
 import net.kineticraft.lostcity.utils.PlayerUtils;
 import net.kineticraft.lostcity.utils.ServerUtils;
 import net.kineticraft.lostcity.utils.TextUtils;
+import net.kineticraft.lostcity.utils.Utils;
+import net.kineticraft.lostcity.utils.tasks.Job;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.World;
@@ -15,6 +22,7 @@ import org.bukkit.entity.Player;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Get a status report of potential lag.
@@ -36,6 +44,11 @@ public class CommandWhyLag extends PlayerCommand {
         double tps = ServerManager.getTPS();
         double tpsLag = TextUtils.toFixed((20 - tps) * 5, 2);
         sender.sendMessage(ChatColor.GOLD + "Server TPS: " + TextUtils.colorValue(tps, 20) + " (" + tpsLag + " % lag)");
+        sender.sendMessage(ChatColor.GOLD + "Tick Time (1m): " + getTickTimes(1));
+        if (Utils.isStaff(sender)) { // Spikes which have passed still matter to staff.
+            sender.sendMessage(ChatColor.GOLD + "Tick Time (5m): " + getTickTimes(5));
+            sender.sendMessage(ChatColor.GOLD + "Tick Time (15m): " + getTickTimes(15));
+        }
         sender.sendMessage(ChatColor.GOLD + "Anti-Lag Setting: " + LAG_SETTING[ServerManager.getLagSetting()]
                 + " (" + ServerManager.getRenderDistance() + ")");
 
@@ -48,12 +61,54 @@ public class CommandWhyLag extends PlayerCommand {
                     : "You shouldn't be lagging, maybe your FPS (frames per second) is low?"));
         }
 
+        if (Utils.isStaff(sender) && (DiscordQueue.getPending() > 0 || DiscordQueue.getDropped() > 0))
+            sender.sendMessage(ChatColor.GOLD + "Discord Outbox: " + TextUtils.colorValue(DiscordQueue.getPending(),
+                    DiscordQueue.MAX_PENDING, true) + " queued, " + ChatColor.RED + DiscordQueue.getDropped() + " dropped");
+
+        if (Utils.isStaff(sender))
+            Async.getPools().forEach(pool -> sender.sendMessage(ChatColor.GOLD + "Async (" + pool.getName() + "): "
+                    + TextUtils.colorValue(pool.getQueued(), pool.getQueueSize(), true) + " queued" + ChatColor.GRAY + ", "
+                    + pool.getActive() + "/" + pool.getThreads() + " busy, avg wait " + TextUtils.toFixed(pool.getAverageWaitMs(), 1)
+                    + "ms (max " + TextUtils.toFixed(pool.getMaxWaitMs(), 1) + "ms), avg run " + TextUtils.toFixed(pool.getAverageRunMs(), 1)
+                    + "ms, " + pool.getFailed() + " failed, " + pool.getRejected() + " rejected"));
+
+        if (Utils.isStaff(sender) && !WorkQueue.getJobs().isEmpty())
+            sender.sendMessage(ChatColor.GOLD + "Work Queue: " + ChatColor.YELLOW + WorkQueue.getJobs().size() + " jobs"
+                    + ChatColor.GRAY + " (" + WorkQueue.getJobs().stream().map(Job::getName).distinct().collect(Collectors.joining(", ")) + ")");
+
+        if (Utils.isStaff(sender))
+            ChunkHousekeeper.getStats().forEach((world, stats) -> sender.sendMessage(ChatColor.GOLD + "Chunks (" + world + "): "
+                    + ChatColor.YELLOW + stats.getLoaded() + " loaded" + ChatColor.GRAY + " - " + stats.getNearPlayers()
+                    + " near players, " + stats.getHeld() + " held, " + stats.getIdle() + " idle, "
+                    + stats.getUnloaded() + " unloaded"));
+
         if (tps < 18) {
             sender.sendMessage(ChatColor.GOLD + "Possible Lag Causes: ");
             Arrays.stream(LagCause.values()).filter(LagCause::isPossible).map(LagCause::getMessage).forEach(sender::sendMessage);
         }
     }
 
+    /**
+     * Get the colored tick work time percentiles over the last few minutes.
+     * @param minutes
+     * @return tickTimes
+     */
+    private static String getTickTimes(int minutes) {
+        TickClock.TickStats stats = TickClock.getStats(minutes);
+        return ChatColor.GRAY + "p50 " + colorTickTime(stats.getP50()) + ChatColor.GRAY + ", p95 "
+                + colorTickTime(stats.getP95()) + ChatColor.GRAY + ", p99 " + colorTickTime(stats.getP99())
+                + ChatColor.GRAY + ", max " + colorTickTime(stats.getMax());
+    }
+
+    /**
+     * Color a tick work time, where anything using the whole 50ms budget is the worst color.
+     * @param millis
+     * @return colored
+     */
+    private static String colorTickTime(double millis) {
+        return TextUtils.colorString(millis, 50, true, Math.round(millis) + "ms");
+    }
+
     /**
      * Return the number of entities needed before the server considers itself overpopulated.
      * @return threshold
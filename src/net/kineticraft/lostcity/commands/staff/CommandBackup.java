@@ -2,20 +2,48 @@ package net.kineticraft.lostcity.commands.staff;
 
 import net.kineticraft.lostcity.EnumRank;
 import net.kineticraft.lostcity.commands.StaffCommand;
+import net.kineticraft.lostcity.mechanics.backup.Backups;
 import net.kineticraft.lostcity.utils.ServerUtils;
+import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 
+import java.util.List;
+
 /**
- * Backup the server.
+ * Backup the server, or manage existing backups.
  * Created by Kneesnap on 6/14/2017.
  */
 public class CommandBackup extends StaffCommand {
     public CommandBackup() {
-        super(EnumRank.ADMIN, "", "Take a backup of the server.", "backup");
+        super(EnumRank.ADMIN, "[list|restore|prune] [backup/keep] [path]", "Take a backup of the server.", "backup");
     }
 
     @Override
     protected void onCommand(CommandSender sender, String[] args) {
-        ServerUtils.takeBackup();
+        if (args.length == 0) {
+            if (ServerUtils.isBackingUp()) {
+                sender.sendMessage(ChatColor.RED + "A backup task is already running.");
+                return;
+            }
+
+            ServerUtils.takeBackup();
+            return;
+        }
+
+        String action = args[0].toLowerCase();
+        if (action.equals("list")) {
+            List<String> backups = Backups.getBackups();
+            sender.sendMessage(ChatColor.GOLD + "Backups (" + backups.size() + "): " + ChatColor.YELLOW + String.join(", ", backups));
+        } else if (action.equals("restore") && args.length > 1) {
+            Backups.restore(sender, args[1], args.length > 2 ? args[2] : "");
+        } else if (action.equals("prune") && args.length > 1) {
+            try {
+                Backups.prune(sender, Integer.parseInt(args[1]));
+            } catch (NumberFormatException nfe) {
+                sender.sendMessage(ChatColor.RED + "'" + args[1] + "' is not a number.");
+            }
+        } else {
+            showUsage(sender);
+        }
     }
 }
@@ -0,0 +1,32 @@
+package net.kineticraft.lostcity.commands.staff;
+
+import net.kineticraft.lostcity.EnumRank;
+import net.kineticraft.lostcity.commands.StaffCommand;
+import net.kineticraft.lostcity.commands.args.ArgTypes;
+import net.kineticraft.lostcity.commands.args.CommandArgs;
+import net.kineticraft.lostcity.discord.DiscordAPI;
+import net.kineticraft.lostcity.discord.DiscordStandIn;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+
+/**
+ * Check and time the discord cache against an offline stand-in for discord.
+ */
+public class CommandDiscordCache extends StaffCommand {
+
+    public CommandDiscordCache() {
+        super(EnumRank.DEV, "[members] [lookups]", "Test the discord cache offline.", "discordcache");
+        args(ArgTypes.INTEGER, ArgTypes.INTEGER);
+    }
+
+    @Override
+    protected void onCommand(CommandSender sender, CommandArgs args) {
+        if (DiscordAPI.isAlive()) { // The cache is shared, so live lookups would see the stand-in.
+            sender.sendMessage(ChatColor.RED + "This can only be run while the discord bot is offline.");
+            return;
+        }
+
+        for (String line : DiscordStandIn.run(args.get(0, 1000), args.get(1, 100000)))
+            sender.sendMessage((line.startsWith("FAIL") ? ChatColor.RED : ChatColor.GRAY) + line);
+    }
+}
@@ -1,10 +1,10 @@
 package net.kineticraft.lostcity.commands.staff;
 
 import net.kineticraft.lostcity.commands.StaffCommand;
+import net.kineticraft.lostcity.commands.args.ArgTypes;
+import net.kineticraft.lostcity.commands.args.CommandArgs;
 import net.kineticraft.lostcity.discord.DiscordAPI;
 import net.kineticraft.lostcity.discord.DiscordChannel;
-import net.kineticraft.lostcity.utils.Utils;
-import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
@@ -16,18 +16,15 @@ public class CommandKick extends StaffCommand {
 
     public CommandKick() {
         super("<player> [reason]", "Kick a player", "kick");
-        autocompleteOnline();
+        args(ArgTypes.ONLINE, ArgTypes.TEXT);
     }
 
     @Override
-    protected void onCommand(CommandSender sender, String[] args) {
-        if (!Utils.isVisible(sender, args[0]))
-            return;
-
-        Player p = Bukkit.getPlayer(args[0]);
-        String reason = args.length > 1 ? String.join(" ", Utils.shift(args)) : "Kicked by an operator.";
+    protected void onCommand(CommandSender sender, CommandArgs args) {
+        Player p = args.getPlayer(0);
+        String reason = args.get(1, "Kicked by an operator.");
         p.kickPlayer(reason);
-        sender.sendMessage("Kicked " + p.getName() + (reason != null && reason.length() > 0 ? " for " + reason : "") + ".");
+        sender.sendMessage("Kicked " + p.getName() + (reason.length() > 0 ? " for " + reason : "") + ".");
         DiscordAPI.sendMessage(DiscordChannel.ORYX, sender.getName() + " kicked " + p.getName() + " for ``" + reason + "``.");
     }
 }
@@ -1,9 +1,9 @@
 package net.kineticraft.lostcity.commands.staff;
 
 import net.kineticraft.lostcity.commands.StaffCommand;
-import net.kineticraft.lostcity.data.QueryTools;
-import net.kineticraft.lostcity.utils.Utils;
-import org.bukkit.ChatColor;
+import net.kineticraft.lostcity.commands.args.ArgTypes;
+import net.kineticraft.lostcity.commands.args.CommandArgs;
+import net.kineticraft.lostcity.data.KCPlayer;
 import org.bukkit.command.CommandSender;
 
 /**
@@ -14,14 +14,13 @@ public class CommandMute extends StaffCommand {
 
     public CommandMute() {
         super("<player> <time> [reason]", "Mute a player.", "mute");
-        autocompleteOnline();
+        args(ArgTypes.OFFLINE, ArgTypes.DURATION, ArgTypes.TEXT);
     }
 
     @Override
-    protected void onCommand(CommandSender sender, String[] args) {
-        QueryTools.getData(args[0], data ->
-                data.mute(sender, Utils.fromInput(args[1]), args.length > 2
-                        ? String.join(" ", Utils.shift(args, 2)) : "No reason specified.")
-                , () -> sender.sendMessage(ChatColor.RED + "Player not found."));
+    protected void onCommand(CommandSender sender, CommandArgs args) {
+        KCPlayer data = args.getWrapper(0);
+        data.mute(sender, args.getDate(1), args.get(2, "No reason specified."));
+        data.writeData();
     }
 }
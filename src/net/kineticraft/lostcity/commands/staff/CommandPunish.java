@@ -1,9 +1,10 @@
 package net.kineticraft.lostcity.commands.staff;
 
 import net.kineticraft.lostcity.commands.StaffCommand;
-import net.kineticraft.lostcity.data.QueryTools;
+import net.kineticraft.lostcity.commands.args.ArgTypes;
+import net.kineticraft.lostcity.commands.args.CommandArgs;
+import net.kineticraft.lostcity.data.KCPlayer;
 import net.kineticraft.lostcity.guis.staff.GUIPunish;
-import net.kineticraft.lostcity.mechanics.Punishments;
 import net.kineticraft.lostcity.mechanics.Punishments.PunishmentType;
 import net.kineticraft.lostcity.utils.Utils;
 import org.bukkit.ChatColor;
@@ -21,25 +22,19 @@ public class CommandPunish extends StaffCommand {
 
     public CommandPunish() {
         super("<player> [offense]", "Punish a player.", "punish");
-        autocompleteOnline();
-        autocomplete(PunishmentType.values());
+        args(ArgTypes.OFFLINE, ArgTypes.ofEnum(PunishmentType.class));
     }
 
     @Override
-    protected void onCommand(CommandSender sender, String[] args) {
-        if (args.length == 1 && !(sender instanceof Player)) {
+    protected void onCommand(CommandSender sender, CommandArgs args) {
+        KCPlayer p = args.getWrapper(0);
+        if (args.has(1)) {
+            p.punish(args.get(1), sender);
+        } else if (sender instanceof Player) {
+            new GUIPunish((Player) sender, p);
+        } else {
             showUsage(sender);
-            return;
         }
-
-        // Get Player
-        QueryTools.getData(args[0], p -> {
-            if (args.length == 1) {
-                new GUIPunish((Player) sender, p);
-            } else {
-                p.punish(Punishments.PunishmentType.valueOf(args[1].toUpperCase()), sender);
-            }
-        }, () -> sender.sendMessage(ChatColor.RED + "Player not found."));
     }
 
     @Override
@@ -3,7 +3,9 @@ package net.kineticraft.lostcity.commands.staff;
 import net.kineticraft.lostcity.Core;
 import net.kineticraft.lostcity.EnumRank;
 import net.kineticraft.lostcity.commands.StaffCommand;
-import net.kineticraft.lostcity.data.QueryTools;
+import net.kineticraft.lostcity.commands.args.ArgTypes;
+import net.kineticraft.lostcity.commands.args.CommandArgs;
+import net.kineticraft.lostcity.data.KCPlayer;
 import net.kineticraft.lostcity.utils.Utils;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
@@ -19,37 +21,30 @@ public class CommandSetRank extends StaffCommand {
 
     public CommandSetRank() {
         super(EnumRank.MOD, "<player> <rank>", "Set a player's rank.", "setrank");
-        autocompleteOnline();
-        autocomplete(EnumRank.values());
+        args(ArgTypes.OFFLINE, ArgTypes.ofEnum(EnumRank.class));
     }
 
     @Override
-    protected void onCommand(CommandSender sender, String[] args) {
-        EnumRank newRank = EnumRank.getByName(args[1]);
+    protected void onCommand(CommandSender sender, CommandArgs args) {
+        KCPlayer kcPlayer = args.getWrapper(0);
+        EnumRank newRank = args.get(1);
         EnumRank myRank = Utils.getRank(sender);
 
-        if (newRank == null) {
-            sender.sendMessage(ChatColor.RED + "Unknown rank '" + args[1] + "'.");
-            return;
-        }
-
         if (!myRank.isAtLeast(newRank)) {
             sender.sendMessage(ChatColor.RED + "You don't have permission to set players to this rank.");
             return;
         }
 
-        QueryTools.getData(args[0], kcPlayer ->  {
-
-            if (!myRank.isAtLeast(kcPlayer.getRank())) {
-                sender.sendMessage(ChatColor.RED + "You don't have permission to manage this user.");
-                return;
-            }
+        if (!myRank.isAtLeast(kcPlayer.getRank())) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to manage this user.");
+            return;
+        }
 
-            Core.warn(sender.getName() + " updated " + kcPlayer.getUsername() + "'s rank to " + newRank.getName() + ".");
-            kcPlayer.setRank(newRank);
-            sender.sendMessage(ChatColor.GREEN + "Updated " + kcPlayer.getUsername() + "'s rank to "
-                    + newRank.getName() + ".");
-        }, () -> sender.sendMessage(ChatColor.RED + "Player not found."));
+        Core.warn(sender.getName() + " updated " + kcPlayer.getUsername() + "'s rank to " + newRank.getName() + ".");
+        kcPlayer.setRank(newRank);
+        kcPlayer.writeData();
+        sender.sendMessage(ChatColor.GREEN + "Updated " + kcPlayer.getUsername() + "'s rank to "
+                + newRank.getName() + ".");
     }
 
     @Override
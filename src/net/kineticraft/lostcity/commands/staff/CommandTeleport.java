@@ -1,8 +1,8 @@
 package net.kineticraft.lostcity.commands.staff;
 
 import net.kineticraft.lostcity.commands.StaffCommand;
-import net.kineticraft.lostcity.utils.Utils;
-import org.bukkit.Bukkit;
+import net.kineticraft.lostcity.commands.args.ArgTypes;
+import net.kineticraft.lostcity.commands.args.CommandArgs;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
@@ -14,12 +14,11 @@ public class CommandTeleport extends StaffCommand {
 
     public CommandTeleport() {
         super("<player>", "Teleport to another player.", "to");
-        autocompleteOnline();
+        args(ArgTypes.ONLINE);
     }
 
     @Override
-    protected void onCommand(CommandSender sender, String[] args) {
-        if (Utils.isVisible(sender, args[0]))
-            ((Player) sender).teleport(Bukkit.getPlayer(args[0]));
+    protected void onCommand(CommandSender sender, CommandArgs args) {
+        ((Player) sender).teleport(args.getPlayer(0));
     }
 }
@@ -0,0 +1,38 @@
+package net.kineticraft.lostcity.commands.staff;
+
+import net.kineticraft.lostcity.EnumRank;
+import net.kineticraft.lostcity.commands.StaffCommand;
+import net.kineticraft.lostcity.mechanics.Timers;
+import net.kineticraft.lostcity.utils.TextUtils;
+import net.kineticraft.lostcity.utils.Utils;
+import net.kineticraft.lostcity.utils.tasks.TimedTask;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * View the scheduled timers, and how long they take to run.
+ */
+public class CommandTimers extends StaffCommand {
+
+    private static final int SHOW = 15;
+
+    public CommandTimers() {
+        super(EnumRank.ADMIN, "", "View scheduled timers and their run times.", "timers");
+    }
+
+    @Override
+    protected void onCommand(CommandSender sender, String[] args) {
+        List<TimedTask> tasks = Timers.getTasks().stream().filter(t -> !t.isCancelled())
+                .sorted(Comparator.comparingLong(TimedTask::getTotalNanos).reversed()).collect(Collectors.toList());
+
+        sender.sendMessage(ChatColor.GOLD + "Timers (" + tasks.size() + "), by total run time:");
+        tasks.stream().limit(SHOW).forEach(t -> sender.sendMessage(ChatColor.YELLOW + t.getName() + ChatColor.GRAY
+                + (t.isAsync() ? " (async)" : "") + " - " + t.getRuns() + " runs, avg "
+                + TextUtils.toFixed(t.getAverageMs(), 2) + "ms, max " + TextUtils.toFixed(t.getMaxNanos() / 1000000D, 2)
+                + "ms, next in " + Utils.formatTime(Timers.getTicksUntil(t) * 50)));
+    }
+}
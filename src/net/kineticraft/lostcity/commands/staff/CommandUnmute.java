@@ -1,7 +1,9 @@
 package net.kineticraft.lostcity.commands.staff;
 
 import net.kineticraft.lostcity.commands.StaffCommand;
-import net.kineticraft.lostcity.data.QueryTools;
+import net.kineticraft.lostcity.commands.args.ArgTypes;
+import net.kineticraft.lostcity.commands.args.CommandArgs;
+import net.kineticraft.lostcity.data.KCPlayer;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 
@@ -13,21 +15,21 @@ public class CommandUnmute extends StaffCommand {
 
     public CommandUnmute() {
         super("<player>", "Unmute a player.", "unmute");
-        autocompleteOnline();
+        args(ArgTypes.OFFLINE);
     }
 
     @Override
-    protected void onCommand(CommandSender sender, String[] args) {
-        QueryTools.getData(args[0], data -> {
-            if (!data.isMuted()) {
-                sender.sendMessage(ChatColor.RED + data.getUsername() + " is not muted.");
-                return;
-            }
+    protected void onCommand(CommandSender sender, CommandArgs args) {
+        KCPlayer data = args.getWrapper(0);
+        if (!data.isMuted()) {
+            sender.sendMessage(ChatColor.RED + data.getUsername() + " is not muted.");
+            return;
+        }
 
-            data.setMute(null);
-            sender.sendMessage(ChatColor.GOLD + "Unmuted " + data.getUsername());
-            if (data.isOnline())
-                data.getPlayer().sendMessage(ChatColor.GREEN + "You have been unmuted.");
-        }, () -> sender.sendMessage(ChatColor.RED + "Player not found."));
+        data.setMute(null);
+        sender.sendMessage(ChatColor.GOLD + "Unmuted " + data.getUsername());
+        if (data.isOnline())
+            data.getPlayer().sendMessage(ChatColor.GREEN + "You have been unmuted.");
+        data.writeData();
     }
 }
\ No newline at end of file
@@ -1,10 +1,11 @@
 package net.kineticraft.lostcity.commands.staff;
 
 import net.kineticraft.lostcity.commands.StaffCommand;
+import net.kineticraft.lostcity.commands.args.ArgTypes;
+import net.kineticraft.lostcity.commands.args.CommandArgs;
 import net.kineticraft.lostcity.data.KCPlayer;
 import net.kineticraft.lostcity.utils.TimeInterval;
 import net.kineticraft.lostcity.utils.Utils;
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -20,14 +21,12 @@ public class CommandZen extends StaffCommand {
 
     public CommandZen() {
         super("<player>", "Calm a player down.", "zen");
+        args(ArgTypes.ONLINE);
     }
 
     @Override
-    protected void onCommand(CommandSender sender, String[] args) {
-        if (!Utils.isVisible(sender, args[0]))
-            return;
-
-        Player p = Bukkit.getPlayer(args[0]);
+    protected void onCommand(CommandSender sender, CommandArgs args) {
+        Player p = args.getPlayer(0);
         KCPlayer.getWrapper(p).setZenMode(new Date().getTime() + TimeUnit.DAYS.toMillis(1));
         p.sendMessage(ChatColor.YELLOW.toString() + ChatColor.BOLD
                 + Utils.randElement("Experience Tranquility", "Pass into the Iris") + ".");
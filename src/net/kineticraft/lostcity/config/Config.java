@@ -1,10 +1,13 @@
 package net.kineticraft.lostcity.config;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import net.kineticraft.lostcity.Core;
 import net.kineticraft.lostcity.config.Configs.ConfigType;
+import net.kineticraft.lostcity.mechanics.WorkQueue;
 import net.kineticraft.lostcity.utils.GeneralException;
+import net.kineticraft.lostcity.utils.tasks.Job.Priority;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
@@ -20,6 +23,7 @@ import java.util.List;
 public abstract class Config {
 
     private transient ConfigType type;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) private transient volatile boolean savePending;
 
     /**
      * Loads this configuration from disk.
@@ -37,6 +41,21 @@ public abstract class Config {
         }
     }
 
+    /**
+     * Save this config on the main thread soon, once no matter how many times this is called before then.
+     * Safe to call from any thread.
+     */
+    public void queueSave() {
+        if (savePending)
+            return;
+
+        savePending = true;
+        WorkQueue.run("Save " + getFileName(), Priority.LOW, () -> {
+            savePending = false;
+            saveToDisk();
+        });
+    }
+
     /**
      * Load from the lines of a file.
      * @param lines
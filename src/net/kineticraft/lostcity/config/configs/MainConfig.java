@@ -2,6 +2,7 @@ package net.kineticraft.lostcity.config.configs;
 
 import lombok.Getter;
 import lombok.Setter;
+import net.kineticraft.lostcity.crake.DetectorSettings;
 import net.kineticraft.lostcity.data.maps.JsonMap;
 import net.kineticraft.lostcity.mechanics.system.BuildType;
 import net.kineticraft.lostcity.config.JsonConfig;
@@ -17,6 +18,9 @@ import org.bukkit.inventory.ItemStack;
 public class MainConfig extends JsonConfig {
     private String voteURL = "http://google.com/";
     private int afkLimit = 30;
+    private int workBudgetMs = 5; // Time each tick may spend on queued jobs.
+    private int rtpRadius = 15000; // How far from the world border's centre /rtp may send players.
+    private int rtpPoolSize = 10; // Destinations kept ready per world.
     private JsonMap<String> filter = new JsonMap<>();
     private String discordToken;
     private long serverId;
@@ -26,4 +30,5 @@ public class MainConfig extends JsonConfig {
     private Party party;
     private StringList swearWords = new StringList();
     private JsonMap<ItemStack> dungeonRewards = new JsonMap<>();
+    private JsonMap<DetectorSettings> crakeDetectors = new JsonMap<>();
 }
@@ -0,0 +1,67 @@
+package net.kineticraft.lostcity.crake;
+
+import net.kineticraft.lostcity.EnumRank;
+import net.kineticraft.lostcity.commands.StaffCommand;
+import net.kineticraft.lostcity.commands.args.ArgException;
+import net.kineticraft.lostcity.commands.args.ArgType;
+import net.kineticraft.lostcity.commands.args.CommandArgs;
+import net.kineticraft.lostcity.crake.detectors.Detector;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+
+/**
+ * View and toggle crake detectors.
+ */
+public class CommandCrake extends StaffCommand {
+
+    private static final ArgType<Detector> DETECTOR = new ArgType<Detector>() {
+        @Override
+        public Detector parse(CommandSender sender, String input) {
+            Detector detector = Crake.getDetector(input);
+            if (detector == null)
+                throw new ArgException("Unknown detector '" + input + "'.");
+            return detector;
+        }
+
+        @Override
+        public Iterable<String> complete(CommandSender sender) {
+            return Crake.getDetectors().keySet();
+        }
+    };
+
+    public CommandCrake() {
+        super(EnumRank.ADMIN, "[detector] [on|off]", "View or toggle crake detectors.", "crake");
+        args(DETECTOR, null);
+    }
+
+    @Override
+    protected void onCommand(CommandSender sender, CommandArgs args) {
+        if (!args.has(0)) {
+            sender.sendMessage(ChatColor.GOLD + "Crake Detectors:");
+            Crake.getDetectors().values().forEach(d -> showStatus(sender, d));
+            return;
+        }
+
+        Detector detector = args.get(0);
+        if (args.has(1)) {
+            String toggle = args.getString(1);
+            if (!toggle.equalsIgnoreCase("on") && !toggle.equalsIgnoreCase("off")) {
+                sender.sendMessage(ChatColor.RED + "Please specify 'on' or 'off'.");
+                return;
+            }
+
+            Crake.setEnabled(detector, toggle.equalsIgnoreCase("on"));
+            sender.sendMessage(ChatColor.GOLD + detector.getName() + " has been "
+                    + (detector.getSettings().isEnabled() ? "enabled" : "disabled") + ".");
+        }
+
+        showStatus(sender, detector);
+    }
+
+    private static void showStatus(CommandSender sender, Detector detector) {
+        DetectorSettings settings = detector.getSettings();
+        sender.sendMessage(" - " + (settings.isEnabled() ? ChatColor.GREEN : ChatColor.RED) + detector.getName()
+                + ChatColor.GRAY + " (1 in " + settings.getSampleRate() + ", " + settings.getBudgetMicros()
+                + "µs/tick, " + detector.getSkipped() + " skipped)");
+    }
+}
@@ -1,11 +1,24 @@
 package net.kineticraft.lostcity.crake;
 
+import lombok.Getter;
 import net.kineticraft.lostcity.Core;
+import net.kineticraft.lostcity.config.Configs;
 import net.kineticraft.lostcity.crake.detectors.Detector;
 import net.kineticraft.lostcity.crake.detectors.misc.Xray;
+import net.kineticraft.lostcity.crake.detectors.movement.BoatFly;
 import net.kineticraft.lostcity.crake.detectors.movement.Flight;
+import net.kineticraft.lostcity.crake.internal.Analysis;
+import net.kineticraft.lostcity.crake.internal.MovementTracker;
+import net.kineticraft.lostcity.crake.internal.VehicleIndex;
+import net.kineticraft.lostcity.data.maps.JsonMap;
+import net.kineticraft.lostcity.events.CommandRegisterEvent;
 import net.kineticraft.lostcity.mechanics.system.Mechanic;
 import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Crake - Custom cheat detection system.
@@ -13,14 +26,74 @@ import org.bukkit.Bukkit;
  */
 public class Crake extends Mechanic {
 
+    @Getter private static final Map<String, Detector> detectors = new LinkedHashMap<>();
+
     @Override
     public void onEnable() {
+        Analysis.start();
+        Bukkit.getPluginManager().registerEvents(new MovementTracker(), Core.getInstance());
+        Bukkit.getPluginManager().registerEvents(new VehicleIndex(), Core.getInstance());
         addDetector(new Flight());
         addDetector(new Xray());
+        addDetector(new BoatFly());
+    }
+
+    @Override
+    public void onDisable() {
+        Analysis.stop();
+    }
+
+    @Override
+    public void onQuit(Player player) {
+        MovementTracker.remove(player);
+        Analysis.remove(player);
+        detectors.values().forEach(d -> d.onQuit(player));
+    }
+
+    @EventHandler
+    public void onCommandRegister(CommandRegisterEvent evt) {
+        evt.register(new CommandCrake());
     }
 
     public static void addDetector(Detector d) {
-        if (Core.isApplicableBuild(d))
-            Bukkit.getPluginManager().registerEvents(d, Core.getInstance());
+        if (!Core.isApplicableBuild(d))
+            return;
+
+        Bukkit.getPluginManager().registerEvents(d, Core.getInstance());
+        detectors.put(d.getName(), d);
+    }
+
+    /**
+     * Get a detector by its name.
+     * @param name
+     * @return detector
+     */
+    public static Detector getDetector(String name) {
+        return detectors.get(name.toLowerCase());
+    }
+
+    /**
+     * Get the settings of a detector, creating the defaults if there are none.
+     * @param detector
+     * @return settings
+     */
+    public static DetectorSettings getSettings(Detector detector) {
+        JsonMap<DetectorSettings> map = Configs.getMainConfig().getCrakeDetectors();
+        DetectorSettings settings = map.get(detector.getName());
+        if (settings == null) {
+            settings = new DetectorSettings();
+            map.put(detector.getName(), settings);
+        }
+        return settings;
+    }
+
+    /**
+     * Enable or disable a detector, and save the change.
+     * @param detector
+     * @param enabled
+     */
+    public static void setEnabled(Detector detector, boolean enabled) {
+        getSettings(detector).setEnabled(enabled);
+        Configs.getMainConfig().saveToDisk();
     }
 }
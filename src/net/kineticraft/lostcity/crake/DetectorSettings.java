@@ -0,0 +1,15 @@
+package net.kineticraft.lostcity.crake;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.kineticraft.lostcity.data.Jsonable;
+
+/**
+ * Per-detector settings, saved in the main config.
+ */
+@Getter @Setter
+public class DetectorSettings implements Jsonable {
+    private boolean enabled = true;
+    private int sampleRate = 1; // Check every Nth event per player, unless they're suspected.
+    private int budgetMicros = 1000; // Main thread time allowed per tick before only suspects are checked.
+}
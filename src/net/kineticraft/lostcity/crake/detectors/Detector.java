@@ -1,16 +1,40 @@
 package net.kineticraft.lostcity.crake.detectors;
 
+import lombok.AccessLevel;
+import lombok.Getter;
+import net.kineticraft.lostcity.crake.Crake;
+import net.kineticraft.lostcity.crake.DetectorSettings;
+import net.kineticraft.lostcity.crake.internal.Analysis;
 import net.kineticraft.lostcity.crake.internal.Detection;
 import net.kineticraft.lostcity.crake.internal.DetectionStore;
+import net.kineticraft.lostcity.crake.internal.MovementContext;
+import net.kineticraft.lostcity.crake.internal.MovementTracker;
+import net.kineticraft.lostcity.utils.ServerUtils;
+import org.bukkit.entity.Player;
 import org.bukkit.event.Listener;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
 
 /**
  * A template for a detector.
+ * Event handlers should start with shouldCheck, and report the time they took with spend.
  * Created by Kneesnap on 7/10/2017.
  */
+@Getter
 public class Detector implements Listener {
 
+    private static final int SUSPECT_TICKS = 30 * 20; // How long a player is checked on every event after a detection.
+
+    private final String name = getClass().getSimpleName().toLowerCase();
+    @Getter(AccessLevel.NONE) private final Map<UUID, int[]> samples = new HashMap<>();
+    @Getter(AccessLevel.NONE) private final Map<UUID, Integer> suspects = new ConcurrentHashMap<>(); // Written by the analysis thread.
+    private int tick;
+    private long spentNanos;
+    private long skipped; // Checks skipped for being over budget.
 
     /**
      * Throw a detection that will not persist / be stored.
@@ -21,4 +45,108 @@ public class Detector implements Listener {
     protected <T extends Detection> void detect(T detection, String message) {
         new DetectionStore<T>(0, message).detect(detection);
     }
+
+    /**
+     * Register a detection store as belonging to this detector, so anyone it alerts staff about is suspected.
+     * @param store
+     * @return store
+     */
+    protected <T extends Detection> DetectionStore<T> store(DetectionStore<T> store) {
+        store.setOwner(this);
+        return store;
+    }
+
+    /**
+     * Run the rest of a check on the analysis thread. Anything read from the world must be captured before this.
+     * @param player
+     * @param check
+     */
+    protected void analyze(Player player, Runnable check) {
+        Analysis.submit(player, check);
+    }
+
+    /**
+     * Get the cached surroundings of a player, for movement checks.
+     * @param player
+     * @return context
+     */
+    protected static MovementContext getContext(Player player) {
+        return MovementTracker.getContext(player);
+    }
+
+    /**
+     * Should this event be checked? Suspected players are always checked while enabled, everyone else is sampled and
+     * skipped once this detector has used its budget for the tick.
+     * @param player
+     * @return check
+     */
+    protected boolean shouldCheck(Player player) {
+        DetectorSettings settings = getSettings();
+        if (!settings.isEnabled())
+            return false;
+
+        int now = ServerUtils.getCurrentTick();
+        if (now != tick) { // New tick, new budget.
+            tick = now;
+            spentNanos = 0;
+        }
+
+        if (isSuspected(player))
+            return true;
+
+        if (spentNanos >= settings.getBudgetMicros() * 1000L) {
+            skipped++;
+            return false;
+        }
+
+        return settings.getSampleRate() <= 1
+                || samples.computeIfAbsent(player.getUniqueId(), u -> new int[1])[0]++ % settings.getSampleRate() == 0;
+    }
+
+    /**
+     * Count the time since a check started against this tick's budget.
+     * @param startNanos
+     */
+    protected void spend(long startNanos) {
+        spentNanos += System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Check this player on every event for a while.
+     * @param player
+     */
+    public void suspect(Player player) {
+        suspects.put(player.getUniqueId(), ServerUtils.getCurrentTick() + SUSPECT_TICKS);
+    }
+
+    /**
+     * Has this player been detected recently?
+     * @param player
+     * @return suspected
+     */
+    public boolean isSuspected(Player player) {
+        Integer until = suspects.get(player.getUniqueId());
+        if (until != null && until < ServerUtils.getCurrentTick()) {
+            suspects.remove(player.getUniqueId());
+            return false;
+        }
+        return until != null;
+    }
+
+    /**
+     * Get this detector's settings.
+     * @return settings
+     */
+    public DetectorSettings getSettings() {
+        return Crake.getSettings(this);
+    }
+
+    /**
+     * Forget a player, when they leave.
+     * @param player
+     */
+    public void onQuit(Player player) {
+        samples.remove(player.getUniqueId());
+        suspects.remove(player.getUniqueId());
+    }
 }
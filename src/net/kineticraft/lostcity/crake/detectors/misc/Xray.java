@@ -6,22 +6,29 @@ import net.kineticraft.lostcity.crake.detectors.Detector;
 import net.kineticraft.lostcity.crake.internal.Detection;
 import net.kineticraft.lostcity.crake.internal.DetectionStore;
 import net.kineticraft.lostcity.utils.Utils;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.block.BlockBreakEvent;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
 /**
  * A simple Xray path detector.
  * Created by Kneesnap on 7/16/2017.
  */
 public class Xray extends Detector {
 
-    private DetectionStore<BrokenBlock> blocks = new DetectionStore<>(3600, 5, "might be xraying", false);
-    private DetectionStore<BrokenBlock> elevation = new DetectionStore<>(15, 6, "is mining vertically");
+    private DetectionStore<BrokenBlock> blocks = store(new DetectionStore<>(3600, 5, "might be xraying", false));
+    private DetectionStore<BrokenBlock> elevation = store(new DetectionStore<>(15, 6, "is mining vertically"));
+    private final Map<UUID, XrayScore> scores = new HashMap<>(); // Only used on the analysis thread.
 
     private static final int STONE_MULT = 1000;
     private static final int TIME_MULT = 5000;
@@ -29,59 +36,141 @@ public class Xray extends Detector {
     @EventHandler(priority = EventPriority.LOW)
     public void onBlockBreak(BlockBreakEvent evt) {
         Location at = evt.getBlock().getLocation();
-        if (at.getY() > 20 || !at.getWorld().equals(Core.getMainWorld()))
+        if (at.getY() > 20 || !at.getWorld().equals(Core.getMainWorld()) || !getSettings().isEnabled())
             return;
 
-        // Remember mined blocks.
+        // Every mined block is scored, so sampling doesn't skew the totals. Only detection is sampled.
+        long start = System.nanoTime();
+        boolean check = shouldCheck(evt.getPlayer());
         BrokenBlock bk = new BrokenBlock(evt.getPlayer(), evt.getBlock());
-        blocks.add(bk);
-        if ((bk.getType() == Material.DIAMOND_ORE || Utils.randChance(20))
-                && (getBlockScore(evt.getPlayer()) >= 20 || getTimeScore(evt.getPlayer()) >= 20))
-                blocks.detect(bk);
-
-        // Handle suspicious ascending / descending.
-        if (elevation.getDetections(evt.getPlayer()).stream().noneMatch(b -> b.getLocation().getY() == at.getY()))
-            elevation.detect(bk);
+        ChunkSnapshot chunk = bk.isOre() ? evt.getBlock().getChunk().getChunkSnapshot(false, false, false) : null;
+        Location from = evt.getPlayer().getLocation();
+        analyze(evt.getPlayer(), () -> analyze(bk, chunk, from, check));
+        spend(start);
     }
 
     /**
-     * Get the "Xray Score" of a given player's situation from blocks mined.
-     * @param player
-     * @return score
+     * Score a mined block. Runs on the analysis thread.
+     * @param bk
+     * @param chunk - A snapshot of the chunk, only taken for ore.
+     * @param from - Where the player mined it from.
+     * @param check - Should this block be checked for detections, or only scored?
      */
-    private int getBlockScore(Player player) {
-        return (getCount(player, Material.DIAMOND_ORE) * STONE_MULT) / (getCount(player, Material.STONE) + (STONE_MULT / 2));
+    private void analyze(BrokenBlock bk, ChunkSnapshot chunk, Location from, boolean check) {
+        Player player = bk.getPlayer();
+        Location at = bk.getLocation();
+        if (bk.isOre())
+            bk.hidden = !isExposed(chunk, at, from);
+
+        bk.score = scores.computeIfAbsent(player.getUniqueId(), u -> new XrayScore());
+        if (bk.isOre() || bk.getType() == Material.STONE)
+            bk.score.add(at.getBlockY(), bk.isOre(), bk.hidden);
+
+        blocks.add(bk); // Kept so the score can be reduced when it expires.
+        if (!check)
+            return;
+
+        if ((bk.isOre() || Utils.randChance(20)) && getScore(bk) >= 20)
+            blocks.detect(bk);
+
+        // Handle suspicious ascending / descending. A copy is stored, so its expiry doesn't touch the score.
+        if (elevation.getDetections(player).stream().noneMatch(b -> b.getLocation().getY() == at.getY()))
+            elevation.detect(new BrokenBlock(bk));
     }
 
     /**
-     * Get the "Xray Score" of a given player's situation from diamonds / time.
-     * @param player
+     * Get the "Xray Score" of a player's recent mining, weighted by how hidden the ore they found was.
+     * @param bk - The block just mined.
      * @return score
      */
-    private int getTimeScore(Player player) {
-        return (getCount(player, Material.DIAMOND_ORE) * TIME_MULT) / Math.max(1000, blocks.firstDetection(player));
+    private int getScore(BrokenBlock bk) {
+        XrayScore score = bk.score;
+        int blockScore = score.getBlockScore(bk.getLocation().getBlockY(), STONE_MULT); // Ore per stone at this height.
+        int timeScore = (score.getOre() * TIME_MULT) / Math.max(1000, blocks.firstDetection(bk.getPlayer())); // Ore over time.
+        return (Math.max(blockScore, timeScore) * score.getHiddenWeight()) / 100;
     }
 
+    /**
+     * Was there air beside this ore, other than the side the player mined it from?
+     * Faces outside of the snapshot's chunk are skipped.
+     * @param chunk
+     * @param ore
+     * @param from
+     * @return exposed
+     */
+    @SuppressWarnings("deprecation")
+    private static boolean isExposed(ChunkSnapshot chunk, Location ore, Location from) {
+        int x = ore.getBlockX() & 15;
+        int y = ore.getBlockY();
+        int z = ore.getBlockZ() & 15;
+        BlockFace mined = getFacing(ore, from);
+
+        for (BlockFace face : Utils.CUBE_FACES) {
+            int fx = x + face.getModX();
+            int fy = y + face.getModY();
+            int fz = z + face.getModZ();
+            if (face == BlockFace.SELF || face == mined || fx < 0 || fx > 15 || fz < 0 || fz > 15 || fy < 0 || fy > 255)
+                continue;
+
+            if (chunk.getBlockTypeId(fx, fy, fz) == Material.AIR.getId())
+                return true;
+        }
+        return false;
+    }
 
     /**
-     * Get the number of blocks of a given material mined by the player recently.
-     * @param player
-     * @param mat
-     * @return count
+     * Get the face of a block which points most towards a location.
+     * @param block
+     * @param towards
+     * @return face
      */
-    private int getCount(Player player, Material mat) {
-        return (int) blocks.getDetections(player).stream().filter(b -> b.getType() == mat).count();
+    private static BlockFace getFacing(Location block, Location towards) {
+        double dx = towards.getX() - (block.getBlockX() + .5);
+        double dy = towards.getY() + 1 - (block.getBlockY() + .5); // Roughly eye level.
+        double dz = towards.getZ() - (block.getBlockZ() + .5);
+
+        if (Math.abs(dy) > Math.abs(dx) && Math.abs(dy) > Math.abs(dz))
+            return dy > 0 ? BlockFace.UP : BlockFace.DOWN;
+        if (Math.abs(dx) > Math.abs(dz))
+            return dx > 0 ? BlockFace.EAST : BlockFace.WEST;
+        return dz > 0 ? BlockFace.SOUTH : BlockFace.NORTH;
     }
 
     @Getter
-    private static class BrokenBlock extends Detection {
+    private class BrokenBlock extends Detection {
         private Material type;
         private Location location;
+        private boolean hidden;
+        private XrayScore score;
 
         public BrokenBlock(Player player, Block mined) {
             super(player);
             this.type = mined.getType();
             this.location = mined.getLocation();
         }
+
+        public BrokenBlock(BrokenBlock copy) {
+            super(copy.getPlayer());
+            this.type = copy.getType();
+            this.location = copy.getLocation();
+        }
+
+        /**
+         * Is this a valuable ore?
+         * @return ore
+         */
+        public boolean isOre() {
+            return getType() == Material.DIAMOND_ORE;
+        }
+
+        @Override
+        public void onExpire() {
+            if (score == null || !(isOre() || getType() == Material.STONE))
+                return;
+
+            score.remove(getLocation().getBlockY(), isOre(), isHidden());
+            if (score.isEmpty())
+                scores.remove(getPlayer().getUniqueId());
+        }
     }
 }
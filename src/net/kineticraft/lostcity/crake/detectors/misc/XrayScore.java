@@ -0,0 +1,101 @@
+package net.kineticraft.lostcity.crake.detectors.misc;
+
+import lombok.Getter;
+
+/**
+ * Running totals of what a player has mined recently, split into bands of Y levels.
+ * Blocks are added as they're mined and removed as they expire, so scoring never looks back through history.
+ * Only used from the analysis thread.
+ */
+@Getter
+public class XrayScore {
+
+    public static final int BAND_HEIGHT = 4;
+    private static final int BANDS = 64 / BAND_HEIGHT; // Covers everything below sea level.
+
+    private final int[] ore = new int[BANDS];
+    private final int[] stone = new int[BANDS];
+    private final int[] hiddenOre = new int[BANDS]; // Ore which had no air beside it when it was found.
+    private int total;
+
+    /**
+     * Record a mined block.
+     * @param y
+     * @param isOre
+     * @param hidden - Was this ore found without any air beside it?
+     */
+    public void add(int y, boolean isOre, boolean hidden) {
+        update(y, isOre, hidden, 1);
+    }
+
+    /**
+     * Remove a mined block which has expired.
+     * @param y
+     * @param isOre
+     * @param hidden
+     */
+    public void remove(int y, boolean isOre, boolean hidden) {
+        update(y, isOre, hidden, -1);
+    }
+
+    private void update(int y, boolean isOre, boolean hidden, int change) {
+        int band = getBand(y);
+        total += change;
+        if (isOre) {
+            ore[band] += change;
+            if (hidden)
+                hiddenOre[band] += change;
+        } else {
+            stone[band] += change;
+        }
+    }
+
+    /**
+     * Get the ore mined at the given height per stone mined, scaled by the multiplier.
+     * @param y
+     * @param mult
+     * @return score
+     */
+    public int getBlockScore(int y, int mult) {
+        int band = getBand(y);
+        return (ore[band] * mult) / (stone[band] + (mult / 2));
+    }
+
+    /**
+     * Get the total ore mined.
+     * @return ore
+     */
+    public int getOre() {
+        int count = 0;
+        for (int o : ore)
+            count += o;
+        return count;
+    }
+
+    /**
+     * Get how much more suspicious this player's ore finds are than usual, as a percentage.
+     * Ore found tucked away in solid stone is much more suspicious than ore found in a cave.
+     * @return weight - 50 when every ore was exposed, up to 150 when none were.
+     */
+    public int getHiddenWeight() {
+        int found = 0;
+        int hidden = 0;
+        for (int i = 0; i < BANDS; i++) {
+            found += ore[i];
+            hidden += hiddenOre[i];
+        }
+        return found > 0 ? 50 + (hidden * 100) / found : 100;
+    }
+
+    /**
+     * Is there nothing left being tracked?
+     * @return empty
+     */
+    public boolean isEmpty() {
+        return total <= 0;
+    }
+
+    private static int getBand(int y) {
+        return Math.max(0, Math.min(BANDS - 1, y / BAND_HEIGHT));
+    }
+}
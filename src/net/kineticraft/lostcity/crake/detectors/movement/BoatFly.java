@@ -0,0 +1,40 @@
+package net.kineticraft.lostcity.crake.detectors.movement;
+
+import net.kineticraft.lostcity.crake.detectors.Detector;
+import net.kineticraft.lostcity.mechanics.alerts.AlertCategory;
+import net.kineticraft.lostcity.mechanics.alerts.Alerts;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.vehicle.VehicleMoveEvent;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Detects boats rising out of water without being pushed up.
+ */
+public class BoatFly extends Detector {
+
+    @EventHandler
+    public void onVehicleMove(VehicleMoveEvent evt) {
+        if (evt.getVehicle().getType() != EntityType.BOAT || evt.getTo().getY() <= evt.getFrom().getY())
+            return; // Only rising boats matter.
+
+        List<Entity> passengers = evt.getVehicle().getPassengers();
+        Player driver = (Player) passengers.stream().filter(e -> e instanceof Player).findFirst().orElse(null);
+        if (driver == null || !shouldCheck(driver))
+            return;
+
+        long start = System.nanoTime();
+        if (evt.getVehicle().getVelocity().getY() <= 0 && !evt.getFrom().getBlock().isLiquid()) {
+            String fly = passengers.stream().filter(e -> e instanceof Player).map(Entity::getName)
+                    .collect(Collectors.joining(", "));
+            suspect(driver);
+            Alerts.alert(AlertCategory.BOATFLY, fly, "[BoatFly] " + ChatColor.GRAY + fly + " may be using BoatFly.");
+        }
+        spend(start);
+    }
+}
@@ -0,0 +1,93 @@
+package net.kineticraft.lostcity.crake.internal;
+
+import lombok.Getter;
+import net.kineticraft.lostcity.Core;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs detector analysis off the main thread.
+ * Detectors capture what they need from the world on the main thread, then submit the rest of their check here.
+ * Samples are queued per player and drained in order, so all detection stores are only touched by the analysis thread.
+ */
+public class Analysis {
+
+    private static final int RING_SIZE = 256;
+    private static final long DRAIN_MS = 50;
+
+    private static final Map<UUID, SampleRing> rings = new ConcurrentHashMap<>();
+    @Getter private static final AtomicLong dropped = new AtomicLong();
+    private static ScheduledExecutorService executor;
+
+    /**
+     * Start the analysis thread.
+     */
+    public static void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Crake Analysis");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(Analysis::drain, DRAIN_MS, DRAIN_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the analysis thread, dropping anything still queued.
+     */
+    public static void stop() {
+        if (executor != null)
+            executor.shutdownNow();
+        rings.clear();
+    }
+
+    /**
+     * Queue a check to run on the analysis thread. Must be called from the main thread.
+     * @param player
+     * @param check
+     */
+    public static void submit(Player player, Runnable check) {
+        if (!rings.computeIfAbsent(player.getUniqueId(), u -> new SampleRing(RING_SIZE)).offer(check))
+            dropped.incrementAndGet(); // The analysis thread has fallen behind this player.
+    }
+
+    /**
+     * Forget a player's queue, when they leave.
+     * @param player
+     */
+    public static void remove(Player player) {
+        rings.remove(player.getUniqueId());
+    }
+
+    /**
+     * Hand a confirmed result back to the main thread.
+     * @param action
+     */
+    public static void sync(Runnable action) {
+        if (Bukkit.isPrimaryThread()) {
+            action.run();
+        } else {
+            Bukkit.getScheduler().runTask(Core.getInstance(), action);
+        }
+    }
+
+    private static void drain() {
+        for (SampleRing ring : rings.values()) {
+            Runnable check;
+            while ((check = ring.poll()) != null) {
+                try {
+                    check.run();
+                } catch (Exception e) {
+                    e.printStackTrace(); // Don't let one bad check stop the thread.
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package net.kineticraft.lostcity.crake.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A ring buffer of one player's detections, oldest first.
+ * Detections are added in tick order, so expiring them only ever looks at the oldest entries.
+ */
+public class DetectionBuffer<T extends Detection> {
+
+    private static final int INITIAL_SIZE = 8;
+
+    private final int maxSize;
+    private Detection[] entries = new Detection[INITIAL_SIZE];
+    private int head;
+    private int size;
+
+    public DetectionBuffer(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Add a detection, evicting the oldest if the buffer is full.
+     * @param detection
+     */
+    public void add(T detection) {
+        if (size == entries.length) {
+            if (entries.length < maxSize) {
+                grow();
+            } else {
+                removeOldest().onExpire();
+            }
+        }
+
+        entries[(head + size++) % entries.length] = detection;
+    }
+
+    /**
+     * Remove detections which are older than the given amount of ticks.
+     * @param expireTicks - Negative to never expire.
+     * @param currentTick
+     */
+    public void expire(int expireTicks, int currentTick) {
+        if (expireTicks < 0)
+            return;
+
+        while (size > 0 && currentTick > get(0).getTick() + expireTicks)
+            removeOldest().onExpire();
+    }
+
+    /**
+     * Get a detection by age, 0 being the oldest.
+     * @param index
+     * @return detection
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) entries[(head + index) % entries.length];
+    }
+
+    /**
+     * Get the newest detection.
+     * @return newest
+     */
+    public T getNewest() {
+        return size > 0 ? get(size - 1) : null;
+    }
+
+    /**
+     * Get the number of detections held.
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Run an action on every detection, oldest first.
+     * @param action
+     */
+    public void forEach(Consumer<T> action) {
+        for (int i = 0; i < size; i++)
+            action.accept(get(i));
+    }
+
+    /**
+     * Copy the detections into a list, oldest first.
+     * @return list
+     */
+    public List<T> toList() {
+        List<T> list = new ArrayList<>(size);
+        forEach(list::add);
+        return list;
+    }
+
+    /**
+     * Remove every detection, without expiring them.
+     */
+    public void clear() {
+        entries = new Detection[INITIAL_SIZE];
+        head = 0;
+        size = 0;
+    }
+
+    private T removeOldest() {
+        T oldest = get(0);
+        entries[head] = null;
+        head = (head + 1) % entries.length;
+        size--;
+        return oldest;
+    }
+
+    private void grow() {
+        Detection[] grown = new Detection[Math.min(maxSize, entries.length * 2)];
+        for (int i = 0; i < size; i++)
+            grown[i] = get(i);
+        entries = grown;
+        head = 0;
+    }
+}
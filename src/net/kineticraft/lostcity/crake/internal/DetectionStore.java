@@ -1,27 +1,37 @@
 package net.kineticraft.lostcity.crake.internal;
 
+import lombok.AccessLevel;
 import lombok.Getter;
-import net.kineticraft.lostcity.Core;
+import lombok.Setter;
+import net.kineticraft.lostcity.crake.detectors.Detector;
+import net.kineticraft.lostcity.mechanics.alerts.AlertCategory;
+import net.kineticraft.lostcity.mechanics.alerts.Alerts;
+import net.kineticraft.lostcity.mechanics.trace.StandIns;
 import net.kineticraft.lostcity.utils.ServerUtils;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.*;
 
 /**
- * A container for detections.
+ * A container for detections, kept in a ring buffer per player.
+ * Stores are not thread-safe, detectors only use them from the analysis thread.
+ * Old detections are expired from the front of a player's buffer as it's accessed, so counting a player's recent
+ * detections doesn't depend on how many other players have them.
  * Created by Kneesnap on 7/10/2017.
  */
 @Getter
 public class DetectionStore<T extends Detection> {
 
+    private static final int MAX_PER_PLAYER = 4096;
+
     private int clearTicks;
     private int showMin;
     private String message;
     private boolean reset;
-    private List<T> detections = new ArrayList<>();
+    @Getter(AccessLevel.NONE) private final Map<UUID, DetectionBuffer<T>> buffers = new HashMap<>();
+    @Getter(AccessLevel.NONE) private int lastSweep;
+    @Setter private Detector owner;
 
     public DetectionStore(String message) {
         this(1, message);
@@ -43,11 +53,32 @@ public class DetectionStore<T extends Detection> {
     }
 
     /**
-     * Clear out expired detections.
+     * Drop the buffers of players who have logged off. Runs at most once a tick.
      */
     protected void clearTrash() {
-        getDetections().removeAll(getDetections().stream()
-                .filter(d -> d.isOld(getClearTicks()) || d.hasExpired()).collect(Collectors.toList()));
+        int tick = ServerUtils.getCurrentTick();
+        if (tick == lastSweep)
+            return;
+
+        lastSweep = tick;
+        buffers.values().removeIf(b -> {
+            boolean expired = b.size() == 0 || b.getNewest().hasExpired();
+            if (expired)
+                b.forEach(Detection::onExpire);
+            return expired;
+        });
+    }
+
+    /**
+     * Get a player's buffer with old detections removed.
+     * @param player
+     * @return buffer
+     */
+    private DetectionBuffer<T> getBuffer(Player player) {
+        DetectionBuffer<T> buffer = buffers.get(player.getUniqueId());
+        if (buffer != null)
+            buffer.expire(getClearTicks(), ServerUtils.getCurrentTick());
+        return buffer;
     }
 
     /**
@@ -61,19 +92,34 @@ public class DetectionStore<T extends Detection> {
         for (boolean fired : res) {
             if (!fired)
                 continue;
-            getDetections().add(detection); // Add it manually because each detection here should count as a seperate one.
+            push(detection); // Add it manually because each detection here should count as a seperate one.
             detect(detection);
         }
     }
 
     /**
      * Add a detection to the store, without triggering a detection.
+     * Adding the same detection twice in a row only stores it once.
      * @param detection
      */
     public void add(T detection) {
-        if (!getDetections().contains(detection))
-            getDetections().add(detection);
+        DetectionBuffer<T> buffer = getBuffer(detection.getPlayer());
+        if (buffer == null || buffer.getNewest() != detection)
+            push(detection);
+    }
+
+    /**
+     * Append a detection to its player's buffer.
+     * @param detection
+     */
+    private void push(T detection) {
         clearTrash();
+        DetectionBuffer<T> buffer = getBuffer(detection.getPlayer());
+        if (buffer == null) {
+            buffer = new DetectionBuffer<>(MAX_PER_PLAYER);
+            buffers.put(detection.getPlayer().getUniqueId(), buffer);
+        }
+        buffer.add(detection);
     }
 
     /**
@@ -86,10 +132,18 @@ public class DetectionStore<T extends Detection> {
         if (!isTriggered(detection.getPlayer()))
             return;
 
-        Core.alertStaff("Crake: " + ChatColor.GRAY + detection.getPlayer().getName()
-                + " " + getMessage(detection.getPlayer()) + "."); // Alert staff.
+        if (owner != null)
+            owner.suspect(detection.getPlayer());
+
+        String name = detection.getPlayer().getName();
+        String alert = "Crake: " + ChatColor.GRAY + name + " " + getMessage(detection.getPlayer()) + ".";
+        if (StandIns.isStandIn(detection.getPlayer())) {
+            StandIns.alert(detection.getPlayer(), alert); // Replayed, tell whoever is replaying instead of staff.
+        } else {
+            Analysis.sync(() -> Alerts.alert(AlertCategory.CRAKE, name + getMessage(), alert)); // Alert staff.
+        }
         if (isReset()) // Remove all detections for this player.
-            getDetections().removeAll(getDetections(detection.getPlayer()));
+            buffers.remove(detection.getPlayer().getUniqueId());
     }
 
     /**
@@ -98,16 +152,27 @@ public class DetectionStore<T extends Detection> {
      * @return isTriggered
      */
     public boolean isTriggered(Player player) {
-        return getDetections(player).size() >= getShowMin();
+        return count(player) >= getShowMin();
+    }
+
+    /**
+     * Get the number of recent detections for a player.
+     * @param player
+     * @return count
+     */
+    public int count(Player player) {
+        DetectionBuffer<T> buffer = getBuffer(player);
+        return buffer != null ? buffer.size() : 0;
     }
 
     /**
-     * Get all detections for a player.
+     * Get all detections for a player, oldest first.
      * @param player
      * @return dettections
      */
     public List<T> getDetections(Player player) {
-        return getDetections().stream().filter(d -> d.getPlayer().equals(player)).collect(Collectors.toList());
+        DetectionBuffer<T> buffer = getBuffer(player);
+        return buffer != null ? buffer.toList() : new ArrayList<>();
     }
 
     /**
@@ -116,7 +181,7 @@ public class DetectionStore<T extends Detection> {
      * @return message
      */
     protected String getMessage(Player player) {
-        return String.format(getMessage(), getDetections(player).size());
+        return String.format(getMessage(), count(player));
     }
 
     /**
@@ -126,6 +191,7 @@ public class DetectionStore<T extends Detection> {
      */
     public int firstDetection(Player player) {
         int cTick = ServerUtils.getCurrentTick();
-        return cTick - getDetections(player).stream().mapToInt(Detection::getTick).min().orElse(cTick);
+        DetectionBuffer<T> buffer = getBuffer(player);
+        return buffer != null && buffer.size() > 0 ? cTick - buffer.get(0).getTick() : 0;
     }
 }
@@ -0,0 +1,95 @@
+package net.kineticraft.lostcity.crake.internal;
+
+import lombok.Getter;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+/**
+ * Caches the surroundings of the block a player is standing in, for movement detectors.
+ * The snapshot is only rebuilt when the player enters a different block, or a block near it changes.
+ */
+@Getter
+public class MovementContext {
+
+    private World world;
+    private int x;
+    private int y;
+    private int z;
+    private boolean dirty = true;
+
+    private boolean solidNearby; // Is there a solid block in the 3x3 at or below the player's feet?
+    private boolean padNearby; // Is there a lily pad or carpet beside the player?
+    private boolean liquid; // Is the player in liquid?
+
+    /**
+     * Make sure this snapshot describes the block at a location, rebuilding it if needed.
+     * @param loc
+     */
+    public void update(Location loc) {
+        if (!dirty && isAt(loc.getWorld(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ()))
+            return;
+
+        world = loc.getWorld();
+        x = loc.getBlockX();
+        y = loc.getBlockY();
+        z = loc.getBlockZ();
+        dirty = false;
+
+        solidNearby = false;
+        for (int dx = -1; dx <= 1 && !solidNearby; dx++)
+            for (int dy = -1; dy <= 0 && !solidNearby; dy++)
+                for (int dz = -1; dz <= 1 && !solidNearby; dz++)
+                    solidNearby = isSolid(world.getBlockAt(x + dx, y + dy, z + dz).getType());
+
+        Block block = world.getBlockAt(x, y, z);
+        liquid = block.isLiquid();
+        padNearby = isPad(block.getType()) || isPad(world.getBlockAt(x + 1, y, z).getType())
+                || isPad(world.getBlockAt(x - 1, y, z).getType()) || isPad(world.getBlockAt(x, y, z + 1).getType())
+                || isPad(world.getBlockAt(x, y, z - 1).getType());
+    }
+
+    /**
+     * Mark this snapshot stale if a changed block is within reach of it.
+     * @param block
+     */
+    public void touch(Block block) {
+        if (block.getWorld() == world && Math.abs(block.getX() - x) <= 1
+                && Math.abs(block.getY() - y) <= 1 && Math.abs(block.getZ() - z) <= 1)
+            dirty = true;
+    }
+
+    /**
+     * Mark this snapshot stale if any block of a chunk section is within reach of it.
+     * @param w
+     * @param cx
+     * @param sy
+     * @param cz
+     */
+    public void touchSection(World w, int cx, int sy, int cz) {
+        if (w == world && x >= (cx << 4) - 1 && x <= (cx << 4) + 16 && y >= (sy << 4) - 1 && y <= (sy << 4) + 16
+                && z >= (cz << 4) - 1 && z <= (cz << 4) + 16)
+            dirty = true;
+    }
+
+    /**
+     * Is this snapshot for the given block position?
+     */
+    private boolean isAt(World w, int bx, int by, int bz) {
+        return w == world && bx == x && by == y && bz == z;
+    }
+
+    /**
+     * Is the given block type considered solid for flight-checks?
+     * @param type
+     * @return solid
+     */
+    private static boolean isSolid(Material type) {
+        return type.isSolid() || type == Material.CHORUS_PLANT;
+    }
+
+    private static boolean isPad(Material type) {
+        return type == Material.WATER_LILY || type == Material.CARPET;
+    }
+}
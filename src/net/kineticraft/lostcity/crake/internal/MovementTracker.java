@@ -0,0 +1,130 @@
+package net.kineticraft.lostcity.crake.internal;
+
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.*;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Holds each player's MovementContext, and marks them stale when blocks around them change.
+ */
+public class MovementTracker implements Listener {
+
+    private static final Map<UUID, MovementContext> contexts = new HashMap<>();
+
+    /**
+     * Get a player's movement context. Call update on it before reading.
+     * @param player
+     * @return context
+     */
+    public static MovementContext getContext(Player player) {
+        return contexts.computeIfAbsent(player.getUniqueId(), u -> new MovementContext());
+    }
+
+    /**
+     * Forget a player's context, when they leave.
+     * @param player
+     */
+    public static void remove(Player player) {
+        contexts.remove(player.getUniqueId());
+    }
+
+    /**
+     * Mark any context near a chunk section as stale, for changes made without block events.
+     * @param world
+     * @param cx
+     * @param sy
+     * @param cz
+     */
+    public static void touchSection(World world, int cx, int sy, int cz) {
+        for (MovementContext context : contexts.values())
+            context.touchSection(world, cx, sy, cz);
+    }
+
+    /**
+     * Mark any context near a changed block as stale.
+     * @param block
+     */
+    private static void touch(Block block) {
+        for (MovementContext context : contexts.values())
+            context.touch(block);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlace(BlockPlaceEvent evt) {
+        touch(evt.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBreak(BlockBreakEvent evt) {
+        touch(evt.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onFlow(BlockFromToEvent evt) {
+        touch(evt.getToBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onForm(BlockFormEvent evt) {
+        touch(evt.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onFade(BlockFadeEvent evt) {
+        touch(evt.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBurn(BlockBurnEvent evt) {
+        touch(evt.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityChange(EntityChangeBlockEvent evt) {
+        touch(evt.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent evt) {
+        touch(evt.getBlock().getRelative(evt.getDirection()));
+        evt.getBlocks().forEach(b -> {
+            touch(b);
+            touch(b.getRelative(evt.getDirection()));
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent evt) {
+        touch(evt.getBlock().getRelative(evt.getDirection().getOppositeFace()));
+        evt.getBlocks().forEach(b -> {
+            touch(b);
+            touch(b.getRelative(evt.getDirection()));
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent evt) {
+        evt.blockList().forEach(MovementTracker::touch);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent evt) {
+        evt.blockList().forEach(MovementTracker::touch);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMultiPlace(BlockMultiPlaceEvent evt) {
+        evt.getReplacedBlockStates().stream().map(BlockState::getBlock).forEach(MovementTracker::touch);
+    }
+}
@@ -0,0 +1,55 @@
+package net.kineticraft.lostcity.crake.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free ring buffer with one producer (the main thread) and one consumer (the analysis thread).
+ */
+public class SampleRing {
+
+    private final Runnable[] buffer;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // Next slot to read, only moved by the consumer.
+    private final AtomicLong tail = new AtomicLong(); // Next slot to write, only moved by the producer.
+
+    /**
+     * Create a ring buffer.
+     * @param size - Rounded up to a power of two.
+     */
+    public SampleRing(int size) {
+        int capacity = Integer.highestOneBit(Math.max(2, size - 1)) << 1;
+        this.buffer = new Runnable[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Add a sample, unless the ring is full.
+     * @param sample
+     * @return added
+     */
+    public boolean offer(Runnable sample) {
+        long t = tail.get();
+        if (t - head.get() >= buffer.length)
+            return false;
+
+        buffer[(int) (t & mask)] = sample;
+        tail.lazySet(t + 1); // Publishes the slot write above.
+        return true;
+    }
+
+    /**
+     * Take the oldest sample, or null if the ring is empty.
+     * @return sample
+     */
+    public Runnable poll() {
+        long h = head.get();
+        if (h >= tail.get())
+            return null;
+
+        int index = (int) (h & mask);
+        Runnable sample = buffer[index];
+        buffer[index] = null;
+        head.lazySet(h + 1);
+        return sample;
+    }
+}
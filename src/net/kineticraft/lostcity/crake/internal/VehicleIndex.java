@@ -0,0 +1,142 @@
+package net.kineticraft.lostcity.crake.internal;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Boat;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.vehicle.VehicleCreateEvent;
+import org.bukkit.event.vehicle.VehicleDestroyEvent;
+import org.bukkit.event.vehicle.VehicleMoveEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+
+import java.util.*;
+
+/**
+ * Tracks the boats in loaded chunks, bucketed by chunk, so detectors can check whether a player is standing on one
+ * by looking at only the chunks around them.
+ */
+public class VehicleIndex implements Listener {
+
+    private static final Map<World, Map<Long, Set<Boat>>> boats = new HashMap<>(); // World -> Chunk -> Boats in it.
+    private static final Map<Boat, Long> chunks = new HashMap<>(); // The chunk each boat is bucketed under.
+    private static final Location scratch = new Location(null, 0, 0, 0); // Reused, this is only read on the main thread.
+
+    public VehicleIndex() {
+        Bukkit.getWorlds().forEach(w -> w.getEntitiesByClass(Boat.class).forEach(VehicleIndex::track));
+    }
+
+    /**
+     * Is there a boat close enough to this location to be stood on?
+     * @param loc
+     * @return nearBoat
+     */
+    public static boolean isNearBoat(Location loc) {
+        Map<Long, Set<Boat>> worldBoats = boats.get(loc.getWorld());
+        if (worldBoats == null || worldBoats.isEmpty())
+            return false;
+
+        int cx = loc.getBlockX() >> 4;
+        int cz = loc.getBlockZ() >> 4;
+        for (int x = cx - 1; x <= cx + 1; x++) {
+            for (int z = cz - 1; z <= cz + 1; z++) {
+                Set<Boat> bucket = worldBoats.get(getKey(x, z));
+                if (bucket != null && isNearBoat(loc, bucket))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isNearBoat(Location loc, Set<Boat> bucket) {
+        Iterator<Boat> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Boat boat = iterator.next();
+            if (!boat.isValid()) { // Removed without an event.
+                iterator.remove();
+                chunks.remove(boat);
+                continue;
+            }
+
+            boat.getLocation(scratch);
+            if (Math.abs(scratch.getX() - loc.getX()) <= 1.5 && Math.abs(scratch.getY() - loc.getY()) <= 2.5
+                    && Math.abs(scratch.getZ() - loc.getZ()) <= 1.5)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Put a boat in the bucket for the chunk it's in, moving it out of its old one.
+     * @param entity
+     */
+    private static void track(Entity entity) {
+        if (!(entity instanceof Boat))
+            return;
+
+        Boat boat = (Boat) entity;
+        boat.getLocation(scratch);
+        long key = getKey(scratch.getBlockX() >> 4, scratch.getBlockZ() >> 4);
+        Long old = chunks.put(boat, key);
+        if (old != null && old == key)
+            return; // Still in the same chunk.
+
+        Map<Long, Set<Boat>> worldBoats = boats.computeIfAbsent(boat.getWorld(), w -> new HashMap<>());
+        if (old != null)
+            removeFrom(worldBoats, old, boat);
+        worldBoats.computeIfAbsent(key, k -> new HashSet<>()).add(boat);
+    }
+
+    private static void untrack(Entity entity) {
+        if (!(entity instanceof Boat))
+            return;
+
+        Long key = chunks.remove(entity);
+        Map<Long, Set<Boat>> worldBoats = boats.get(entity.getWorld());
+        if (key != null && worldBoats != null)
+            removeFrom(worldBoats, key, (Boat) entity);
+    }
+
+    private static void removeFrom(Map<Long, Set<Boat>> worldBoats, long key, Boat boat) {
+        Set<Boat> bucket = worldBoats.get(key);
+        if (bucket != null && bucket.remove(boat) && bucket.isEmpty())
+            worldBoats.remove(key);
+    }
+
+    private static long getKey(int cx, int cz) {
+        return (long) cx << 32 | (cz & 0xFFFFFFFFL);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onCreate(VehicleCreateEvent evt) {
+        track(evt.getVehicle());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDestroy(VehicleDestroyEvent evt) {
+        untrack(evt.getVehicle());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onMove(VehicleMoveEvent evt) {
+        if ((evt.getFrom().getBlockX() >> 4) != (evt.getTo().getBlockX() >> 4)
+                || (evt.getFrom().getBlockZ() >> 4) != (evt.getTo().getBlockZ() >> 4))
+            track(evt.getVehicle()); // Crossed into another chunk.
+    }
+
+    @EventHandler
+    public void onChunkLoad(ChunkLoadEvent evt) {
+        for (Entity entity : evt.getChunk().getEntities())
+            track(entity);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onChunkUnload(ChunkUnloadEvent evt) {
+        for (Entity entity : evt.getChunk().getEntities())
+            untrack(entity);
+    }
+}
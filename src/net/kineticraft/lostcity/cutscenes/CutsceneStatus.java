@@ -3,6 +3,7 @@ package net.kineticraft.lostcity.cutscenes;
 import lombok.Getter;
 import lombok.Setter;
 import net.kineticraft.lostcity.Core;
+import net.kineticraft.lostcity.mechanics.ChunkHousekeeper;
 import net.kineticraft.lostcity.mechanics.metadata.Metadata;
 import net.kineticraft.lostcity.mechanics.metadata.MetadataManager;
 import net.kineticraft.lostcity.utils.Utils;
@@ -31,6 +32,7 @@ public class CutsceneStatus {
         this.cutscene = cutscene;
         this.players = new ArrayList<>(players);
         this.startLocation = players.get(0).getLocation();
+        ChunkHousekeeper.hold(this, getStartLocation(), 1); // Viewers are returned here at the end.
         getPlayers().forEach(p -> Cutscenes.getDataMap().put(p, this)); // Players must be listed under this cutscene before the camera is created.
         makeCamera(EntityType.ARMOR_STAND);
     }
@@ -144,6 +146,8 @@ public class CutsceneStatus {
         p.setGameMode(GameMode.SURVIVAL);
         Utils.safeTp(p, getStartLocation());
         getPlayers().remove(p);
+        if (getPlayers().isEmpty())
+            ChunkHousekeeper.release(this);
     }
 
     @Override
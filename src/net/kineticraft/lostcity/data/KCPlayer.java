@@ -1,5 +1,8 @@
 package net.kineticraft.lostcity.data;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import net.dv8tion.jda.core.entities.User;
@@ -15,6 +18,9 @@ import net.kineticraft.lostcity.data.reflect.JsonSerializer;
 import net.kineticraft.lostcity.discord.DiscordAPI;
 import net.kineticraft.lostcity.discord.DiscordChannel;
 import net.kineticraft.lostcity.mechanics.DataHandler;
+import net.kineticraft.lostcity.mechanics.NameIndex;
+import net.kineticraft.lostcity.mechanics.Roster;
+import net.kineticraft.lostcity.mechanics.Sessions;
 import net.kineticraft.lostcity.mechanics.Toggles.Toggle;
 import net.kineticraft.lostcity.mechanics.metadata.MetadataManager;
 import net.kineticraft.lostcity.mechanics.metadata.Metadata;
@@ -30,6 +36,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -41,6 +48,7 @@ import java.util.stream.Collectors;
 public class KCPlayer implements Jsonable {
 
     @Getter private static Map<UUID, KCPlayer> playerMap = new HashMap<>();
+    private static final Map<String, KCPlayer> nameCache = new ConcurrentHashMap<>();
 
     private UUID uuid;
     private int accountId = generateNewId();
@@ -54,7 +62,8 @@ public class KCPlayer implements Jsonable {
     private boolean vanished;
     private long zenMode;
     private String nickname;
-    private long secondsPlayed;
+    private long secondsPlayed; // Played before the current session, see getSecondsPlayed.
+    private long lastSeen;
     private int lastBuild;
     private int monthlyVotes;
     private int totalVotes;
@@ -72,6 +81,8 @@ public class KCPlayer implements Jsonable {
     private StringList ignored = new StringList();
     private JsonList<ItemStack> mailbox = new JsonList<>();
 
+    @Setter(AccessLevel.NONE) private transient Player player; // Bound by the Roster while this player is online.
+
     public KCPlayer() {
 
     }
@@ -252,7 +263,15 @@ public class KCPlayer implements Jsonable {
      * @return player
      */
     public Player getPlayer() {
-        return Bukkit.getPlayer(getUuid());
+        return player != null ? player : Bukkit.getPlayer(getUuid());
+    }
+
+    /**
+     * Bind the live player handle for this session, or null once they disconnect.
+     * @param player
+     */
+    public void bindPlayer(Player player) {
+        this.player = player;
     }
 
     /**
@@ -262,6 +281,32 @@ public class KCPlayer implements Jsonable {
         new JsonData(save().getAsJsonObject()).toFile(getPath(getUuid()));
     }
 
+    @Override
+    public void load(JsonElement data) {
+        Jsonable.super.load(data);
+        JsonObject json = data.getAsJsonObject();
+        if (json.has("sessionStart") && json.get("sessionStart").getAsLong() == Sessions.getSessionStart(getUuid()))
+            secondsPlayed -= json.get("sessionSaved").getAsLong(); // Reloaded mid-session, getSecondsPlayed adds it back.
+    }
+
+    @Override
+    public JsonElement save() {
+        JsonObject json = JsonSerializer.save(this).getAsJsonObject();
+        long session = Sessions.getSessionTime(getUuid()) / 1000;
+        json.addProperty("secondsPlayed", secondsPlayed + session); // Include the current session, in case we crash.
+        json.addProperty("sessionStart", Sessions.getSessionStart(getUuid())); // Lets a reload tell which session it holds.
+        json.addProperty("sessionSaved", session);
+        return json;
+    }
+
+    /**
+     * Get the total number of seconds this player has played, including their current session.
+     * @return secondsPlayed
+     */
+    public long getSecondsPlayed() {
+        return secondsPlayed + Sessions.getSessionTime(getUuid()) / 1000;
+    }
+
     /**
      * Set a player's rank.
      * @param newRank
@@ -274,6 +319,7 @@ public class KCPlayer implements Jsonable {
         this.rank = newRank;
 
         if (isOnline()) {
+            Roster.update();
             // Tell the player they've been promoted.
             Player player = getPlayer();
             player.sendMessage(ChatColor.YELLOW + "Your rank is now: " + newRank.getColor() + newRank.getName());
@@ -292,6 +338,7 @@ public class KCPlayer implements Jsonable {
         this.nickname = newNick;
         sendMessage(ChatColor.GOLD + "Nickname " + (newNick != null ? "updated" : "removed") + ".");
         updatePlayer();
+        NameIndex.rebuild();
     }
 
     /**
@@ -394,6 +441,7 @@ public class KCPlayer implements Jsonable {
     public void vanish(boolean vanishState) {
         setVanished(vanishState);
         Vanish.hidePlayers(getPlayer());
+        Roster.update();
         MetadataManager.setMetadata(getPlayer(), Metadata.VANISH_TIME, System.currentTimeMillis());
     }
 
@@ -467,7 +515,18 @@ public class KCPlayer implements Jsonable {
      * @return wrapper
      */
     public static KCPlayer getWrapper(String name) {
-        return getPlayerMap().values().stream().filter(kc -> name.equalsIgnoreCase(kc.getUsername())).findAny().orElse(null);
+        String key = name.toLowerCase();
+        KCPlayer cached = nameCache.get(key);
+        if (cached != null && name.equalsIgnoreCase(cached.getUsername()))
+            return cached; // Still valid, the player hasn't changed their name.
+
+        KCPlayer found = getPlayerMap().values().stream().filter(kc -> name.equalsIgnoreCase(kc.getUsername())).findAny().orElse(null);
+        if (found != null) {
+            nameCache.put(key, found);
+        } else {
+            nameCache.remove(key);
+        }
+        return found;
     }
 
     /**
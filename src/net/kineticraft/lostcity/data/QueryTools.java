@@ -1,6 +1,6 @@
 package net.kineticraft.lostcity.data;
 
-import net.kineticraft.lostcity.Core;
+import net.kineticraft.lostcity.mechanics.Async;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
@@ -19,8 +19,7 @@ public class QueryTools {
      */
     @SuppressWarnings("ConstantConditions")
     public static void queryData(Consumer<Stream<KCPlayer>> callback) {
-        Bukkit.getScheduler().runTaskAsynchronously(Core.getInstance(),
-                () -> callback.accept(KCPlayer.getPlayerMap().values().stream()));
+        Async.runCompute("Query Data", () -> callback.accept(KCPlayer.getPlayerMap().values().stream()));
     }
 
     /**
@@ -45,17 +44,17 @@ public class QueryTools {
             return;
         }
 
-        // They're offline, load it then made changes.
-        queryData(str -> Bukkit.getScheduler().runTask(Core.getInstance(), () -> {
-                KCPlayer p = str.filter(kc -> username.equalsIgnoreCase(kc.getUsername())).findAny().orElse(null);
-                if (p == null) {
-                    if (fail != null)
-                        fail.run(); // Oh no, we couldn't find anyone matching this.
-                    return;
-                }
-
-                callback.accept(p);
-                p.writeData(); // Save back to disk.
-            }));
+        // They're offline, find them then make changes.
+        Async.supplyCompute("Find " + username, () -> KCPlayer.getPlayerMap().values().stream()
+                .filter(kc -> username.equalsIgnoreCase(kc.getUsername())).findAny().orElse(null)).thenSync(p -> {
+            if (p == null) {
+                if (fail != null)
+                    fail.run(); // Oh no, we couldn't find anyone matching this.
+                return;
+            }
+
+            callback.accept(p);
+            Async.runIO("Save " + p.getUsername(), p::writeData); // Save back to disk.
+        });
     }
 }
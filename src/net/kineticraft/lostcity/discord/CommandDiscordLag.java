@@ -0,0 +1,28 @@
+package net.kineticraft.lostcity.discord;
+
+import net.kineticraft.lostcity.commands.DiscordCommand;
+import net.kineticraft.lostcity.mechanics.TickClock;
+import net.kineticraft.lostcity.utils.TextUtils;
+
+/**
+ * Shows server tick times in discord.
+ */
+public class CommandDiscordLag extends DiscordCommand {
+
+    private static final int[] WINDOWS = {1, 5, 15}; // Minutes.
+
+    public CommandDiscordLag() {
+        super("", "View server tick times (MSPT).", "lag", "tps", "mspt");
+    }
+
+    @Override
+    protected void onCommand(DiscordSender sender, String[] args) {
+        StringBuilder sb = new StringBuilder("```");
+        for (int minutes : WINDOWS) {
+            TickClock.TickStats stats = TickClock.getStats(minutes);
+            sb.append("\n").append(minutes).append("m: ").append(TextUtils.toFixed(stats.getTps(), 2))
+                    .append(" TPS, ").append(stats.getSummary());
+        }
+        sender.sendMessage(sb.append("\n```").toString());
+    }
+}
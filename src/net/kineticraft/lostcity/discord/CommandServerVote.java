@@ -3,11 +3,10 @@ package net.kineticraft.lostcity.discord;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import net.dv8tion.jda.core.entities.*;
-import net.kineticraft.lostcity.Core;
 import net.kineticraft.lostcity.commands.DiscordCommand;
 import net.kineticraft.lostcity.EnumRank;
 import net.kineticraft.lostcity.utils.Utils;
-import org.bukkit.Bukkit;
+import net.kineticraft.lostcity.mechanics.Timers;
 import org.bukkit.command.CommandSender;
 
 import java.text.DateFormat;
@@ -23,13 +22,12 @@ import java.util.stream.Collectors;
 public class CommandServerVote extends DiscordCommand {
 
     private static final float STAFF_NEEDED = .5F; // 50% of staff need to vote yes.
-    private static final int MAX_VOTE_HOURS = 24;
+    static final int MAX_VOTE_HOURS = 24;
 
     public CommandServerVote() {
         super(EnumRank.TRIAL, "<bill>", "Initiate a server proposal.", "vote");
         setDeleteMessage(true);
-        Bukkit.getScheduler().runTaskTimerAsynchronously(Core.getInstance(),
-                CommandServerVote::scanChannel, 0L, 20 * 60 * 5L);
+        Timers.runTimerAsync("Proposal Expiry", 20 * 60 * 5L, ProposalTracker::updateAll); // Close expired votes.
     }
 
     @Override
@@ -41,10 +39,14 @@ public class CommandServerVote extends DiscordCommand {
     @Override
     protected void onCommand(DiscordSender sender, String[] args) {
         Date end = Date.from(Instant.ofEpochSecond((System.currentTimeMillis() / 1000) + (MAX_VOTE_HOURS * 60 * 60)));
-        DiscordAPI.sendMessage(DiscordChannel.ORYX, "@everyone " + sender.getName()
-                + " has issued a proposal: ``" + String.join(" ", args) + "``");
-        DiscordAPI.getBot().sendMessage(DiscordChannel.ORYX, VoteResult.UNDETERMINED.getStatus(new HashMap<>(), end),
-                m -> Arrays.stream(VoteResult.values()).forEach(v -> v.react(m)));
+        String bill = String.join(" ", args);
+        // Sent directly rather than queued, so the proposal always comes before its status message.
+        DiscordAPI.getBot().sendMessage(DiscordChannel.ORYX, "@everyone " + sender.getName()
+                + " has issued a proposal: ``" + bill + "``", p ->
+                DiscordAPI.getBot().sendMessage(DiscordChannel.ORYX, VoteResult.UNDETERMINED.getStatus(new HashMap<>(), end), m -> {
+                    Arrays.stream(VoteResult.values()).forEach(v -> v.react(m));
+                    ProposalTracker.track(m, bill, end);
+                }));
     }
 
     /**
@@ -75,79 +77,16 @@ public class CommandServerVote extends DiscordCommand {
                 .filter(m -> Utils.containsAny(m, staffRoles)).count();
     }
 
-    /**
-     * Scan the channel to update all existing proposals.
-     */
-    @SuppressWarnings("ConstantConditions")
-    public static void scanChannel() {
-        if (!DiscordAPI.isAlive())
-            return;
-
-        List<Message> messages = DiscordChannel.ORYX.getChannel().getHistory().retrievePast(75).complete();
-        Collections.reverse(messages); // Oldest to newest.
-
-        String bill = null;
-        while (!messages.isEmpty()) {
-            Message temp = messages.remove(0);
-
-            try {
-                if (temp.getContent().contains(" votes needed by tomorrow")) {
-                    Date expiry = Date.from(Instant.ofEpochMilli(temp.getCreationTime().toInstant().toEpochMilli()
-                            + (60L * 60 * 1000 * MAX_VOTE_HOURS)));
-
-                    // Load votes.
-                    Map<VoteResult, Integer> votes = new HashMap<>();
-                    Arrays.stream(VoteResult.values()).forEach(vr -> votes.put(vr, updateReaction(temp, vr)));
-
-                    VoteResult result = VoteResult.getResult(votes, expiry);
-
-                    temp.editMessage(result.getStatus(votes, expiry)).queue();
-                    result.announce(bill);
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-
-            bill = temp.getContent();
-            if (bill.contains("``"))
-                bill = bill.split("``")[1];
-        }
-    }
-
-    /**
-     * Update the bot's reaction to a message.
-     * @param reaction
-     * @return
-     */
-    private static int updateReaction(Message message, VoteResult reaction) {
-        if (reaction.getIcon() == null)
-            return 0;
-
-        MessageReaction mr = message.getReactions().stream()
-                .filter(r -> r.getEmote().getName().equalsIgnoreCase(reaction.getIcon())).findAny().orElse(null);
-
-        int count = mr != null ? mr.getCount() : 0;
-        if (mr == null || mr.getCount() == 0) {
-            message.addReaction(reaction.getIcon()).queue();
-        } else {
-            List<User> users = mr.getUsers().complete(); // It's ok to run this blocking because this is on an async thread.
-            if (users.contains(DiscordAPI.getUser()) && mr.getCount() > 1) {
-                mr.removeReaction().queue();
-                count--;
-            }
-        }
-
-        return count;
-    }
-
     @AllArgsConstructor @Getter
-    private enum VoteResult {
+    enum VoteResult {
         PASS("✅"),
         FAIL("❌"),
         UNDETERMINED(null);
 
         private final String icon;
 
+        public static final String OPEN_MARKER = " votes needed by tomorrow"; // Identifies an open status message.
+
         /**
          * Add this as a default reaction, so players can click on it.
          */
@@ -173,7 +112,7 @@ public class CommandServerVote extends DiscordCommand {
         public String getStatus(Map<VoteResult, Integer> votes, Date expiry) {
             int yes = votes.getOrDefault(PASS, 0);
             return this == UNDETERMINED ?
-                    (getStaffNeeded() - yes) + " votes needed by tomorrow " + getFormat().format(expiry) + "."
+                    (getStaffNeeded() - yes) + OPEN_MARKER + " " + getFormat().format(expiry) + "."
                     : getDisplay().toUpperCase() + " (" + yes + "-" + votes.getOrDefault(FAIL, 0) + ")";
         }
 
@@ -185,6 +124,16 @@ public class CommandServerVote extends DiscordCommand {
                 DiscordAPI.sendMessage(DiscordChannel.ORYX, getIcon() + " ``" + bill + "`` has " + getDisplay() + ".");
         }
 
+        /**
+         * Get the vote result which has the given reaction icon.
+         * @param icon
+         * @return result
+         */
+        public static VoteResult getByIcon(String icon) {
+            return Arrays.stream(values()).filter(v -> v.getIcon() != null && v.getIcon().equalsIgnoreCase(icon))
+                    .findAny().orElse(null);
+        }
+
         /**
          * Get the result of a vote.
          * @param votes
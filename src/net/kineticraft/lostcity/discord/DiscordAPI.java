@@ -29,11 +29,13 @@ public class DiscordAPI extends Mechanic {
     @Override
     public void onEnable() {
         bot = new DiscordBot();
+        Bukkit.getScheduler().runTaskTimerAsynchronously(Core.getInstance(), () -> DiscordQueue.flush(false), 10L, 10L);
     }
 
     @Override
     public void onDisable() {
         sendGame("Server shutting down...");
+        DiscordQueue.flush(true);
     }
 
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true) // Announce chat to discord.
@@ -43,7 +45,7 @@ public class DiscordAPI extends Mechanic {
 
     @EventHandler
     public void onCommandRegister(CommandRegisterEvent evt) {
-        evt.register(new CommandDiscordVerify(), new CommandServerVote());
+        evt.register(new CommandDiscordVerify(), new CommandServerVote(), new CommandDiscordLag());
     }
 
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
@@ -61,15 +63,24 @@ public class DiscordAPI extends Mechanic {
 
     /**
      * Broadcast a message into a discord channel.
+     * Messages are batched per channel, and held while the bot is disconnected. See DiscordQueue.
      * @param channel
      * @param message
      */
     public static void sendMessage(DiscordChannel channel, String message) {
-        if (!isAlive()) {
-            Bukkit.getScheduler().runTaskLater(Core.getInstance(), () -> sendMessage(channel, message), 10L);
-            return;
-        }
-        getBot().sendMessage(channel, message);
+        if (isEnabled())
+            DiscordQueue.queue(channel, message);
+    }
+
+    /**
+     * Broadcast a message into a discord channel.
+     * @param channel
+     * @param message
+     * @param priority
+     */
+    public static void sendMessage(DiscordChannel channel, String message, DiscordQueue.Priority priority) {
+        if (isEnabled())
+            DiscordQueue.queue(channel, message, priority);
     }
 
     /**
@@ -77,7 +88,7 @@ public class DiscordAPI extends Mechanic {
      * @return server
      */
     public static Guild getServer() {
-        return getBot().getBot().getGuildById(Configs.getMainConfig().getServerId());
+        return DiscordCache.getGuild();
     }
 
     /**
@@ -88,12 +99,20 @@ public class DiscordAPI extends Mechanic {
         return getServer().getController();
     }
 
+    /**
+     * Return whether or not discord integration is configured on this server, regardless of connection.
+     * @return enabled
+     */
+    public static boolean isEnabled() {
+        return !ServerUtils.isDevServer() && Configs.getMainConfig().getServerId() != 0;
+    }
+
     /**
      * Return whether or not the bot exists and is connected, and enabled.
      * @return alive
      */
     public static boolean isAlive() {
-        return getBot() != null && !ServerUtils.isDevServer() && Configs.getMainConfig().getServerId() != 0;
+        return getBot() != null && isEnabled();
     }
 
     /**
@@ -102,8 +121,7 @@ public class DiscordAPI extends Mechanic {
      * @return roll
      */
     public static Role getRole(String rollName) {
-        List<Role> roles = getServer().getRolesByName(rollName, true);
-        return roles.isEmpty() ? null : roles.get(0);
+        return DiscordCache.getRole(rollName);
     }
 
     /**
@@ -119,7 +137,7 @@ public class DiscordAPI extends Mechanic {
      * @return member.
      */
     public static Member getMember() {
-        return getServer().getMember(getUser());
+        return DiscordCache.getMember(getUser());
     }
 
     /**
@@ -129,7 +147,7 @@ public class DiscordAPI extends Mechanic {
      * @return hasRole
      */
     public static boolean hasRole(User user, String role) {
-        return isAlive() && getServer().getMember(user).getRoles().contains(getRole(role));
+        return isAlive() && DiscordCache.hasRole(user, role);
     }
 
     /**
@@ -147,7 +165,7 @@ public class DiscordAPI extends Mechanic {
      * @return perms
      */
     public static boolean canEdit(User user) {
-        return isAlive() && getMember().canInteract(getServer().getMember(user));
+        return isAlive() && getMember().canInteract(getMember(user));
     }
 
     /**
@@ -166,7 +184,7 @@ public class DiscordAPI extends Mechanic {
      */
     public static void setNick(User user, String nick) {
         if (canEdit(user))
-            getManager().setNickname(getServer().getMember(user), nick).queue();
+            getManager().setNickname(getMember(user), nick).queue();
     }
 
     /**
@@ -182,6 +200,7 @@ public class DiscordAPI extends Mechanic {
         roleSet.clear();
         roleSet.addAll(Arrays.stream(roles).map(DiscordAPI::getRole).filter(Objects::nonNull).collect(Collectors.toList()));
         getManager().addRolesToMember(getMember(user)).queue(); // Send the changes.
+        DiscordCache.invalidateMemberRoles(user);
     }
 
     /**
@@ -190,6 +209,6 @@ public class DiscordAPI extends Mechanic {
      * @return member
      */
     public static MemberImpl getMember(User user) {
-        return (MemberImpl) getServer().getMember(user);
+        return (MemberImpl) DiscordCache.getMember(user);
     }
 }
@@ -9,7 +9,12 @@ import net.dv8tion.jda.core.OnlineStatus;
 import net.dv8tion.jda.core.entities.*;
 import net.dv8tion.jda.core.entities.Message;
 import net.dv8tion.jda.core.events.ReadyEvent;
+import net.dv8tion.jda.core.events.ReconnectedEvent;
+import net.dv8tion.jda.core.events.guild.member.*;
 import net.dv8tion.jda.core.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.core.events.role.RoleCreateEvent;
+import net.dv8tion.jda.core.events.role.RoleDeleteEvent;
+import net.dv8tion.jda.core.events.role.update.RoleUpdateNameEvent;
 import net.dv8tion.jda.core.events.message.guild.react.GuildMessageReactionAddEvent;
 import net.dv8tion.jda.core.events.message.guild.react.GuildMessageReactionRemoveEvent;
 import net.dv8tion.jda.core.events.user.UserNameUpdateEvent;
@@ -24,6 +29,8 @@ import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 
 import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Basic Discord bot.
@@ -105,12 +112,48 @@ public class DiscordBot extends ListenerAdapter {
             return;
         }
 
+        post(channel, original, callback);
+    }
 
+    /**
+     * Format and post a message to discord immediately, bypassing the outbound queue.
+     * @param channel
+     * @param original
+     * @param callback
+     */
+    public void post(MessageChannel channel, String original, Consumer<Message> callback) {
+        channel.sendMessage(format(original)).queue(callback);
+    }
+
+    /**
+     * Convert an in-game message into discord format, resolving role mentions.
+     * @param original
+     * @return formatted
+     */
+    public String format(String original) {
         String message = ChatColor.stripColor(original); // Allows in-game messages to get sent both there and to discord without change.
-        for (Role role : DiscordAPI.getServer().getRoles())
-            message = message.replaceAll("@" + role.getName(), role.getAsMention());
+        return ChatColor.stripColor(ChatColor.translateAlternateColorCodes('&', mentionRoles(message)));
+    }
 
-        channel.sendMessage(ChatColor.stripColor(ChatColor.translateAlternateColorCodes('&', message))).queue(callback);
+    /**
+     * Replace @Role with the role's mention, in a single pass.
+     * @param message
+     * @return mentioned
+     */
+    private String mentionRoles(String message) {
+        if (message.indexOf('@') == -1)
+            return message;
+
+        Pattern pattern = DiscordCache.getMentionPattern();
+        if (pattern == null)
+            return message;
+
+        Matcher matcher = pattern.matcher(message);
+        StringBuffer sb = new StringBuffer();
+        while (matcher.find())
+            matcher.appendReplacement(sb, Matcher.quoteReplacement(DiscordCache.getMention(matcher.group(1))));
+        matcher.appendTail(sb);
+        return sb.toString();
     }
 
     /**
@@ -124,18 +167,63 @@ public class DiscordBot extends ListenerAdapter {
     @Override
     public void onReady(ReadyEvent evt) {
         DiscordAPI.sendGame("Server has completed startup.");
+        ProposalTracker.backfill();
+    }
+
+    @Override
+    public void onReconnect(ReconnectedEvent evt) {
+        DiscordCache.invalidate();
+        ProposalTracker.backfill(); // Pick up any votes we missed.
+    }
+
+    @Override
+    public void onRoleCreate(RoleCreateEvent evt) {
+        DiscordCache.invalidateRoles();
+    }
+
+    @Override
+    public void onRoleDelete(RoleDeleteEvent evt) {
+        DiscordCache.invalidateRoles();
+    }
+
+    @Override
+    public void onRoleUpdateName(RoleUpdateNameEvent evt) {
+        DiscordCache.invalidateRoles();
+    }
+
+    @Override
+    public void onGuildMemberRoleAdd(GuildMemberRoleAddEvent evt) {
+        DiscordCache.invalidateMemberRoles(evt.getUser());
+    }
+
+    @Override
+    public void onGuildMemberRoleRemove(GuildMemberRoleRemoveEvent evt) {
+        DiscordCache.invalidateMemberRoles(evt.getUser());
+    }
+
+    @Override
+    public void onGuildMemberNickChange(GuildMemberNickChangeEvent evt) {
+        DiscordCache.invalidateMember(evt.getUser());
+    }
+
+    @Override
+    public void onGuildMemberJoin(GuildMemberJoinEvent evt) {
+        DiscordCache.invalidateMember(evt.getUser());
+    }
+
+    @Override
+    public void onGuildMemberLeave(GuildMemberLeaveEvent evt) {
+        DiscordCache.invalidateMember(evt.getUser());
     }
 
     @Override
     public void onGuildMessageReactionAdd(GuildMessageReactionAddEvent evt) {
-        if(DiscordChannel.getChannel(evt.getChannel()) == DiscordChannel.ORYX && !evt.getUser().isBot())
-            CommandServerVote.scanChannel();
+        ProposalTracker.onReaction(evt.getMessageIdLong(), evt.getReactionEmote().getName(), evt.getUser(), true);
     }
 
     @Override
     public void onGuildMessageReactionRemove(GuildMessageReactionRemoveEvent evt) {
-        if(DiscordChannel.getChannel(evt.getChannel()) == DiscordChannel.ORYX && !evt.getUser().isBot())
-            CommandServerVote.scanChannel();
+        ProposalTracker.onReaction(evt.getMessageIdLong(), evt.getReactionEmote().getName(), evt.getUser(), false);
     }
 
     @Override // If a user leaves discord and re-joins, give them their rank and such.
@@ -0,0 +1,182 @@
+package net.kineticraft.lostcity.discord;
+
+import net.dv8tion.jda.core.JDA;
+import net.dv8tion.jda.core.entities.Guild;
+import net.dv8tion.jda.core.entities.Member;
+import net.dv8tion.jda.core.entities.Role;
+import net.dv8tion.jda.core.entities.User;
+import net.kineticraft.lostcity.config.Configs;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Caches the guild, its roles, and member lookups so chat relay and rank sync don't resolve them on every call.
+ * Entries are dropped by DiscordBot when JDA reports a change to the role, member or nickname they came from.
+ */
+public class DiscordCache {
+
+    private static volatile JDA standIn; // Read from instead of the bot while set. See DiscordStandIn.
+    private static volatile Guild guild;
+    private static volatile Roles roles;
+    private static final Map<Long, Member> members = new ConcurrentHashMap<>();
+    private static final Map<Long, Set<String>> memberRoles = new ConcurrentHashMap<>();
+
+    /**
+     * Get the guild this server is linked to.
+     * @return guild
+     */
+    public static Guild getGuild() {
+        Guild g = guild;
+        JDA jda = standIn != null ? standIn : DiscordAPI.getBot().getBot();
+        if (g == null && jda != null)
+            guild = g = jda.getGuildById(Configs.getMainConfig().getServerId());
+        return g;
+    }
+
+    /**
+     * Read from a stand-in instead of the bot, or go back to the bot if null. Everything cached is dropped either way.
+     * @param jda
+     */
+    static void useStandIn(JDA jda) {
+        standIn = jda;
+        invalidate();
+    }
+
+    /**
+     * Get a role by its name, ignoring case.
+     * @param name
+     * @return role
+     */
+    public static Role getRole(String name) {
+        Roles r = getRoles();
+        return r != null && name != null ? r.byName.get(name.toLowerCase()) : null;
+    }
+
+    /**
+     * Get the pattern which matches @Role for every role, or null if there are none.
+     * @return pattern
+     */
+    public static Pattern getMentionPattern() {
+        Roles r = getRoles();
+        return r != null ? r.mentionPattern : null;
+    }
+
+    /**
+     * Get the mention for a role name matched by the mention pattern.
+     * @param name
+     * @return mention
+     */
+    public static String getMention(String name) {
+        Roles r = getRoles();
+        return r != null ? r.mentions.get(name) : null;
+    }
+
+    /**
+     * Get the guild member for a user.
+     * @param user
+     * @return member
+     */
+    public static Member getMember(User user) {
+        Guild g = getGuild();
+        if (user == null || g == null)
+            return null;
+
+        Member member = members.get(user.getIdLong());
+        if (member == null) {
+            member = g.getMember(user);
+            if (member != null)
+                members.put(user.getIdLong(), member);
+        }
+        return member;
+    }
+
+    /**
+     * Does this user have a role by the given name? Ignores case.
+     * @param user
+     * @param role
+     * @return hasRole
+     */
+    public static boolean hasRole(User user, String role) {
+        if (user == null)
+            return false;
+
+        Set<String> names = memberRoles.get(user.getIdLong());
+        if (names == null) {
+            Member member = getMember(user);
+            if (member == null)
+                return false;
+
+            names = member.getRoles().stream().map(r -> r.getName().toLowerCase()).collect(Collectors.toSet());
+            memberRoles.put(user.getIdLong(), names);
+        }
+        return names.contains(role.toLowerCase());
+    }
+
+    /**
+     * Drop everything, used after reconnecting since JDA rebuilds its entities.
+     */
+    public static void invalidate() {
+        guild = null;
+        members.clear();
+        invalidateRoles();
+    }
+
+    /**
+     * Drop cached roles, and every member's role set since those refer to role names.
+     */
+    public static void invalidateRoles() {
+        roles = null;
+        memberRoles.clear();
+    }
+
+    /**
+     * Drop the cached role set of a single member.
+     * @param user
+     */
+    public static void invalidateMemberRoles(User user) {
+        memberRoles.remove(user.getIdLong());
+    }
+
+    /**
+     * Drop everything cached about a single member.
+     * @param user
+     */
+    public static void invalidateMember(User user) {
+        members.remove(user.getIdLong());
+        invalidateMemberRoles(user);
+    }
+
+    private static Roles getRoles() {
+        Roles r = roles;
+        if (r == null) {
+            Guild g = getGuild();
+            if (g == null)
+                return null;
+            roles = r = new Roles(g.getRoles());
+        }
+        return r;
+    }
+
+    /**
+     * An immutable snapshot of the guild's roles.
+     */
+    private static class Roles {
+        private final Map<String, Role> byName = new HashMap<>();
+        private final Map<String, String> mentions = new HashMap<>();
+        private final Pattern mentionPattern;
+
+        Roles(List<Role> roles) {
+            for (Role role : roles) { // Roles are in hierarchy order, the first role by a name wins like getRolesByName.
+                byName.putIfAbsent(role.getName().toLowerCase(), role);
+                mentions.putIfAbsent(role.getName(), role.getAsMention());
+            }
+
+            mentionPattern = mentions.isEmpty() ? null : Pattern.compile("@(" + mentions.keySet().stream()
+                    .sorted(Comparator.comparingInt(String::length).reversed()) // Prefer the longest name.
+                    .map(Pattern::quote).collect(Collectors.joining("|")) + ")");
+        }
+    }
+}
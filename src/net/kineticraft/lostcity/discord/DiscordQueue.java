@@ -0,0 +1,252 @@
+package net.kineticraft.lostcity.discord;
+
+import net.dv8tion.jda.core.JDA;
+import net.dv8tion.jda.core.entities.MessageChannel;
+
+import java.util.*;
+
+/**
+ * Bounded outbox for discord messages.
+ * Messages are coalesced per channel into multi-line posts, split to fit discord's size limit, and each channel is held
+ * to discord's per-channel rate limit so JDA's request queue doesn't back up. While the bot is disconnected messages
+ * wait here, up to a limit, and are drained at the same pace once it reconnects.
+ */
+public class DiscordQueue {
+
+    public static final int MAX_LENGTH = 1900; // Discord caps messages at 2000, leave room for role mentions expanding.
+    public static final int MAX_PENDING = 1000; // The most lines held across every channel.
+    private static final long COALESCE_MS = 1000; // How long to wait for more lines before posting.
+    private static final int BURST = 5; // Discord allows 5 messages per 5 seconds in a channel.
+    private static final long REFILL_MS = 1000;
+
+    private static final Map<DiscordChannel, ChannelQueue> queues = new EnumMap<>(DiscordChannel.class);
+    private static final int[] dropped = new int[Priority.values().length];
+    private static int pending;
+
+    /**
+     * Queue a message to be posted in a channel.
+     * @param channel
+     * @param message
+     */
+    public static void queue(DiscordChannel channel, String message) {
+        queue(channel, message, channel == DiscordChannel.INGAME ? Priority.CHAT : Priority.NORMAL);
+    }
+
+    /**
+     * Queue a message to be posted in a channel.
+     * If the outbox is full, the oldest message of the lowest priority is dropped to make room.
+     * @param channel
+     * @param message
+     * @param priority
+     */
+    public static void queue(DiscordChannel channel, String message, Priority priority) {
+        if (message == null || message.isEmpty())
+            return;
+
+        synchronized (queues) {
+            if (pending >= MAX_PENDING && !dropLowest(priority)) {
+                dropped[priority.ordinal()]++;
+                queues.computeIfAbsent(channel, c -> new ChannelQueue()).skipped++;
+                return; // Nothing of a lower priority to make room with.
+            }
+
+            queues.computeIfAbsent(channel, c -> new ChannelQueue()).add(message, priority);
+            pending++;
+        }
+    }
+
+    /**
+     * Drop the oldest message with a priority below the given one.
+     * @param priority
+     * @return dropped
+     */
+    private static boolean dropLowest(Priority priority) {
+        for (int i = Priority.values().length - 1; i > priority.ordinal(); i--) {
+            for (ChannelQueue queue : queues.values()) {
+                if (queue.dropOldest(i)) {
+                    dropped[i]++;
+                    pending--;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Post any channels which are ready to be sent.
+     * @param force - Ignore the coalesce window and rate limit, used when shutting down.
+     */
+    public static void flush(boolean force) {
+        if (!isConnected())
+            return; // Hold messages until we're back.
+
+        long now = System.currentTimeMillis();
+        Map<DiscordChannel, List<String>> posts = new EnumMap<>(DiscordChannel.class);
+        synchronized (queues) {
+            queues.forEach((channel, queue) -> {
+                List<String> ready = queue.poll(now, force);
+                if (!ready.isEmpty())
+                    posts.put(channel, ready);
+            });
+        }
+
+        posts.forEach((channel, messages) -> {
+            MessageChannel target = channel.getChannel();
+            if (target != null)
+                messages.forEach(m -> DiscordAPI.getBot().post(target, m, null));
+        });
+    }
+
+    /**
+     * Is the bot connected and able to send messages?
+     * @return connected
+     */
+    private static boolean isConnected() {
+        return DiscordAPI.isAlive() && DiscordAPI.getBot().getBot() != null
+                && DiscordAPI.getBot().getBot().getStatus() == JDA.Status.CONNECTED;
+    }
+
+    /**
+     * Get the number of lines waiting to be posted.
+     * @return pending
+     */
+    public static int getPending() {
+        synchronized (queues) {
+            return pending;
+        }
+    }
+
+    /**
+     * Get the number of lines of a given priority waiting to be posted.
+     * @param priority
+     * @return pending
+     */
+    public static int getPending(Priority priority) {
+        synchronized (queues) {
+            return queues.values().stream().mapToInt(q -> q.lines[priority.ordinal()].size()).sum();
+        }
+    }
+
+    /**
+     * Get the number of lines dropped because the outbox was full, since startup.
+     * @return dropped
+     */
+    public static int getDropped() {
+        synchronized (queues) {
+            return Arrays.stream(dropped).sum();
+        }
+    }
+
+    /**
+     * Get the number of lines of a given priority dropped because the outbox was full, since startup.
+     * @param priority
+     * @return dropped
+     */
+    public static int getDropped(Priority priority) {
+        synchronized (queues) {
+            return dropped[priority.ordinal()];
+        }
+    }
+
+    /**
+     * Lower priorities are dropped first when the outbox is full.
+     */
+    public enum Priority {
+        ALERT,
+        NORMAL,
+        CHAT
+    }
+
+    /**
+     * Holds the pending lines and rate limit state of a single channel.
+     * Must only be accessed while holding the queues lock.
+     */
+    private static class ChannelQueue {
+        @SuppressWarnings("unchecked")
+        private final Deque<String>[] lines = new Deque[Priority.values().length];
+        private long firstQueued;
+        private int length;
+        private int skipped; // Lines lost to overflow, reported in the next post.
+        private double tokens = BURST;
+        private long lastRefill = System.currentTimeMillis();
+
+        ChannelQueue() {
+            for (int i = 0; i < lines.length; i++)
+                lines[i] = new ArrayDeque<>();
+        }
+
+        void add(String message, Priority priority) {
+            if (isEmpty())
+                firstQueued = System.currentTimeMillis();
+            lines[priority.ordinal()].add(message);
+            length += message.length() + 1;
+        }
+
+        boolean dropOldest(int priority) {
+            String line = lines[priority].poll();
+            if (line == null)
+                return false;
+
+            length -= line.length() + 1;
+            skipped++;
+            return true;
+        }
+
+        boolean isEmpty() {
+            return Arrays.stream(lines).allMatch(Deque::isEmpty);
+        }
+
+        /**
+         * Take as many posts as the rate limit allows, if the window has passed or a full post is ready.
+         */
+        List<String> poll(long now, boolean force) {
+            tokens = Math.min(BURST, tokens + (now - lastRefill) / (double) REFILL_MS);
+            lastRefill = now;
+
+            List<String> posts = new ArrayList<>();
+            while ((!isEmpty() || skipped > 0) && (force || tokens >= 1)
+                    && (force || length >= MAX_LENGTH || now - firstQueued >= COALESCE_MS)) {
+                posts.add(nextPost());
+                tokens = Math.max(0, tokens - 1);
+                firstQueued = now;
+            }
+            return posts;
+        }
+
+        /**
+         * Join queued lines into a single post no longer than the size limit, highest priority first.
+         */
+        private String nextPost() {
+            StringBuilder post = new StringBuilder();
+            if (skipped > 0) {
+                post.append("(").append(skipped).append(" message").append(skipped > 1 ? "s" : "")
+                        .append(" dropped, discord was unreachable or too busy)");
+                skipped = 0;
+            }
+
+            for (Deque<String> queue : lines) {
+                while (!queue.isEmpty()) {
+                    String line = queue.peek();
+                    if (post.length() > 0 && post.length() + line.length() + 1 > MAX_LENGTH)
+                        return post.toString(); // This line goes in the next post.
+
+                    queue.poll();
+                    length -= line.length() + 1;
+                    pending--;
+                    if (line.length() > MAX_LENGTH) { // Too long for any post, send what fits and keep the rest.
+                        queue.addFirst(line.substring(MAX_LENGTH));
+                        length += line.length() - MAX_LENGTH + 1;
+                        pending++;
+                        line = line.substring(0, MAX_LENGTH);
+                    }
+
+                    if (post.length() > 0)
+                        post.append('\n');
+                    post.append(line);
+                }
+            }
+            return post.toString();
+        }
+    }
+}
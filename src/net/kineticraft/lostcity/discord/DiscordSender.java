@@ -103,7 +103,7 @@ public class DiscordSender implements CommandSender, MetadataHolder {
      * @return member
      */
     public Member getMember() {
-        return DiscordAPI.getServer().getMember(getUser());
+        return DiscordAPI.getMember(getUser());
     }
 
     @Override
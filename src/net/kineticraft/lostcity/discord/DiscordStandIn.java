@@ -0,0 +1,242 @@
+package net.kineticraft.lostcity.discord;
+
+import lombok.Getter;
+import net.dv8tion.jda.core.JDA;
+import net.dv8tion.jda.core.entities.Guild;
+import net.dv8tion.jda.core.entities.Member;
+import net.dv8tion.jda.core.entities.Role;
+import net.dv8tion.jda.core.entities.User;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * An in-process stand-in for JDA, holding one guild of made up members and roles, so DiscordCache can be
+ * checked and timed without connecting to discord. Every lookup which reaches the guild is counted,
+ * since those are what the cache is meant to save.
+ *
+ * Member i has role (i % roles). Changes are made with the methods here, then passed to DiscordCache the same way
+ * DiscordBot passes on the matching JDA event.
+ */
+public class DiscordStandIn {
+
+    @Getter private final JDA jda;
+    private final Guild guild;
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final List<Role> roles = new ArrayList<>();
+    private final Map<Role, String> roleNames = new HashMap<>();
+    private final Map<Long, User> users = new HashMap<>();
+    private final Map<Long, Member> members = new HashMap<>();
+    private final Map<Member, List<Role>> memberRoles = new HashMap<>();
+
+    public DiscordStandIn(int memberCount, int roleCount) {
+        Map<String, Function<Object[], Object>> guildCalls = new HashMap<>();
+        guildCalls.put("getMember", a -> lookup(() -> members.get(((User) a[0]).getIdLong())));
+        guildCalls.put("getMembers", a -> lookup(() -> new ArrayList<>(members.values())));
+        guildCalls.put("getRoles", a -> lookup(() -> new ArrayList<>(roles)));
+        guildCalls.put("getRolesByName", a -> lookup(() -> roles.stream()
+                .filter(r -> roleNames.get(r).equalsIgnoreCase((String) a[0])).collect(Collectors.toList())));
+        guildCalls.put("getName", a -> "Stand-In Guild");
+        this.guild = make(Guild.class, guildCalls);
+        this.jda = make(JDA.class, Collections.singletonMap("getGuildById", a -> guild));
+
+        for (int i = 0; i < Math.max(1, roleCount); i++)
+            addRole("Role " + i);
+        for (long i = 0; i < memberCount; i++)
+            addMember(i);
+    }
+
+    /**
+     * Check that DiscordCache answers correctly and drops entries on the same calls DiscordBot makes for JDA events,
+     * then time cached lookups against resolving them from the guild each time.
+     * The cache reads from the stand-in until this returns, so only run it while the bot is offline.
+     * @param memberCount
+     * @param lookupCount
+     * @return report
+     */
+    public static List<String> run(int memberCount, int lookupCount) {
+        DiscordStandIn standIn = new DiscordStandIn(Math.max(4, memberCount), 8);
+        List<String> report = new ArrayList<>();
+        DiscordCache.useStandIn(standIn.getJda());
+        try {
+            User first = standIn.getUser(0);
+            report.add(check("Role lookup ignores case", DiscordCache.getRole("ROLE 0") == standIn.getRole(0)));
+            report.add(check("Member roles", DiscordCache.hasRole(first, "role 0") && !DiscordCache.hasRole(first, "role 1")));
+
+            standIn.renameRole(standIn.getRole(1), "Renamed");
+            DiscordCache.invalidateRoles();
+            report.add(check("Role rename", DiscordCache.getRole("renamed") == standIn.getRole(1)
+                    && DiscordCache.getRole("role 1") == null));
+
+            standIn.addRole(first, standIn.getRole(2));
+            DiscordCache.invalidateMemberRoles(first);
+            report.add(check("Role added to member", DiscordCache.hasRole(first, "role 2")));
+
+            User leaving = standIn.getUser(3);
+            DiscordCache.getMember(leaving);
+            standIn.removeMember(leaving);
+            DiscordCache.invalidateMember(leaving);
+            report.add(check("Member left", DiscordCache.getMember(leaving) == null));
+
+            DiscordCache.invalidate();
+            standIn.takeLookups();
+            Random random = new Random(0);
+            int members = standIn.users.size();
+            long start = System.nanoTime();
+            for (int i = 0; i < lookupCount; i++)
+                DiscordCache.hasRole(standIn.getUser(random.nextInt(members)), "Role " + random.nextInt(8));
+            report.add(time("Cached", lookupCount, System.nanoTime() - start, standIn.takeLookups()));
+
+            random = new Random(0);
+            start = System.nanoTime();
+            for (int i = 0; i < lookupCount; i++) { // What each call did before the cache.
+                Member member = standIn.guild.getMember(standIn.getUser(random.nextInt(members)));
+                String role = "Role " + random.nextInt(8);
+                if (member != null)
+                    member.getRoles().contains(standIn.guild.getRolesByName(role, true).stream().findFirst().orElse(null));
+            }
+            report.add(time("Uncached", lookupCount, System.nanoTime() - start, standIn.takeLookups()));
+        } finally {
+            DiscordCache.useStandIn(null);
+        }
+        return report;
+    }
+
+    private static String check(String name, boolean passed) {
+        return (passed ? "PASS " : "FAIL ") + name;
+    }
+
+    private static String time(String name, int count, long nanos, int lookups) {
+        return name + ": " + count + " lookups in " + (nanos / 1000000) + "ms (" + (nanos / Math.max(1, count))
+                + "ns each), " + lookups + " reached the guild";
+    }
+
+    /**
+     * Get the number of lookups which have reached the guild, and reset the count.
+     * @return lookups
+     */
+    public int takeLookups() {
+        return lookups.getAndSet(0);
+    }
+
+    /**
+     * Get the stand-in user with the given id.
+     * @param id
+     * @return user
+     */
+    public User getUser(long id) {
+        return users.get(id);
+    }
+
+    /**
+     * Get a role by its index.
+     * @param index
+     * @return role
+     */
+    public Role getRole(int index) {
+        return roles.get(index);
+    }
+
+    /**
+     * Rename a role. Pass it on with DiscordCache.invalidateRoles, like a RoleUpdateNameEvent.
+     * @param role
+     * @param name
+     */
+    public void renameRole(Role role, String name) {
+        roleNames.put(role, name);
+    }
+
+    /**
+     * Give a member a role. Pass it on with DiscordCache.invalidateMemberRoles, like a GuildMemberRoleAddEvent.
+     * @param user
+     * @param role
+     */
+    public void addRole(User user, Role role) {
+        memberRoles.get(members.get(user.getIdLong())).add(role);
+    }
+
+    /**
+     * Remove a member from the guild. Pass it on with DiscordCache.invalidateMember, like a GuildMemberLeaveEvent.
+     * @param user
+     */
+    public void removeMember(User user) {
+        memberRoles.remove(members.remove(user.getIdLong()));
+    }
+
+    private void addRole(String name) {
+        long id = roles.size();
+        Map<String, Function<Object[], Object>> calls = new HashMap<>();
+        Role[] role = new Role[1];
+        calls.put("getName", a -> roleNames.get(role[0]));
+        calls.put("getAsMention", a -> "<@&" + id + ">");
+        calls.put("getIdLong", a -> id);
+        calls.put("getId", a -> Long.toString(id));
+        calls.put("getPosition", a -> roles.size() - (int) id);
+        calls.put("getGuild", a -> guild);
+        role[0] = make(Role.class, calls);
+        roles.add(role[0]);
+        roleNames.put(role[0], name);
+    }
+
+    private void addMember(long id) {
+        Map<String, Function<Object[], Object>> userCalls = new HashMap<>();
+        userCalls.put("getIdLong", a -> id);
+        userCalls.put("getId", a -> Long.toString(id));
+        userCalls.put("getName", a -> "User" + id);
+        User user = make(User.class, userCalls);
+
+        Map<String, Function<Object[], Object>> memberCalls = new HashMap<>();
+        Member[] member = new Member[1];
+        memberCalls.put("getUser", a -> user);
+        memberCalls.put("getGuild", a -> guild);
+        memberCalls.put("getEffectiveName", a -> user.getName());
+        memberCalls.put("getRoles", a -> new ArrayList<>(memberRoles.get(member[0])));
+        member[0] = make(Member.class, memberCalls);
+
+        users.put(id, user);
+        members.put(id, member[0]);
+        memberRoles.put(member[0], new ArrayList<>(Collections.singletonList(roles.get((int) (id % roles.size())))));
+    }
+
+    private <T> T lookup(Supplier<T> supplier) {
+        lookups.incrementAndGet();
+        return supplier.get();
+    }
+
+    /**
+     * Make a stand-in for a JDA interface. Calls without an answer return an empty value.
+     * @param type
+     * @param calls - Answers by method name.
+     * @param <T>
+     * @return standIn
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T make(Class<T> type, Map<String, Function<Object[], Object>> calls) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "StandIn" + type.getSimpleName();
+            }
+
+            Function<Object[], Object> call = calls.get(method.getName());
+            if (call != null)
+                return call.apply(args);
+
+            Class<?> ret = method.getReturnType();
+            if (ret == void.class)
+                return null;
+            if (ret.isPrimitive())
+                return Array.get(Array.newInstance(ret, 1), 0);
+            return ret == List.class ? new ArrayList<>() : null;
+        });
+    }
+}
@@ -0,0 +1,181 @@
+package net.kineticraft.lostcity.discord;
+
+import net.dv8tion.jda.core.entities.Message;
+import net.dv8tion.jda.core.entities.MessageChannel;
+import net.dv8tion.jda.core.entities.MessageReaction;
+import net.dv8tion.jda.core.entities.User;
+import net.kineticraft.lostcity.Core;
+import net.kineticraft.lostcity.discord.CommandServerVote.VoteResult;
+import org.bukkit.Bukkit;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks open server proposals by the id of their status message.
+ * Tallies are updated from reaction events as they arrive, and the status message is only re-evaluated once reactions
+ * settle. Channel history is only read to pick up proposals which were open before startup or a reconnect.
+ */
+public class ProposalTracker {
+
+    private static final int HISTORY_SIZE = 75;
+    private static final long DEBOUNCE_TICKS = 40L;
+    private static final Map<Long, Proposal> proposals = new ConcurrentHashMap<>();
+
+    /**
+     * Start tracking a new proposal.
+     * @param status - The status message, with the bot's default reactions.
+     * @param bill
+     * @param expiry
+     */
+    public static void track(Message status, String bill, Date expiry) {
+        Proposal proposal = new Proposal(status.getChannel(), status.getIdLong(), bill, expiry);
+        Arrays.stream(VoteResult.values()).filter(v -> v.getIcon() != null).forEach(v -> proposal.self.add(v));
+        proposals.put(proposal.messageId, proposal);
+    }
+
+    /**
+     * Load open proposals from recent channel history, without blocking.
+     */
+    public static void backfill() {
+        MessageChannel channel = DiscordChannel.ORYX.getChannel();
+        if (channel != null)
+            channel.getHistory().retrievePast(HISTORY_SIZE).queue(ProposalTracker::backfill);
+    }
+
+    private static void backfill(List<Message> messages) {
+        messages = new ArrayList<>(messages);
+        Collections.reverse(messages); // Oldest to newest.
+
+        String bill = null;
+        for (Message message : messages) {
+            if (message.getContent().contains(VoteResult.OPEN_MARKER)) {
+                Date expiry = Date.from(Instant.ofEpochMilli(message.getCreationTime().toInstant().toEpochMilli()
+                        + (60L * 60 * 1000 * CommandServerVote.MAX_VOTE_HOURS)));
+
+                Proposal proposal = new Proposal(message.getChannel(), message.getIdLong(), bill, expiry);
+                for (VoteResult vote : VoteResult.values()) {
+                    if (vote.getIcon() == null)
+                        continue;
+
+                    MessageReaction mr = message.getReactions().stream()
+                            .filter(r -> r.getEmote().getName().equalsIgnoreCase(vote.getIcon())).findAny().orElse(null);
+                    if (mr != null && mr.isSelf())
+                        proposal.self.add(vote);
+                    proposal.votes.put(vote, mr != null ? mr.getCount() - (mr.isSelf() ? 1 : 0) : 0);
+                    proposal.fixReaction(vote);
+                }
+
+                proposals.put(proposal.messageId, proposal);
+                proposal.scheduleUpdate();
+            }
+
+            bill = message.getContent();
+            if (bill.contains("``"))
+                bill = bill.split("``")[1];
+        }
+    }
+
+    /**
+     * Handle a reaction being added or removed from a message.
+     * @param messageId
+     * @param icon
+     * @param user
+     * @param add
+     */
+    public static void onReaction(long messageId, String icon, User user, boolean add) {
+        Proposal proposal = proposals.get(messageId);
+        VoteResult vote = VoteResult.getByIcon(icon);
+        if (proposal == null || vote == null)
+            return;
+
+        synchronized (proposal) {
+            if (user.equals(DiscordAPI.getUser())) {
+                if (add)
+                    proposal.self.add(vote);
+                else
+                    proposal.self.remove(vote);
+                return; // Our own reactions are placeholders, not votes.
+            }
+
+            if (user.isBot())
+                return; // Other bots don't get a vote.
+
+            proposal.votes.merge(vote, add ? 1 : -1, Integer::sum);
+            proposal.fixReaction(vote);
+        }
+        proposal.scheduleUpdate();
+    }
+
+    /**
+     * Re-evaluate every open proposal, so votes close once they expire.
+     */
+    public static void updateAll() {
+        proposals.values().forEach(Proposal::update);
+    }
+
+    private static class Proposal {
+        private final MessageChannel channel;
+        private final long messageId;
+        private final String bill;
+        private final Date expiry;
+        private final Map<VoteResult, Integer> votes = new EnumMap<>(VoteResult.class);
+        private final Set<VoteResult> self = EnumSet.noneOf(VoteResult.class); // Reactions the bot has placed.
+        private String lastStatus;
+        private boolean scheduled;
+
+        Proposal(MessageChannel channel, long messageId, String bill, Date expiry) {
+            this.channel = channel;
+            this.messageId = messageId;
+            this.bill = bill;
+            this.expiry = expiry;
+        }
+
+        /**
+         * Keep one placeholder reaction so staff can click it, but remove ours once somebody has voted.
+         */
+        void fixReaction(VoteResult vote) {
+            int count = votes.getOrDefault(vote, 0);
+            String id = Long.toString(messageId);
+            if (count > 0 && self.contains(vote)) {
+                self.remove(vote);
+                channel.getMessageById(id).queue(m -> m.getReactions().stream()
+                        .filter(r -> r.isSelf() && r.getEmote().getName().equalsIgnoreCase(vote.getIcon()))
+                        .forEach(r -> r.removeReaction().queue()));
+            } else if (count <= 0 && !self.contains(vote)) {
+                self.add(vote);
+                channel.addReactionById(id, vote.getIcon()).queue();
+            }
+        }
+
+        /**
+         * Update the status message after reactions have settled.
+         */
+        synchronized void scheduleUpdate() {
+            if (scheduled)
+                return;
+
+            scheduled = true;
+            Bukkit.getScheduler().runTaskLaterAsynchronously(Core.getInstance(), this::update, DEBOUNCE_TICKS);
+        }
+
+        /**
+         * Recompute the result, editing the status message only if it changed.
+         */
+        synchronized void update() {
+            scheduled = false;
+            VoteResult result = VoteResult.getResult(votes, expiry);
+            String status = result.getStatus(votes, expiry);
+            if (!status.equals(lastStatus)) {
+                lastStatus = status;
+                channel.editMessageById(Long.toString(messageId), status).queue();
+            }
+
+            if (result != VoteResult.UNDETERMINED) {
+                proposals.remove(messageId);
+                result.announce(bill);
+            }
+        }
+    }
+}
@@ -9,9 +9,14 @@ import net.kineticraft.lostcity.config.Configs;
 import net.kineticraft.lostcity.cutscenes.Cutscene;
 import net.kineticraft.lostcity.cutscenes.Cutscenes;
 import net.kineticraft.lostcity.dungeons.puzzle.Puzzle;
+import net.kineticraft.lostcity.mechanics.Async;
+import net.kineticraft.lostcity.mechanics.ChunkHousekeeper;
+import net.kineticraft.lostcity.mechanics.WorkQueue;
 import net.kineticraft.lostcity.utils.TextBuilder;
 import net.kineticraft.lostcity.utils.Utils;
 import net.kineticraft.lostcity.utils.ZipUtil;
+import net.kineticraft.lostcity.utils.tasks.Job;
+import net.kineticraft.lostcity.utils.tasks.Job.Priority;
 import org.bukkit.*;
 import org.bukkit.block.Block;
 import org.bukkit.block.CommandBlock;
@@ -54,13 +59,12 @@ public class Dungeon {
                 p.sendMessage(ChatColor.GRAY + "Loading Dungeon: '" + getType().getDisplayName() + ChatColor.GRAY + "' -- Please wait..."));
 
         String worldName = "DUNGEON_" + System.currentTimeMillis() + File.separator;
-        Bukkit.getScheduler().runTaskAsynchronously(Core.getInstance(), () -> {
+        Async.runIO("Dungeon Setup", () -> {
             Core.logInfo("Loading dungeon " + getType().name() + " as " + worldName + ".");
             ZipUtil.unzip(getType().getWorld(), worldName);
             Utils.removeFile(worldName + "uid.dat");
             Utils.removeFile(worldName + "players");
-            Bukkit.getScheduler().runTask(Core.getInstance(), () -> initWorld(worldName));
-        });
+        }).thenSync(v -> initWorld(worldName));
     }
 
     /**
@@ -72,11 +76,21 @@ public class Dungeon {
         creator.generateStructures(false);
         this.world = Bukkit.getServer().createWorld(creator);
         getWorld().setAutoSave(false);
+        ChunkHousekeeper.discardChanges(getWorld());
         getWorld().setDifficulty(Difficulty.EASY);
         getWorld().setTime(15000); // Set it to night.
         getWorld().setGameRuleValue("commandBlockOutput", "false"); // Prevent command block output spam.
+        ChunkHousekeeper.hold(this, getWorld()); // The world is unloaded as a whole once the dungeon is over.
+        updateLocations().onComplete(this::start);
+    }
+
+    /**
+     * Bring the players in, once the dungeon's signs have been found.
+     */
+    private void start() {
+        if (Bukkit.getWorld(getWorld().getName()) == null)
+            return; // The dungeon was removed while loading.
 
-        updateLocations();
         getOriginalPlayers().forEach(p -> {
             Location l = getWorld().getSpawnLocation();
             l.setYaw(90);
@@ -97,14 +111,19 @@ public class Dungeon {
     }
 
     /**
-     * Reload the locations saved on signs.
+     * Reload the locations saved on signs, scanning one chunk per step.
+     * @return job
      */
-    public void updateLocations() {
+    public Job updateLocations() {
         getLocations().clear();
-        Arrays.asList(getWorld().getLoadedChunks()).forEach(c -> Arrays.stream(c.getTileEntities())
-                .filter(te -> te instanceof Sign).map(te -> (Sign) te)
-                .filter(s -> s.getLine(0).startsWith("[") && s.getLine(0).endsWith("]"))
-                .forEach(s -> getLocations().put(s.getLine(0).substring(1, s.getLine(0).length() - 1), s.getBlock())));
+        return WorkQueue.forEach("Dungeon Signs", Priority.HIGH, Arrays.asList(getWorld().getLoadedChunks()), c -> {
+            if (!c.isLoaded())
+                return;
+
+            Arrays.stream(c.getTileEntities()).filter(te -> te instanceof Sign).map(te -> (Sign) te)
+                    .filter(s -> s.getLine(0).startsWith("[") && s.getLine(0).endsWith("]"))
+                    .forEach(s -> getLocations().put(s.getLine(0).substring(1, s.getLine(0).length() - 1), s.getBlock()));
+        });
     }
 
     /**
@@ -186,6 +205,7 @@ public class Dungeon {
         Utils.removeFile(getWorld().getName()); // Delete the world folder.
         Utils.removeFile("plugins/WorldGuard/worlds/" + getWorld().getName()); // Delete WorldGuard residue.
         Dungeons.getDungeons().remove(this); // Remove this dungeon.
+        ChunkHousekeeper.release(this);
         this.world = null; // Mark this dungeon as unloaded.
     }
 
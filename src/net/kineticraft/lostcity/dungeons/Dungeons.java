@@ -10,10 +10,12 @@ import net.kineticraft.lostcity.events.PlayerChangeRegionEvent;
 import net.kineticraft.lostcity.item.ItemManager;
 import net.kineticraft.lostcity.item.ItemWrapper;
 import net.kineticraft.lostcity.mechanics.ArmorStands;
+import net.kineticraft.lostcity.mechanics.LagGovernor;
 import net.kineticraft.lostcity.mechanics.metadata.MetadataManager;
 import net.kineticraft.lostcity.mechanics.system.Mechanic;
 import net.kineticraft.lostcity.utils.ServerUtils;
 import net.kineticraft.lostcity.utils.Utils;
+import net.kineticraft.lostcity.mechanics.Timers;
 import org.bukkit.*;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.block.Block;
@@ -50,14 +52,21 @@ import java.util.stream.Collectors;
 public class Dungeons extends Mechanic {
 
     @Getter private static List<Dungeon> dungeons = new ArrayList<>();
+    private static int fakeBlockRuns = 1; // Fake blocks are updated every this many runs.
+    private static int runs;
 
     @Override
     public void onEnable() {
         Core.makeFolder("dungeons");
-        Bukkit.getScheduler().runTaskTimer(Core.getInstance(), () -> new ArrayList<>(getDungeons()).forEach(d -> {
-                d.getPuzzles().forEach(Puzzle::updateFakeBlocks); // Update fake blocks
+        LagGovernor.register("Dungeon Updates", level -> fakeBlockRuns = level + 1); // Update fake blocks less often as lag rises.
+        Timers.runTimer("Dungeon Update", 300L, () -> {
+            boolean updateBlocks = ++runs % fakeBlockRuns == 0;
+            new ArrayList<>(getDungeons()).forEach(d -> {
+                if (updateBlocks)
+                    d.getPuzzles().forEach(Puzzle::updateFakeBlocks); // Update fake blocks
                 d.tryRemove(); // Remove this dungeon if there's nobody left.
-            }), 0L, 300L);
+            });
+        });
     }
 
     @Override
@@ -4,6 +4,8 @@ import lombok.Getter;
 import net.kineticraft.lostcity.Core;
 import net.kineticraft.lostcity.dungeons.Dungeon;
 import net.kineticraft.lostcity.dungeons.Dungeons;
+import net.kineticraft.lostcity.party.Arena;
+import net.kineticraft.lostcity.utils.RegionEngine;
 import net.kineticraft.lostcity.utils.Utils;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -254,17 +256,14 @@ public abstract class Puzzle implements Listener {
      * @param to
      * @param radius
      */
+    @SuppressWarnings("deprecation")
     protected void replaceNear(Location loc, Material from, Material to, int radius) {
         loc = fixLocation(loc.clone());
-        for (int x = -radius; x <= radius; x++) {
-            for (int y = -radius; y <= radius; y++) {
-                for (int z = -radius; z <= radius; z++) {
-                    Block bk = loc.clone().add(x, y, z).getBlock();
-                    if (bk.getType() == from)
-                        setFakeBlock(bk, to);
-                }
-            }
-        }
+        Arena area = new Arena(loc.getBlockX() - radius, loc.getBlockX() + radius, loc.getBlockZ() - radius,
+                loc.getBlockZ() + radius, loc.getBlockY() - radius, loc.getBlockY() + radius, loc.getWorld());
+        int fromId = from.getId();
+        RegionEngine.find(area, (x, y, z, id, data) -> id == fromId)
+                .thenSync(found -> found.forEach(l -> setFakeBlock(l.getBlock(), to)));
     }
 
     /**
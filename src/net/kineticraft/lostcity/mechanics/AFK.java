@@ -4,16 +4,11 @@ import com.destroystokyo.paper.Title;
 import net.kineticraft.lostcity.Core;
 import net.kineticraft.lostcity.EnumRank;
 import net.kineticraft.lostcity.config.Configs;
-import net.kineticraft.lostcity.mechanics.metadata.MetadataManager;
 import net.kineticraft.lostcity.mechanics.system.Mechanic;
 import net.kineticraft.lostcity.utils.Utils;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.block.BlockBreakEvent;
-import org.bukkit.event.player.AsyncPlayerChatEvent;
 import org.bukkit.scheduler.BukkitTask;
 
 /**
@@ -23,7 +18,7 @@ import org.bukkit.scheduler.BukkitTask;
 public class AFK extends Mechanic {
 
     public void onEnable() {
-        Bukkit.getScheduler().runTaskTimer(Core.getInstance(), () ->
+        Timers.runTimer("AFK Check", 30 * 20L, () ->
             Bukkit.getOnlinePlayers().stream().filter(p -> !Utils.getRank(p).isAtLeast(EnumRank.MEDIA)).filter(AFK::isAFK).forEach(p -> {
                 BukkitTask kickTask = Bukkit.getScheduler().runTaskLater(Core.getInstance(), () ->
                     Callbacks.cancel(p, Callbacks.ListenerType.CHAT), 35 * 20L);
@@ -51,27 +46,12 @@ public class AFK extends Mechanic {
                     kickTask.cancel();
                     if (n == answer) {
                         p.sendMessage(ChatColor.GREEN + "Correct.");
-                        markActive(p);
+                        Sessions.markActive(p);
                     } else {
                         p.kickPlayer(ChatColor.RED + "Incorrect answer.");
                     }
                 }, fail);
-            }), 0L, 30 * 20L);
-    }
-
-    @Override
-    public void onJoin(Player player) {
-        markActive(player);
-    }
-
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onChat(AsyncPlayerChatEvent evt) {
-        markActive(evt.getPlayer());
-    }
-
-    @EventHandler
-    public void onBlockBreak(BlockBreakEvent evt) {
-        markActive(evt.getPlayer());
+            }));
     }
 
     /**
@@ -80,16 +60,6 @@ public class AFK extends Mechanic {
      * @return isAfk
      */
     public static boolean isAFK(Player player) {
-        return !MetadataManager.hasCooldown(player, "active");
-    }
-
-    /**
-     * Mark this player as active.
-     *
-     * @param player
-     */
-    public static void markActive(Player player) {
-        int base = Configs.getMainConfig().getAfkLimit();
-        MetadataManager.setCooldown(player, "active", Utils.randInt(base - 3, base + 3) * 60 * 20);
+        return Sessions.isAFK(player);
     }
 }
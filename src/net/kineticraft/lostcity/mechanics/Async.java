@@ -0,0 +1,116 @@
+package net.kineticraft.lostcity.mechanics;
+
+import net.kineticraft.lostcity.Core;
+import net.kineticraft.lostcity.mechanics.system.Mechanic;
+import net.kineticraft.lostcity.utils.tasks.Promise;
+import net.kineticraft.lostcity.utils.tasks.WorkPool;
+import org.bukkit.Bukkit;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Owns the plugin's worker threads, in place of Bukkit's unbounded async scheduler.
+ *
+ * IO is for work which blocks (disk, network, processes), so it has more threads than it has cores to spare.
+ * Compute is for work which only uses the CPU, and gets one thread per spare core.
+ * Results come back to the main thread through Promise#thenSync, which is the only place they should touch Bukkit.
+ *
+ * Registered last, so it shuts down after every other mechanic has queued its final saves.
+ */
+public class Async extends Mechanic {
+
+    private static final WorkPool io = new WorkPool("IO", 4, 4096);
+    private static final WorkPool compute = new WorkPool("Compute",
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1), 1024);
+
+    /**
+     * Runs tasks on the main thread. Tasks given to it on the main thread run right away.
+     */
+    public static final Executor SYNC = task -> {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else if (Core.getInstance().isEnabled()) { // Once disabled, the scheduler won't take any more tasks.
+            Bukkit.getScheduler().runTask(Core.getInstance(), task);
+        }
+    };
+
+    @Override
+    public void onDisable() {
+        compute.shutdown(5000);
+        io.shutdown(30000);
+    }
+
+    /**
+     * Run blocking work on the IO pool.
+     * @param task
+     * @param work
+     * @return promise
+     */
+    public static Promise<Void> runIO(String task, Runnable work) {
+        return io.run(task, work);
+    }
+
+    /**
+     * Get a value from blocking work on the IO pool.
+     * @param task
+     * @param work
+     * @param <T>
+     * @return promise
+     */
+    public static <T> Promise<T> supplyIO(String task, Callable<T> work) {
+        return io.supply(task, work);
+    }
+
+    /**
+     * Run CPU-bound work on the compute pool.
+     * @param task
+     * @param work
+     * @return promise
+     */
+    public static Promise<Void> runCompute(String task, Runnable work) {
+        return compute.run(task, work);
+    }
+
+    /**
+     * Get a value from CPU-bound work on the compute pool.
+     * @param task
+     * @param work
+     * @param <T>
+     * @return promise
+     */
+    public static <T> Promise<T> supplyCompute(String task, Callable<T> work) {
+        return compute.supply(task, work);
+    }
+
+    /**
+     * Get a value from the main thread, waiting for the next tick if called from another thread.
+     * Never call this from work the main thread is waiting on.
+     * @param work
+     * @param <T>
+     * @return value
+     */
+    public static <T> T callSync(Callable<T> work) {
+        try {
+            return Bukkit.isPrimaryThread() ? work.call() : Bukkit.getScheduler().callSyncMethod(Core.getInstance(), work).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Get all worker pools, for metrics.
+     * @return pools
+     */
+    public static List<WorkPool> getPools() {
+        return Arrays.asList(io, compute);
+    }
+}
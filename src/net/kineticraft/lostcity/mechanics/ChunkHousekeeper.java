@@ -0,0 +1,319 @@
+package net.kineticraft.lostcity.mechanics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.kineticraft.lostcity.Core;
+import net.kineticraft.lostcity.mechanics.backup.Backups;
+import net.kineticraft.lostcity.mechanics.system.Mechanic;
+import net.kineticraft.lostcity.party.Arena;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.craftbukkit.v1_12_R1.CraftWorld;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import java.util.*;
+
+/**
+ * Unloads chunks nobody is near, such as those left behind by elytra flights, /rtp and finished dungeons.
+ *
+ * Every few seconds a scan of every loaded chunk starts, which checks each one against the nearest player and against
+ * plugin-held tickets. Chunks which have stayed out of range long enough are queued, then unloaded a few at a time.
+ * The scan and the unloading share a per-tick budget, so neither stalls a tick no matter how many chunks are loaded.
+ * Tickets are indexed by chunk, so checking whether a chunk is held doesn't depend on how many tickets there are.
+ *
+ * Nothing is unloaded while saving is off, as unloading would either save or lose the chunk. The exception is worlds
+ * marked with discardChanges (dungeons), which are never saved.
+ */
+public class ChunkHousekeeper extends Mechanic {
+
+    private static final Map<Object, List<ChunkTicket>> tickets = new HashMap<>();
+    private static final Map<String, Map<Long, Integer>> heldChunks = new HashMap<>(); // World -> Chunk -> Tickets holding it.
+    private static final Map<String, Integer> heldWorlds = new HashMap<>(); // World -> Tickets holding all of it.
+    private static final Set<String> discarding = new HashSet<>(); // Worlds whose changes are never saved.
+    private static final Map<String, Map<Long, Integer>> idleSince = new HashMap<>(); // World -> Chunk -> Tick it went idle.
+    @Getter private static Map<String, ChunkStats> stats = new LinkedHashMap<>(); // From the last finished scan.
+    private static final Deque<Chunk> unloadQueue = new ArrayDeque<>();
+    private static final Deque<Chunk> scanQueue = new ArrayDeque<>();
+    private static final Map<String, int[]> scanPlayers = new HashMap<>(); // Player chunks when the scan started.
+    private static Map<String, Map<Long, Integer>> scanIdle = new HashMap<>();
+    private static Map<String, ChunkStats> scanStats = new LinkedHashMap<>();
+
+    private static final int SCAN_TICKS = 100;
+    private static final int IDLE_TICKS = 30 * 20; // How long a chunk must be out of range before unloading.
+    private static final int MARGIN = 2; // Chunks past view distance that are still kept.
+    private static final int SPAWN_RADIUS = 8; // Chunks around spawn kept when a world keeps its spawn in memory.
+    private static final int MAX_PER_TICK = 10;
+    private static final long BUDGET_NANOS = 2000000L;
+    private static int idleTicks = IDLE_TICKS; // Shortened as lag rises.
+
+    @Override
+    public void onEnable() {
+        LagGovernor.register("Chunk Unloading", level -> idleTicks = LagGovernor.scale(IDLE_TICKS, IDLE_TICKS / 6));
+        Bukkit.getScheduler().runTaskTimer(Core.getInstance(), ChunkHousekeeper::startScan, SCAN_TICKS, SCAN_TICKS);
+        Bukkit.getScheduler().runTaskTimer(Core.getInstance(), ChunkHousekeeper::work, 1L, 1L);
+    }
+
+    @Override
+    public void onDisable() {
+        unloadQueue.clear();
+        scanQueue.clear();
+    }
+
+    /**
+     * Keep an entire world loaded, until released.
+     * @param owner
+     * @param world
+     */
+    public static void hold(Object owner, World world) {
+        hold(owner, new ChunkTicket(world.getName(), Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Keep the chunks around a location loaded, until released.
+     * @param owner
+     * @param loc
+     * @param radius - In chunks.
+     */
+    public static void hold(Object owner, Location loc, int radius) {
+        int x = loc.getBlockX() >> 4;
+        int z = loc.getBlockZ() >> 4;
+        hold(owner, new ChunkTicket(loc.getWorld().getName(), x - radius, x + radius, z - radius, z + radius));
+    }
+
+    /**
+     * Keep every chunk an arena touches loaded, until released.
+     * @param owner
+     * @param arena
+     */
+    public static void hold(Object owner, Arena arena) {
+        hold(owner, new ChunkTicket(arena.getWorld().getName(), arena.getXMin() >> 4, arena.getXMax() >> 4,
+                arena.getZMin() >> 4, arena.getZMax() >> 4));
+    }
+
+    private static void hold(Object owner, ChunkTicket ticket) {
+        tickets.computeIfAbsent(owner, k -> new ArrayList<>()).add(ticket);
+        index(ticket, 1);
+    }
+
+    /**
+     * Release every ticket held by an owner.
+     * @param owner
+     */
+    public static void release(Object owner) {
+        List<ChunkTicket> released = tickets.remove(owner);
+        if (released != null)
+            released.forEach(ticket -> index(ticket, -1));
+    }
+
+    /**
+     * Add or remove a ticket from the chunk index.
+     * @param ticket
+     * @param change - 1 to add, -1 to remove.
+     */
+    private static void index(ChunkTicket ticket, int change) {
+        if (ticket.isWholeWorld()) {
+            heldWorlds.merge(ticket.getWorld(), change, (a, b) -> a + b > 0 ? a + b : null);
+            return;
+        }
+
+        Map<Long, Integer> held = heldChunks.computeIfAbsent(ticket.getWorld(), w -> new HashMap<>());
+        for (int x = ticket.getXMin(); x <= ticket.getXMax(); x++)
+            for (int z = ticket.getZMin(); z <= ticket.getZMax(); z++)
+                held.merge(getKey(x, z), change, (a, b) -> a + b > 0 ? a + b : null);
+        if (held.isEmpty())
+            heldChunks.remove(ticket.getWorld());
+    }
+
+    /**
+     * Unload chunks in this world without saving them. For worlds which are thrown away, such as dungeons.
+     * @param world
+     */
+    public static void discardChanges(World world) {
+        discarding.add(world.getName());
+    }
+
+    @EventHandler
+    public void onWorldUnload(WorldUnloadEvent evt) {
+        discarding.remove(evt.getWorld().getName());
+    }
+
+    /**
+     * Start a new scan of every loaded chunk. Anything left of the last scan is dropped.
+     */
+    private static void startScan() {
+        scanQueue.clear();
+        scanPlayers.clear();
+        scanIdle = new HashMap<>();
+        scanStats = new LinkedHashMap<>();
+
+        for (World world : Bukkit.getWorlds()) {
+            scanPlayers.put(world.getName(), getPlayerChunks(world));
+            scanIdle.put(world.getName(), new HashMap<>());
+            scanStats.put(world.getName(), new ChunkStats());
+            Collections.addAll(scanQueue, world.getLoadedChunks());
+        }
+        unloadQueue.clear(); // Rebuilt by this scan.
+    }
+
+    /**
+     * Scan and unload chunks until this tick's budget runs out.
+     */
+    private static void work() {
+        long start = System.nanoTime();
+        while (!scanQueue.isEmpty() && System.nanoTime() - start < BUDGET_NANOS)
+            scan(scanQueue.poll());
+
+        if (scanQueue.isEmpty() && !scanStats.isEmpty()) { // The scan just finished.
+            stats = scanStats;
+            scanStats = new LinkedHashMap<>();
+            idleSince.clear();
+            idleSince.putAll(scanIdle);
+        }
+
+        if (Backups.isSavingOff())
+            return; // Unloading would save chunks while the backup expects nothing to change.
+
+        int count = 0;
+        while (!unloadQueue.isEmpty() && count < MAX_PER_TICK && System.nanoTime() - start < BUDGET_NANOS)
+            if (unload(unloadQueue.poll()))
+                count++;
+    }
+
+    /**
+     * Check a chunk, and queue it for unloading if it's been idle for long enough.
+     * @param chunk
+     */
+    private static void scan(Chunk chunk) {
+        if (!chunk.isLoaded())
+            return;
+
+        String world = chunk.getWorld().getName();
+        ChunkStats ws = scanStats.get(world);
+        int[] players = scanPlayers.get(world);
+        if (ws == null || players == null)
+            return; // World loaded since the scan started.
+
+        ws.loaded++;
+        if (isNearPlayer(chunk, players)) {
+            ws.nearPlayers++;
+        } else if (isHeld(chunk)) {
+            ws.held++;
+        } else {
+            int tick = TickClock.getTick();
+            long key = getKey(chunk.getX(), chunk.getZ());
+            int since = idleSince.getOrDefault(world, Collections.emptyMap()).getOrDefault(key, tick);
+            scanIdle.get(world).put(key, since);
+            ws.idle++;
+            if (tick - since >= idleTicks)
+                unloadQueue.add(chunk);
+        }
+    }
+
+    /**
+     * Unload a queued chunk, unless things have changed since it was queued.
+     * @param chunk
+     * @return unloaded
+     */
+    private static boolean unload(Chunk chunk) {
+        World world = chunk.getWorld();
+        if (!chunk.isLoaded() || isNearPlayer(chunk, getPlayerChunks(world)) || isHeld(chunk))
+            return false; // Someone came back since the scan.
+
+        boolean discard = discarding.contains(world.getName());
+        if (!discard && !world.isAutoSave())
+            return false; // Saving is off (save-off), and vanilla doesn't unload chunks then either.
+
+        if (!chunk.unload(!discard))
+            return false;
+
+        ChunkStats ws = stats.get(world.getName());
+        if (ws != null)
+            ws.unloaded++;
+        return true;
+    }
+
+    /**
+     * Get the chunk coordinates of every player in a world, as x, z pairs.
+     * @param world
+     * @return playerChunks
+     */
+    private static int[] getPlayerChunks(World world) {
+        List<Player> players = world.getPlayers();
+        int[] coords = new int[players.size() * 2];
+        for (int i = 0; i < players.size(); i++) {
+            Location l = players.get(i).getLocation();
+            coords[i * 2] = l.getBlockX() >> 4;
+            coords[i * 2 + 1] = l.getBlockZ() >> 4;
+        }
+        return coords;
+    }
+
+    /**
+     * Is this chunk within view distance of any of the given players?
+     * @param chunk
+     * @param playerChunks
+     * @return nearPlayer
+     */
+    private static boolean isNearPlayer(Chunk chunk, int[] playerChunks) {
+        int range = ((CraftWorld) chunk.getWorld()).getHandle().spigotConfig.viewDistance + MARGIN;
+        for (int i = 0; i < playerChunks.length; i += 2)
+            if (Math.abs(playerChunks[i] - chunk.getX()) <= range && Math.abs(playerChunks[i + 1] - chunk.getZ()) <= range)
+                return true;
+        return false;
+    }
+
+    /**
+     * Is this chunk held by a ticket, or part of a world's spawn area?
+     * @param chunk
+     * @return held
+     */
+    private static boolean isHeld(Chunk chunk) {
+        World world = chunk.getWorld();
+        if (world.getKeepSpawnInMemory()) {
+            Location spawn = world.getSpawnLocation();
+            if (Math.abs((spawn.getBlockX() >> 4) - chunk.getX()) <= SPAWN_RADIUS
+                    && Math.abs((spawn.getBlockZ() >> 4) - chunk.getZ()) <= SPAWN_RADIUS)
+                return true;
+        }
+
+        if (heldWorlds.containsKey(world.getName()))
+            return true;
+
+        Map<Long, Integer> held = heldChunks.get(world.getName());
+        return held != null && held.containsKey(getKey(chunk.getX(), chunk.getZ()));
+    }
+
+    private static long getKey(int x, int z) {
+        return (long) x << 32 | (z & 0xFFFFFFFFL);
+    }
+
+    @Getter @AllArgsConstructor
+    private static class ChunkTicket {
+        private final String world;
+        private final int xMin;
+        private final int xMax;
+        private final int zMin;
+        private final int zMax;
+
+        /**
+         * Does this ticket hold every chunk in its world?
+         * @return wholeWorld
+         */
+        public boolean isWholeWorld() {
+            return xMin == Integer.MIN_VALUE;
+        }
+    }
+
+    @Getter
+    public static class ChunkStats {
+        private int loaded;
+        private int nearPlayers;
+        private int held;
+        private int idle;
+        private int unloaded; // Unloaded since the last scan.
+    }
+}
@@ -16,6 +16,7 @@ import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerLoginEvent;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -24,14 +25,13 @@ import java.util.stream.Collectors;
  */
 public class DataHandler extends Mechanic {
 
-    @Getter private static Map<Long, UUID> discordMap = new HashMap<>();
+    @Getter private static Map<Long, UUID> discordMap = new ConcurrentHashMap<>(); // Read from JDA threads.
 
     @Override
     public void onEnable() {
         // Every 5 minutes, save all player data.
-        Bukkit.getScheduler().runTaskTimerAsynchronously(Core.getInstance(), DataHandler::saveAllPlayers, 0, 5 * 60 * 20);
-        Bukkit.getScheduler().runTaskTimerAsynchronously(Core.getInstance(),
-                () -> Bukkit.getOnlinePlayers().forEach(CommandRankup::silentRankup), 0, 60 * 20);
+        Timers.runTimer("Player Save", 5 * 60 * 20, () -> Async.runIO("Player Save", DataHandler::saveAllPlayers));
+        Timers.runTimer("Rankup Check", 60 * 20, () -> Bukkit.getOnlinePlayers().forEach(CommandRankup::silentRankup)); // Ranking up broadcasts.
         loadCache();
     }
 
@@ -48,12 +48,12 @@ public class DataHandler extends Mechanic {
                 players.filter(KCPlayer::isVerified).forEach(p -> discordMap.put(p.getDiscordId(), p.getUuid())));
     }
 
-    /**W
+    /**
      * Save all online player data.
      * ASync-Safe.
      */
     public static void saveAllPlayers() {
-        Bukkit.getOnlinePlayers().stream().map(KCPlayer::getWrapper).forEach(KCPlayer::writeData);
+        Roster.getSnapshot().getWrappers().forEach(KCPlayer::writeData);
     }
 
     @EventHandler(priority = EventPriority.LOWEST) // Run first, so other things like ban checker have data.
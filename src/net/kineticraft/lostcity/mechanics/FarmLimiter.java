@@ -28,13 +28,20 @@ import java.util.List;
 public class FarmLimiter extends Mechanic {
 
     private static final int RADIUS = 4;
+    private static final int MAX_CHICKENS = 32;
+    private static int chickenLimit = MAX_CHICKENS;
     private static List<EntityType> IGNORE = Arrays.asList(EntityType.GUARDIAN, EntityType.ELDER_GUARDIAN,
             EntityType.ARMOR_STAND, EntityType.PLAYER, EntityType.WITHER, EntityType.ENDER_DRAGON);
 
     @EventHandler(ignoreCancelled = true)
     public void onChickenSpawn(CreatureSpawnEvent evt) {
         evt.setCancelled((evt.getSpawnReason() == SpawnReason.DISPENSE_EGG || evt.getSpawnReason() == SpawnReason.EGG)
-                && getEntityCount(evt.getEntity()) >= 32);// There are more chickens here than we allow, don't spawn another one.
+                && getEntityCount(evt.getEntity()) >= chickenLimit);// There are more chickens here than we allow, don't spawn another one.
+    }
+
+    @Override
+    public void onEnable() {
+        LagGovernor.register("Chicken Farms", level -> chickenLimit = LagGovernor.scale(MAX_CHICKENS, MAX_CHICKENS / 2));
     }
 
     @EventHandler
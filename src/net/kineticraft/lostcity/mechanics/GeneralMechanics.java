@@ -40,26 +40,27 @@ import java.util.stream.Collectors;
 public class GeneralMechanics extends Mechanic {
 
     private static Objective idObjective;
+    private static final int PARTICLE_COUNT = 10;
+    private static volatile int particleCount = PARTICLE_COUNT;
 
     @Override
     public void onEnable() {
 
-        // Increment time played.
-        Bukkit.getScheduler().runTaskTimerAsynchronously(Core.getInstance(), () ->
-            Bukkit.getOnlinePlayers().stream().map(KCPlayer::getWrapper)
-                    .forEach(p -> p.setSecondsPlayed(p.getSecondsPlayed() + 1)), 0L, 20L);
+        // Display donor particles, fewer of them as lag rises.
+        LagGovernor.register("Donor Particles", level -> particleCount = LagGovernor.scale(PARTICLE_COUNT, 0));
+        Timers.runTimer("Donor Particles", 20L, () -> { // Spawning particles reads the world, so this can't be async.
+            if (particleCount <= 0)
+                return;
 
-        // Display donor particles.
-        Bukkit.getScheduler().runTaskTimerAsynchronously(Core.getInstance(), () -> {
             for (Player p : Core.getOnlinePlayers()) {
                 KCPlayer w = KCPlayer.getWrapper(p);
                 if (w.getEffect() != null && p.getGameMode() != GameMode.SPECTATOR) {
                     double x = Utils.randDouble(0, .5) - .25D;
                     double z = Utils.randDouble(0, .5) - .25D;
-                    p.getWorld().spawnParticle(w.getEffect(), p.getEyeLocation().add(0, 1.5, 0), 10, x, -1F, z, .5);
+                    p.getWorld().spawnParticle(w.getEffect(), p.getEyeLocation().add(0, 1.5, 0), particleCount, x, -1F, z, .5);
                 }
             }
-        }, 0L, 20L);
+        });
 
         Bukkit.getScheduler().runTaskLater(Core.getInstance(), () -> {
             if (Bukkit.hasWhitelist() && !ServerUtils.isDevServer())
@@ -81,7 +82,7 @@ public class GeneralMechanics extends Mechanic {
         }, 50L);
 
         // Don't allow players on top of the nether.
-        Bukkit.getScheduler().runTaskTimer(Core.getInstance(), () ->
+        Timers.runTimer("Nether Roof", 20L, () ->
                 Bukkit.getOnlinePlayers().stream().filter(p -> p.getLocation().getBlockY() >= 127)
                     .filter(p -> p.getWorld().getEnvironment() == World.Environment.NETHER)
                     .forEach(p -> {
@@ -92,7 +93,7 @@ public class GeneralMechanics extends Mechanic {
                         loc.getBlock().setType(Material.AIR);
                         loc.clone().add(0, 1, 0).getBlock().setType(Material.AIR);
                         p.teleport(loc);
-                    }), 0L, 20L);
+                    }));
 
         idObjective = Bukkit.getScoreboardManager().getMainScoreboard().getObjective("id");
         if (idObjective == null)
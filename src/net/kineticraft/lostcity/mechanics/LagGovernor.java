@@ -0,0 +1,134 @@
+package net.kineticraft.lostcity.mechanics;
+
+import lombok.Getter;
+import net.kineticraft.lostcity.Core;
+import net.kineticraft.lostcity.mechanics.alerts.AlertCategory;
+import net.kineticraft.lostcity.mechanics.alerts.Alerts;
+import net.kineticraft.lostcity.mechanics.system.Mechanic;
+import org.bukkit.Bukkit;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Sheds optional work when ticks start running long, and restores it once they recover.
+ *
+ * Mechanics register levers, which are told the new lag level (0 = normal, MAX_LEVEL = shed everything) whenever it changes.
+ * The level is driven by a smoothed p95 tick work time (MSPT). The thresholds sit well inside the 50ms tick budget,
+ * so work is shed while there is still headroom, before TPS drops. It rises quickly when over HIGH_MS, but only falls
+ * after staying under LOW_MS for a full minute, so it doesn't flap between settings.
+ */
+public class LagGovernor extends Mechanic {
+
+    @Getter private static int level;
+    @Getter private static double pressure; // Smoothed p95 tick work time, in milliseconds.
+    private static int calmChecks;
+    private static int checksSinceChange;
+    private static final Map<String, Consumer<Integer>> levers = new LinkedHashMap<>();
+
+    public static final int MAX_LEVEL = 4;
+    private static final int CHECK_TICKS = 100;
+    private static final double SMOOTHING = .5D; // How much weight a new sample gets.
+    private static final double HIGH_MS = 40; // Shed work above this.
+    private static final double SEVERE_MS = 50; // Shed two levels at once above this, since ticks no longer fit the budget.
+    private static final double LOW_MS = 30; // Restore work below this.
+    private static final int RAISE_DELAY = 2; // Checks to wait after a change before raising again, so the last change can take effect.
+    private static final int RECOVER_CHECKS = 12; // Calm checks needed before lowering.
+
+    @Override
+    public void onEnable() {
+        Bukkit.getScheduler().runTaskTimer(Core.getInstance(), LagGovernor::check, CHECK_TICKS, CHECK_TICKS);
+    }
+
+    @Override
+    public void onDisable() {
+        level = 0; // Put everything back how we found it.
+        applyLevers();
+    }
+
+    /**
+     * Register a lever which sheds work as the lag level rises.
+     * It is called immediately with the current level, then again on the main thread each time the level changes.
+     * @param name
+     * @param lever
+     */
+    public static void register(String name, Consumer<Integer> lever) {
+        levers.put(name, lever);
+        lever.accept(getLevel());
+    }
+
+    /**
+     * Get the names of all registered levers.
+     * @return levers
+     */
+    public static Set<String> getLevers() {
+        return Collections.unmodifiableSet(levers.keySet());
+    }
+
+    /**
+     * Scale a value between its normal amount at level 0 and its most reduced amount at MAX_LEVEL.
+     * @param normal
+     * @param reduced
+     * @return scaled
+     */
+    public static int scale(int normal, int reduced) {
+        return normal + (int) Math.round((reduced - normal) * getLevel() / (double) MAX_LEVEL);
+    }
+
+    /**
+     * Feed the latest tick times into the controller.
+     */
+    private static void check() {
+        TickClock.TickStats stats = TickClock.getRecentStats();
+        if (stats.getSamples() == 0)
+            return;
+
+        pressure += (stats.getP95() - pressure) * SMOOTHING;
+        checksSinceChange++;
+
+        if (pressure < LOW_MS) {
+            if (++calmChecks >= RECOVER_CHECKS && getLevel() > 0) {
+                setLevel(getLevel() - 1);
+                calmChecks = 0;
+            }
+            return;
+        }
+
+        calmChecks = 0;
+        if (pressure > HIGH_MS && checksSinceChange >= RAISE_DELAY && getLevel() < MAX_LEVEL)
+            setLevel(getLevel() + (pressure > SEVERE_MS ? 2 : 1));
+    }
+
+    /**
+     * Change the lag level and apply it to every lever.
+     * @param newLevel
+     */
+    public static void setLevel(int newLevel) {
+        int oldLevel = getLevel();
+        level = Math.max(0, Math.min(MAX_LEVEL, newLevel));
+        if (getLevel() == oldLevel)
+            return;
+
+        checksSinceChange = 0;
+        applyLevers();
+        Alerts.alert(AlertCategory.LAG, "Lag level " + (getLevel() > oldLevel ? "raised" : "lowered") + " to " + getLevel()
+                + " (p95 " + Math.round(getPressure()) + "ms).");
+    }
+
+    /**
+     * Tell every lever the current lag level.
+     */
+    private static void applyLevers() {
+        levers.forEach((name, lever) -> {
+            try {
+                lever.accept(getLevel());
+            } catch (Exception e) {
+                e.printStackTrace();
+                Core.warn("Failed to apply lag lever '" + name + "'.");
+            }
+        });
+    }
+}
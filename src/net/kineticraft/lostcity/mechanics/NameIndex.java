@@ -0,0 +1,136 @@
+package net.kineticraft.lostcity.mechanics;
+
+import lombok.Getter;
+import net.kineticraft.lostcity.EnumRank;
+import net.kineticraft.lostcity.data.KCPlayer;
+import net.kineticraft.lostcity.utils.Utils;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+
+import java.util.*;
+
+/**
+ * Keeps a sorted index of online player names for each viewer rank.
+ * Rebuilt from the Roster only when a player joins, quits, vanishes or changes their nickname,
+ * so completing a name is a prefix range lookup instead of rebuilding a list every keystroke.
+ */
+public class NameIndex {
+
+    private static volatile View[] views = new View[EnumRank.values().length];
+    private static volatile Set<String> hiddenNames = Collections.emptySet();
+
+    static {
+        Arrays.fill(views, new View(new TreeMap<>(), new TreeMap<>()));
+    }
+
+    /**
+     * Get online usernames starting with the given prefix which the viewer can see, in alphabetical order.
+     * @param viewer
+     * @param prefix
+     * @return names
+     */
+    public static Collection<String> getNames(CommandSender viewer, String prefix) {
+        return range(getView(viewer).getNames(), prefix);
+    }
+
+    /**
+     * Get online nicknames starting with the given prefix which the viewer can see, in alphabetical order.
+     * @param viewer
+     * @param prefix
+     * @return nicknames
+     */
+    public static Collection<String> getNicknames(CommandSender viewer, String prefix) {
+        return range(getView(viewer).getNicknames(), prefix);
+    }
+
+    /**
+     * Is the given name a player who is hidden from non-staff?
+     * @param name
+     * @return hidden
+     */
+    public static boolean isHidden(String name) {
+        return hiddenNames.contains(name.toLowerCase());
+    }
+
+    /**
+     * Are there any hidden players online?
+     * @return anyHidden
+     */
+    public static boolean hasHidden() {
+        return !hiddenNames.isEmpty();
+    }
+
+    /**
+     * Can the given sender see hidden players? Only staff can complete vanished names.
+     * @param viewer
+     * @return canSee
+     */
+    public static boolean canSeeHidden(CommandSender viewer) {
+        return Utils.isStaff(viewer);
+    }
+
+    /**
+     * Rebuild the index from the current online players.
+     * Should be called whenever the visibility or name of an online player changes.
+     */
+    public static synchronized void rebuild() {
+        NavigableMap<String, String> visibleNames = new TreeMap<>();
+        NavigableMap<String, String> visibleNicks = new TreeMap<>();
+        NavigableMap<String, String> allNames = new TreeMap<>();
+        NavigableMap<String, String> allNicks = new TreeMap<>();
+        Set<String> hidden = new HashSet<>();
+
+        for (KCPlayer kc : Roster.getSnapshot().getWrappers()) {
+            String name = kc.getUsername();
+            String nick = kc.getNickname() != null ? ChatColor.stripColor(kc.getNickname()) : null;
+            add(allNames, allNicks, name, nick);
+
+            if (kc.isVanished()) {
+                hidden.add(name.toLowerCase());
+            } else {
+                add(visibleNames, visibleNicks, name, nick);
+            }
+        }
+
+        View visible = new View(visibleNames, visibleNicks);
+        View all = new View(allNames, allNicks);
+        View[] newViews = new View[EnumRank.values().length];
+        for (EnumRank rank : EnumRank.values())
+            newViews[rank.ordinal()] = rank.isStaff() ? all : visible;
+
+        views = newViews;
+        hiddenNames = Collections.unmodifiableSet(hidden);
+    }
+
+    private static void add(NavigableMap<String, String> names, NavigableMap<String, String> nicks, String name, String nick) {
+        names.put(name.toLowerCase(), name);
+        if (nick != null)
+            nicks.put(nick.toLowerCase(), nick);
+    }
+
+    private static View getView(CommandSender viewer) {
+        return views[Utils.getRank(viewer).ordinal()];
+    }
+
+    private static Collection<String> range(NavigableMap<String, String> map, String prefix) {
+        if (prefix == null || prefix.isEmpty())
+            return map.values();
+
+        String low = prefix.toLowerCase();
+        return map.subMap(low, true, low + Character.MAX_VALUE, false).values();
+    }
+
+    /**
+     * An immutable snapshot of the names one group of viewers can see.
+     */
+    @Getter
+    private static class View {
+        private final NavigableMap<String, String> names;
+        private final NavigableMap<String, String> nicknames;
+
+        View(NavigableMap<String, String> names, NavigableMap<String, String> nicknames) {
+            this.names = Collections.unmodifiableNavigableMap(names);
+            this.nicknames = Collections.unmodifiableNavigableMap(nicknames);
+        }
+    }
+}
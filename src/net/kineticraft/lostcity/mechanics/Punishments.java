@@ -29,7 +29,7 @@ public class Punishments extends Mechanic {
 
     @Override
     public void onEnable() {
-        Utils.runCalendarTaskEvery(TimeInterval.WEEK, () -> {
+        Timers.runCalendarEvery("Weekly Ban Report", TimeInterval.WEEK, () -> {
             Map<String, Map<PunishmentType, Integer>> banCount = new HashMap<>();
             KCPlayer.getPlayerMap().values().forEach(p -> p.getPunishments().stream() // Generate ban report.
                     .filter(Punishment::isValid) // Make sure the punishment is still valid.
@@ -0,0 +1,146 @@
+package net.kineticraft.lostcity.mechanics;
+
+import net.kineticraft.lostcity.config.Configs;
+import net.kineticraft.lostcity.mechanics.system.Mechanic;
+import net.kineticraft.lostcity.utils.SafeLocations;
+import net.kineticraft.lostcity.utils.Utils;
+import net.kineticraft.lostcity.utils.tasks.Job;
+import net.kineticraft.lostcity.utils.tasks.Job.Priority;
+import net.kineticraft.lostcity.utils.tasks.Promise;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
+
+import java.util.*;
+
+/**
+ * Keeps a pool of ready /rtp destinations for each world, so a random teleport never has to generate terrain.
+ *
+ * While the server isn't lagging, each pool below its size picks a random spot within rtpRadius of the world border's
+ * centre, generates the chunks around it as a low priority WorkQueue job, then looks for a safe place to stand off-thread.
+ * Spots which land in water, lava or underground are thrown away. Accepted spots keep their chunks held until used.
+ */
+public class RandomTeleports extends Mechanic {
+
+    private static final Map<String, Deque<Location>> pools = new HashMap<>();
+    private static final Map<String, Job> searching = new HashMap<>(); // Worlds with a destination being prepared.
+    private static final SafeLocations.Rules RULES = new SafeLocations.Rules();
+    private static final int WARM_RADIUS = 1; // Chunks around a destination generated ahead of time.
+    private static final int BORDER_MARGIN = 32;
+    private static boolean refilling = true;
+
+    @Override
+    public void onEnable() {
+        LagGovernor.register("RTP Pool Refill", level -> refilling = level == 0);
+        getPool(Bukkit.getWorlds().get(0)); // Start filling the main world right away.
+        Timers.runTimer("RTP Pool Refill", 20, RandomTeleports::refill);
+    }
+
+    @Override
+    public void onDisable() {
+        pools.values().forEach(pool -> pool.forEach(ChunkHousekeeper::release));
+        pools.clear();
+        searching.keySet().forEach(world -> ChunkHousekeeper.release(getTicket(world)));
+        searching.clear();
+    }
+
+    /**
+     * Take a ready destination in the given world. Worlds without a pool start one.
+     * Destinations are checked again, since the world may have changed while they waited, and dropped if no longer safe.
+     * @param world
+     * @return destination - Null if none are ready yet.
+     */
+    public static Location take(World world) {
+        Deque<Location> pool = getPool(world);
+        Location dest;
+        while ((dest = pool.pollFirst()) != null) {
+            boolean safe = SafeLocations.isSafe(dest, RULES); // Check while the chunks are still held.
+            ChunkHousekeeper.release(dest);
+            if (safe)
+                return dest;
+        }
+        return null;
+    }
+
+    /**
+     * Get the number of destinations ready in a world.
+     * @param world
+     * @return ready
+     */
+    public static int getReady(World world) {
+        return pools.containsKey(world.getName()) ? pools.get(world.getName()).size() : 0;
+    }
+
+    private static Deque<Location> getPool(World world) {
+        return pools.computeIfAbsent(world.getName(), k -> new ArrayDeque<>());
+    }
+
+    /**
+     * Start preparing a destination for each pool which is running low.
+     */
+    private static void refill() {
+        if (!refilling)
+            return;
+
+        for (Map.Entry<String, Deque<Location>> entry : pools.entrySet()) {
+            World world = Bukkit.getWorld(entry.getKey());
+            Job job = searching.get(entry.getKey());
+            if (world != null && entry.getValue().size() < Configs.getMainConfig().getRtpPoolSize()
+                    && (job == null || job.isCancelled())) { // A failed warmup never completes, so start over.
+                ChunkHousekeeper.release(getTicket(world.getName()));
+                searching.put(world.getName(), prepare(world));
+            }
+        }
+    }
+
+    /**
+     * Generate the terrain around a random spot, then check if it's somewhere players can be sent.
+     * @param world
+     * @return warmup
+     */
+    private static Job prepare(World world) {
+        WorldBorder border = world.getWorldBorder();
+        int radius = (int) Math.max(0, Math.min(Configs.getMainConfig().getRtpRadius(), border.getSize() / 2 - BORDER_MARGIN));
+        Location dest = border.getCenter().clone().add(Utils.randInt(-radius, radius), 0, Utils.randInt(-radius, radius));
+        dest.setWorld(world);
+        dest.setY(world.getMaxHeight());
+        ChunkHousekeeper.hold(getTicket(world.getName()), dest, WARM_RADIUS); // Don't let the chunks unload while they're being generated.
+
+        int cx = dest.getBlockX() >> 4;
+        int cz = dest.getBlockZ() >> 4;
+        List<int[]> chunks = new ArrayList<>();
+        for (int x = cx - WARM_RADIUS; x <= cx + WARM_RADIUS; x++)
+            for (int z = cz - WARM_RADIUS; z <= cz + WARM_RADIUS; z++)
+                chunks.add(new int[] {x, z});
+
+        return WorkQueue.forEach("RTP Warmup", Priority.LOW, chunks, c -> world.loadChunk(c[0], c[1], true)).onComplete(() -> {
+            Promise<Location> search = SafeLocations.find(dest, RULES);
+            search.thenSync(safe -> {
+                Deque<Location> pool = pools.get(world.getName());
+                if (pool != null && isSurface(safe)) { // Skip if disabled since, or somewhere we don't want players.
+                    ChunkHousekeeper.hold(safe, safe, WARM_RADIUS);
+                    pool.add(safe);
+                }
+            });
+            search.alwaysSync(() -> {
+                searching.remove(world.getName());
+                ChunkHousekeeper.release(getTicket(world.getName()));
+            });
+        });
+    }
+
+    private static String getTicket(String world) {
+        return "RTP Warmup: " + world; // Only one warmup runs per world, so this is unique.
+    }
+
+    /**
+     * Is this location a safe spot on the surface? The safe location search falls back to the surface when it has to,
+     * so this also catches oceans and lava lakes.
+     * @param loc
+     * @return surface
+     */
+    private static boolean isSurface(Location loc) {
+        return loc.getBlockY() >= loc.getWorld().getHighestBlockYAt(loc) && SafeLocations.isSafe(loc, RULES);
+    }
+}
@@ -1,6 +1,8 @@
 package net.kineticraft.lostcity.mechanics;
 
 import net.kineticraft.lostcity.Core;
+import net.kineticraft.lostcity.mechanics.alerts.AlertCategory;
+import net.kineticraft.lostcity.mechanics.alerts.Alerts;
 import net.kineticraft.lostcity.mechanics.metadata.MetadataManager;
 import net.kineticraft.lostcity.mechanics.system.Mechanic;
 import net.kineticraft.lostcity.utils.Utils;
@@ -8,16 +10,12 @@ import org.bukkit.ChatColor;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.entity.Entity;
-import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.player.*;
-import org.bukkit.event.vehicle.VehicleMoveEvent;
 import org.bukkit.potion.PotionEffect;
 
-import java.util.stream.Collectors;
 
 /**
  * Restrictions - Contains basic restrictions / alerts about slightly questionable player behaviour.
@@ -42,16 +40,8 @@ public class Restrictions extends Mechanic {
     @EventHandler
     public void onPlayerTabComplete(PlayerChatTabCompleteEvent evt) {
         if (!"1234567890abcdefghijklmnopqrstuvwxyz".contains(evt.getChatMessage().substring(0, 1).toLowerCase()))
-            Core.alertStaff(ChatColor.RED + "[" + evt.getPlayer().getName() + "]" + ChatColor.GRAY + ": " + evt.getChatMessage());
-    }
-
-    @EventHandler
-    public void onVehicleMove(VehicleMoveEvent evt) {
-        String fly = evt.getVehicle().getPassengers().stream().filter(e -> e instanceof Player).map(Entity::getName)
-                .collect(Collectors.joining(", "));
-        if (evt.getVehicle().getType() == EntityType.BOAT && !evt.getFrom().getBlock().isLiquid() && fly.length() > 0
-                && evt.getTo().getY() > evt.getFrom().getY() && evt.getVehicle().getVelocity().getY() <= 0)
-            Core.alertStaff("[BoatFly] " + ChatColor.GRAY + fly + " may be using BoatFly.");
+            Alerts.alert(AlertCategory.TAB_COMPLETE, evt.getPlayer().getName() + evt.getChatMessage(),
+                    ChatColor.RED + "[" + evt.getPlayer().getName() + "]" + ChatColor.GRAY + ": " + evt.getChatMessage());
     }
 
     @Override // Removes all infinite potion effects. (Players aren't supposed to keep them.)
@@ -65,8 +55,8 @@ public class Restrictions extends Mechanic {
         if (evt.getBlock().getType() != Material.DIAMOND_ORE || evt.getBlock().getLocation().getY() > 20)
             return;
 
-        Core.alertStaff(ChatColor.BLUE + evt.getPlayer().getName() + " mined some "
-                + ChatColor.AQUA + "diamond ore" + ChatColor.BLUE + ".");
+        Alerts.alert(AlertCategory.DIAMOND, evt.getPlayer().getName(), ChatColor.BLUE + evt.getPlayer().getName()
+                + " mined some " + ChatColor.AQUA + "diamond ore" + ChatColor.BLUE + ".");
         MetadataManager.setCooldown(evt.getPlayer(), "lastDiamond", 6000); // 5 minutes
     }
 
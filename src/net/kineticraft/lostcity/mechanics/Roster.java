@@ -0,0 +1,162 @@
+package net.kineticraft.lostcity.mechanics;
+
+import lombok.Getter;
+import net.kineticraft.lostcity.EnumRank;
+import net.kineticraft.lostcity.data.KCPlayer;
+import net.kineticraft.lostcity.mechanics.system.Mechanic;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Keeps immutable snapshots of the online players, bucketed by rank and vanish state.
+ * A new snapshot is swapped in whenever someone joins, quits, vanishes or changes rank, so readers
+ * (including async tasks) never need to copy or filter the online player list themselves.
+ */
+public class Roster extends Mechanic {
+
+    @Getter private static volatile Snapshot snapshot = new Snapshot(Collections.emptyList());
+
+    @Override
+    public void onEnable() {
+        List<KCPlayer> online = new ArrayList<>();
+        for (Player player : Bukkit.getOnlinePlayers()) { // Players who are online during a reload.
+            KCPlayer kc = KCPlayer.getWrapper(player);
+            kc.bindPlayer(player);
+            online.add(kc);
+        }
+        publish(online);
+    }
+
+    @Override
+    public void onJoin(Player player) {
+        KCPlayer kc = KCPlayer.getWrapper(player);
+        kc.bindPlayer(player);
+
+        synchronized (Roster.class) {
+            List<KCPlayer> online = new ArrayList<>(getSnapshot().getWrappers());
+            online.removeIf(k -> k.getUuid().equals(player.getUniqueId()));
+            online.add(kc);
+            publish(online);
+        }
+    }
+
+    @Override
+    public void onQuit(Player player) {
+        synchronized (Roster.class) {
+            List<KCPlayer> online = new ArrayList<>(getSnapshot().getWrappers());
+            online.removeIf(k -> k.getUuid().equals(player.getUniqueId()));
+            publish(online);
+        }
+
+        KCPlayer kc = KCPlayer.getPlayerMap().get(player.getUniqueId());
+        if (kc != null)
+            kc.bindPlayer(null);
+    }
+
+    /**
+     * Re-bucket the online players. Call after an online player's rank or vanish state changes.
+     */
+    public static void update() {
+        synchronized (Roster.class) {
+            publish(getSnapshot().getWrappers());
+        }
+    }
+
+    private static void publish(List<KCPlayer> online) {
+        snapshot = new Snapshot(online);
+        NameIndex.rebuild();
+    }
+
+    /**
+     * An immutable view of who was online at a point in time.
+     */
+    @Getter
+    public static class Snapshot {
+        private final List<KCPlayer> wrappers;
+        private final List<Player> all;
+        private final List<Player> visible;
+        private final List<Player> hidden;
+        private final List<List<Player>> byRank;
+        private final List<List<Player>> visibleByRank;
+
+        @SuppressWarnings("unchecked")
+        Snapshot(List<KCPlayer> online) {
+            List<Player> all = new ArrayList<>(online.size());
+            List<Player> visible = new ArrayList<>(online.size());
+            List<Player> hidden = new ArrayList<>();
+            List<Player>[] byRank = new List[EnumRank.values().length];
+            List<Player>[] visibleByRank = new List[EnumRank.values().length];
+            for (int i = 0; i < byRank.length; i++) {
+                byRank[i] = new ArrayList<>();
+                visibleByRank[i] = new ArrayList<>();
+            }
+
+            for (KCPlayer kc : online) {
+                Player player = kc.getPlayer();
+                int rank = kc.getRank().ordinal();
+                all.add(player);
+                byRank[rank].add(player);
+
+                if (kc.isVanished()) {
+                    hidden.add(player);
+                } else {
+                    visible.add(player);
+                    visibleByRank[rank].add(player);
+                }
+            }
+
+            this.wrappers = Collections.unmodifiableList(new ArrayList<>(online));
+            this.all = Collections.unmodifiableList(all);
+            this.visible = Collections.unmodifiableList(visible);
+            this.hidden = Collections.unmodifiableList(hidden);
+            this.byRank = freeze(byRank);
+            this.visibleByRank = freeze(visibleByRank);
+        }
+
+        /**
+         * Get all online players of exactly the given rank, including vanished ones.
+         * @param rank
+         * @return players
+         */
+        public List<Player> getPlayers(EnumRank rank) {
+            return getByRank().get(rank.ordinal());
+        }
+
+        /**
+         * Get non-vanished online players of exactly the given rank.
+         * @param rank
+         * @return players
+         */
+        public List<Player> getVisible(EnumRank rank) {
+            return getVisibleByRank().get(rank.ordinal());
+        }
+
+        /**
+         * Run code for every online player of at least the given rank, including vanished ones.
+         * @param minRank
+         * @param action
+         */
+        public void forEachAtLeast(EnumRank minRank, Consumer<Player> action) {
+            for (int i = minRank.ordinal(); i < getByRank().size(); i++)
+                getByRank().get(i).forEach(action);
+        }
+
+        /**
+         * Get the number of online players.
+         * @return size
+         */
+        public int size() {
+            return getAll().size();
+        }
+
+        private static List<List<Player>> freeze(List<Player>[] buckets) {
+            List<List<Player>> frozen = new ArrayList<>(buckets.length);
+            for (List<Player> bucket : buckets)
+                frozen.add(Collections.unmodifiableList(bucket));
+            return Collections.unmodifiableList(frozen);
+        }
+    }
+}
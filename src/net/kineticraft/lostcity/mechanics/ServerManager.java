@@ -3,18 +3,21 @@ package net.kineticraft.lostcity.mechanics;
 import lombok.Getter;
 import net.kineticraft.lostcity.Core;
 import net.kineticraft.lostcity.config.Configs;
-import net.kineticraft.lostcity.data.lists.QueueList;
 import net.kineticraft.lostcity.mechanics.system.Mechanic;
 import net.kineticraft.lostcity.utils.ServerUtils;
 import net.kineticraft.lostcity.utils.TextUtils;
 import net.kineticraft.lostcity.utils.TimeInterval;
 import net.kineticraft.lostcity.utils.Utils;
+import net.minecraft.server.v1_12_R1.WorldServer;
 import org.bukkit.Bukkit;
-import org.bukkit.Chunk;
-import org.bukkit.Location;
-import org.bukkit.craftbukkit.v1_12_R1.CraftServer;
+import org.bukkit.World;
 import org.bukkit.craftbukkit.v1_12_R1.CraftWorld;
-import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Manages basic core server utilities such as backing up, rebooting, announcements, lag controller, etc.
@@ -23,10 +26,8 @@ import org.bukkit.entity.Player;
 public class ServerManager extends Mechanic {
 
     @Getter private static int renderDistance = 10;
-    @Getter private static QueueList<Double> tpsQueue = new QueueList<>();
-    private static long lastPoll = System.currentTimeMillis();
-
-    private static final int TPS_INTERVAL = 50;
+    private static final Map<String, Integer> baseDistance = new HashMap<>(); // The view distance each world was configured with.
+    private static final Map<String, int[]> baseSpawnLimits = new HashMap<>(); // The spawn limits each world was configured with.
     private static final int MAX_RENDER = 10;
     private static final int MIN_RENDER = 5;
     private static final int REBOOT_TIME = 3600;
@@ -34,63 +35,73 @@ public class ServerManager extends Mechanic {
     @Override
     public void onEnable() {
         // Register announcer.
-        Bukkit.getScheduler().runTaskTimer(Core.getInstance(), () -> {
+        Timers.runTimer("Announcer", 5 * 20 * 60L, () -> {
             String s = Utils.randElement(Configs.getTextConfig(Configs.ConfigType.ANNOUNCER).getLines());
             if (s != null)
                 Core.broadcast(TextUtils.fromMarkup(s).create());
-        }, 0L, 5 * 20 * 60L);
+        });
 
-        // Update render distance every minute.
-        Bukkit.getScheduler().runTaskTimer(Core.getInstance(), () ->
-            setRenderDistance(getRenderDistance() + (getTPS() >= 19 ? 1 : -1)), 0L, 1200L);
-
-        // Update TPS Counter
-        Bukkit.getScheduler().runTaskTimer(Core.getInstance(), () -> {
-            getTpsQueue().trim(25); // Only keep recent records.
-            final long startTime = System.currentTimeMillis();
-            getTpsQueue().add(Math.abs(((startTime - lastPoll) / (TPS_INTERVAL * (TPS_INTERVAL / 20D)) - 40)));
-            lastPoll = startTime;
-        }, 0L, TPS_INTERVAL);
+        // Shrink view distance and spawn caps as lag rises.
+        LagGovernor.register("View Distance", level ->
+                setRenderDistance(MAX_RENDER - level * (MAX_RENDER - MIN_RENDER) / LagGovernor.MAX_LEVEL));
+        LagGovernor.register("Spawn Caps", level -> Bukkit.getWorlds().forEach(ServerManager::applySpawnLimits));
 
         if (!ServerUtils.isDevServer()) {
-            Utils.runCalendarTaskAt(TimeInterval.HOUR, 6, ServerUtils::takeBackup); // Backup the server at 6AM daily.
+            Timers.runCalendarAt("Daily Backup", TimeInterval.HOUR, 6, ServerUtils::takeBackup); // Backup the server at 6AM daily.
 
             // Automatically reboot after a while.
-            Bukkit.getScheduler().runTaskTimer(Core.getInstance(), () -> {
+            Timers.runTimer("Auto Reboot", 20L, () -> {
                 if (ServerUtils.getTicksToReboot() <= REBOOT_TIME * 20 && !ServerUtils.isRebootScheduled())
                     ServerUtils.reboot(REBOOT_TIME);
-            }, 0L, 20L);
+            });
         }
     }
 
-    /**
-     * Get if a player is within render distance of a given chunk.
-     * @param c
-     * @return shouldUnload
-     */
-    private static boolean shouldUnload(Chunk c) {
-        int render = getRenderDistance() + 1;
-        return Core.getOnlineAsync().stream().map(Player::getLocation).map(Location::getChunk)
-                .noneMatch(chk -> Math.abs(chk.getX() - c.getX()) <= render || Math.abs(chk.getZ() - c.getZ()) <= render);
-    }
-
     /**
      * Update the entire server render distance.
      * @param newDistance
      */
     public static void setRenderDistance(int newDistance) {
-        // MCP = setViewDistance(int i)
         renderDistance = Math.max(MIN_RENDER, Math.min(newDistance, MAX_RENDER));
-        ((CraftServer) Bukkit.getServer()).getServer().getPlayerList().a(renderDistance);
-        Bukkit.getWorlds().forEach(w -> ((CraftWorld) w).getHandle().spigotConfig.viewDistance = renderDistance);
+        int reduce = MAX_RENDER - renderDistance;
+        for (World w : Bukkit.getWorlds()) { // Each world keeps its own configured distance, less the reduction.
+            WorldServer world = ((CraftWorld) w).getHandle();
+            int distance = Math.max(MIN_RENDER, Math.min(MAX_RENDER, baseDistance.computeIfAbsent(w.getName(),
+                    k -> world.spigotConfig.viewDistance)) - reduce);
+            world.spigotConfig.viewDistance = distance;
+            world.getPlayerChunkMap().a(distance); // MCP = setPlayerViewRadius(int i)
+        }
+    }
+
+    @EventHandler
+    public void onWorldLoad(WorldLoadEvent evt) {
+        applySpawnLimits(evt.getWorld());
+    }
+
+    @EventHandler
+    public void onWorldUnload(WorldUnloadEvent evt) {
+        baseSpawnLimits.remove(evt.getWorld().getName());
+    }
+
+    /**
+     * Scale a world's spawn limits down from its own configured limits, by the current lag level.
+     * @param w
+     */
+    private static void applySpawnLimits(World w) {
+        int[] base = baseSpawnLimits.computeIfAbsent(w.getName(), k -> new int[] {w.getMonsterSpawnLimit(),
+                w.getAnimalSpawnLimit(), w.getWaterAnimalSpawnLimit(), w.getAmbientSpawnLimit()});
+        w.setMonsterSpawnLimit(LagGovernor.scale(base[0], base[0] / 2));
+        w.setAnimalSpawnLimit(LagGovernor.scale(base[1], base[1] / 2));
+        w.setWaterAnimalSpawnLimit(LagGovernor.scale(base[2], base[2] / 2));
+        w.setAmbientSpawnLimit(LagGovernor.scale(base[3], 0));
     }
 
     /**
-     * Get the average server TPS.
+     * Get the average server TPS over the last minute.
      * @return tps
      */
     public static double getTPS() {
-        return Math.min(20, getTpsQueue().stream().mapToDouble(Double::doubleValue).average().orElse(20D));
+        return TickClock.getTPS(1);
     }
 
     /**
@@ -98,6 +109,6 @@ public class ServerManager extends Mechanic {
      * @return lagSetting
      */
     public static int getLagSetting() {
-        return (int) (((MAX_RENDER - getRenderDistance()) / (double) (MAX_RENDER - MIN_RENDER)) * 4);
+        return LagGovernor.getLevel();
     }
 }
@@ -0,0 +1,206 @@
+package net.kineticraft.lostcity.mechanics;
+
+import net.kineticraft.lostcity.config.Configs;
+import net.kineticraft.lostcity.data.KCPlayer;
+import net.kineticraft.lostcity.mechanics.system.Mechanic;
+import net.kineticraft.lostcity.utils.Utils;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks each online player's session as a handful of timestamps, updated only when something happens.
+ *
+ * Every online player gets a slot in a set of primitive arrays: when their session started, when they last did
+ * something (moved, chatted, interacted, ran a command), and how long they may idle before counting as AFK.
+ * Playtime, idle time and AFK state are worked out from these when read, so nothing has to touch every player on a timer.
+ * Slots are only written on the main thread, so async input like chat is handed over first.
+ */
+public class Sessions extends Mechanic {
+
+    private static final Map<UUID, Integer> slots = new ConcurrentHashMap<>(); // Read async, only changed on the main thread.
+    private static final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private static volatile long[] sessionStart = new long[0];
+    private static volatile long[] lastInput = new long[0];
+    private static volatile long[] afkLimit = new long[0];
+    private static int nextSlot;
+
+    @Override
+    public void onEnable() {
+        grow(Math.max(16, Bukkit.getMaxPlayers()));
+        Bukkit.getOnlinePlayers().forEach(this::onJoin); // Players who are online during a reload.
+    }
+
+    @Override
+    public void onDisable() {
+        new ArrayList<>(Bukkit.getOnlinePlayers()).forEach(this::onQuit);
+    }
+
+    @Override
+    public void onJoin(Player player) {
+        if (slots.containsKey(player.getUniqueId()))
+            return;
+
+        int slot = freeSlots.isEmpty() ? nextSlot++ : freeSlots.pop();
+        if (slot >= sessionStart.length)
+            grow(sessionStart.length * 2);
+
+        long now = System.currentTimeMillis();
+        sessionStart[slot] = now;
+        markActive(slot, now);
+        slots.put(player.getUniqueId(), slot);
+    }
+
+    @Override
+    public void onQuit(Player player) {
+        Integer slot = slots.get(player.getUniqueId());
+        if (slot == null)
+            return;
+
+        // Bank this session's playtime as the slot is freed, so it's in the data DataHandler saves.
+        KCPlayer kc = KCPlayer.getWrapper(player);
+        long played = kc.getSecondsPlayed();
+        slots.remove(player.getUniqueId());
+        kc.setSecondsPlayed(played);
+        kc.setLastSeen(System.currentTimeMillis());
+        freeSlots.push(slot);
+    }
+
+    @EventHandler(ignoreCancelled = true)
+    public void onMove(PlayerMoveEvent evt) {
+        Location from = evt.getFrom();
+        Location to = evt.getTo();
+        if (from.getBlockX() != to.getBlockX() || from.getBlockZ() != to.getBlockZ()
+                || from.getYaw() != to.getYaw() || from.getPitch() != to.getPitch()) // Ignore falling and being pushed.
+            markActive(evt.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChat(AsyncPlayerChatEvent evt) {
+        Player player = evt.getPlayer();
+        Async.SYNC.execute(() -> markActive(player)); // Chat arrives off the main thread.
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onCommand(PlayerCommandPreprocessEvent evt) {
+        markActive(evt.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInteract(PlayerInteractEvent evt) {
+        markActive(evt.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onBlockBreak(BlockBreakEvent evt) {
+        markActive(evt.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onBlockPlace(BlockPlaceEvent evt) {
+        markActive(evt.getPlayer());
+    }
+
+    /**
+     * Mark a player as having just done something. Main thread only.
+     * @param player
+     */
+    public static void markActive(Player player) {
+        int slot = getSlot(player.getUniqueId());
+        if (slot >= 0)
+            markActive(slot, System.currentTimeMillis());
+    }
+
+    /**
+     * Record input in a slot.
+     * Each player's AFK limit is a few minutes either side of the configured one, so it can't be timed exactly.
+     * @param slot
+     * @param now
+     */
+    private static void markActive(int slot, long now) {
+        lastInput[slot] = now;
+        int base = Configs.getMainConfig().getAfkLimit();
+        afkLimit[slot] = Utils.randInt(base - 3, base + 3) * 60 * 1000L;
+    }
+
+    /**
+     * Get how long a player has gone without doing anything.
+     * @param player
+     * @return idleMillis - 0 if they're offline.
+     */
+    public static long getIdleTime(Player player) {
+        int slot = getSlot(player.getUniqueId());
+        return slot >= 0 ? System.currentTimeMillis() - lastInput[slot] : 0;
+    }
+
+    /**
+     * Is this player AFK? This is the case once they've been idle longer than their AFK limit.
+     * @param player
+     * @return afk
+     */
+    public static boolean isAFK(Player player) {
+        int slot = getSlot(player.getUniqueId());
+        return slot >= 0 && System.currentTimeMillis() - lastInput[slot] >= afkLimit[slot];
+    }
+
+    /**
+     * Get when a player's current session started.
+     * @param uuid
+     * @return startMillis - 0 if they're offline.
+     */
+    public static long getSessionStart(UUID uuid) {
+        int slot = getSlot(uuid);
+        return slot >= 0 ? sessionStart[slot] : 0;
+    }
+
+    /**
+     * Get how long a player's current session has lasted.
+     * @param uuid
+     * @return sessionMillis - 0 if they're offline.
+     */
+    public static long getSessionTime(UUID uuid) {
+        int slot = getSlot(uuid);
+        return slot >= 0 ? System.currentTimeMillis() - sessionStart[slot] : 0;
+    }
+
+    /**
+     * Get when a player was last online. Online players are being seen right now.
+     * Players who haven't quit since this was tracked fall back to Bukkit's last played time, which reads from disk.
+     * @param player
+     * @return lastSeen
+     */
+    public static long getLastSeen(KCPlayer player) {
+        if (getSlot(player.getUuid()) >= 0)
+            return System.currentTimeMillis();
+        return player.getLastSeen() > 0 ? player.getLastSeen() : Bukkit.getOfflinePlayer(player.getUuid()).getLastPlayed();
+    }
+
+    private static int getSlot(UUID uuid) {
+        Integer slot = slots.get(uuid);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * Grow the slot arrays. Readers on other threads may briefly see the old arrays, which only makes them stale.
+     * @param size
+     */
+    private static void grow(int size) {
+        if (size <= sessionStart.length)
+            return;
+
+        sessionStart = Arrays.copyOf(sessionStart, size);
+        lastInput = Arrays.copyOf(lastInput, size);
+        afkLimit = Arrays.copyOf(afkLimit, size);
+    }
+}
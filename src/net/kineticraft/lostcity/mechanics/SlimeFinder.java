@@ -19,9 +19,16 @@ import java.util.Random;
  */
 public class SlimeFinder extends Mechanic {
 
+    private static int bounceRuns = 1; // Slimes bounce every this many runs.
+    private static int runs;
+
     @Override
     public void onEnable() {
-        Bukkit.getScheduler().runTaskTimer(Core.getInstance(), this::bounceSlimes, 0L, 100L);
+        LagGovernor.register("Slime Finder", level -> bounceRuns = level + 1); // Bounce less often as lag rises.
+        Bukkit.getScheduler().runTaskTimer(Core.getInstance(), () -> {
+            if (++runs % bounceRuns == 0)
+                bounceSlimes();
+        }, 0L, 100L);
     }
 
     /**
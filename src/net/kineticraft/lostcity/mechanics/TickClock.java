@@ -0,0 +1,183 @@
+package net.kineticraft.lostcity.mechanics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.kineticraft.lostcity.Core;
+import net.kineticraft.lostcity.mechanics.system.Mechanic;
+import net.kineticraft.lostcity.utils.ReflectionUtil;
+import net.minecraft.server.v1_12_R1.MinecraftServer;
+import org.bukkit.Bukkit;
+import org.bukkit.craftbukkit.v1_12_R1.CraftServer;
+
+import java.util.Arrays;
+
+/**
+ * Counts server ticks and records how long each one took into a rolling histogram.
+ *
+ * A tick's duration is the time the server spent working on it (MSPT), taken from the server's own tick samples,
+ * so it shows how much of the 50ms budget is used well before TPS drops. TPS comes from the wall time between ticks.
+ * History is kept in slots of wall time, so a window covers the same minutes whether or not the server is lagging.
+ */
+public class TickClock extends Mechanic {
+
+    @Getter private static volatile int tick;
+    private static long lastTick;
+    private static int serverTick; // Mirrors MinecraftServer's tick counter, which indexes its tick samples.
+    private static long[] tickSamples;
+
+    private static final long SLOT_MILLIS = 10000; // Each histogram slot covers 10 seconds.
+    private static final int SLOTS_PER_MINUTE = 6;
+    private static final int SLOTS = 15 * SLOTS_PER_MINUTE; // Keep 15 minutes of history.
+    private static final int RECENT_SLOTS = 3;
+    private static final int BUCKETS = 250; // One bucket per millisecond. The last bucket holds everything slower.
+
+    private static final int[][] histogram = new int[SLOTS][BUCKETS + 1];
+    private static final long[] slotMax = new long[SLOTS];
+    private static final long[] slotInterval = new long[SLOTS]; // Total wall time between ticks, for TPS.
+    private static final int[] slotCount = new int[SLOTS];
+    private static int slot;
+    private static long slotStart; // The wall time slot the current slot belongs to.
+
+    @Override
+    public void onEnable() {
+        lastTick = 0;
+        MinecraftServer server = ((CraftServer) Bukkit.getServer()).getServer();
+        tickSamples = server.h; // Nanoseconds each tick took, indexed by tick % 100.
+        serverTick = (int) ReflectionUtil.getField(server, MinecraftServer.class, "ticks");
+        Bukkit.getScheduler().runTaskTimer(Core.getInstance(), TickClock::onTick, 0L, 1L);
+    }
+
+    /**
+     * Advance the clock, and record the tick which just finished.
+     * We run at the start of each tick, after the server has counted it, so the last finished tick is the one before.
+     */
+    private static void onTick() {
+        long now = System.nanoTime();
+        serverTick++;
+        if (lastTick != 0)
+            record(tickSamples[(serverTick - 1) % tickSamples.length], now - lastTick);
+        lastTick = now;
+        tick++;
+    }
+
+    /**
+     * Record a single tick.
+     * @param nanos - How long the server spent working on the tick.
+     * @param interval - The wall time since the tick before it started.
+     */
+    private static synchronized void record(long nanos, long interval) {
+        advance();
+        histogram[slot][(int) Math.min(BUCKETS, nanos / 1000000L)]++;
+        slotMax[slot] = Math.max(slotMax[slot], nanos);
+        slotInterval[slot] += interval;
+        slotCount[slot]++;
+    }
+
+    /**
+     * Move onto a fresh slot for each 10 seconds which has passed, overwriting the oldest ones.
+     */
+    private static void advance() {
+        long now = System.currentTimeMillis() / SLOT_MILLIS;
+        long passed = Math.min(SLOTS, now - slotStart);
+        slotStart = now;
+        for (int i = 0; i < passed; i++) {
+            slot = (slot + 1) % SLOTS;
+            Arrays.fill(histogram[slot], 0);
+            slotMax[slot] = 0;
+            slotInterval[slot] = 0;
+            slotCount[slot] = 0;
+        }
+    }
+
+    /**
+     * Get tick statistics over the last few minutes.
+     * @param minutes - 1 to 15.
+     * @return stats
+     */
+    public static TickStats getStats(int minutes) {
+        return getSlotStats(minutes * SLOTS_PER_MINUTE);
+    }
+
+    /**
+     * Get tick statistics over roughly the last 20 to 30 seconds, for reacting to lag as it happens.
+     * @return stats
+     */
+    public static TickStats getRecentStats() {
+        return getSlotStats(RECENT_SLOTS);
+    }
+
+    /**
+     * Get tick statistics over the newest slots, including the one currently being filled.
+     * @param slots
+     * @return stats
+     */
+    private static synchronized TickStats getSlotStats(int slots) {
+        advance(); // Don't report stale slots if no tick has finished in a while.
+        slots = Math.max(1, Math.min(SLOTS, slots));
+        int[] merged = new int[BUCKETS + 1];
+        long max = 0;
+        long total = 0;
+        int count = 0;
+
+        for (int i = 0; i < slots; i++) {
+            int s = (slot - i + SLOTS) % SLOTS;
+            for (int b = 0; b < merged.length; b++)
+                merged[b] += histogram[s][b];
+            max = Math.max(max, slotMax[s]);
+            total += slotInterval[s];
+            count += slotCount[s];
+        }
+
+        double maxMs = max / 1000000D;
+        return new TickStats(count, total > 0 ? Math.min(20, count * 1000000000D / total) : 20,
+                percentile(merged, count, .5, maxMs), percentile(merged, count, .95, maxMs),
+                percentile(merged, count, .99, maxMs), maxMs);
+    }
+
+    /**
+     * Get the average TPS over the last few minutes.
+     * @param minutes
+     * @return tps
+     */
+    public static double getTPS(int minutes) {
+        return getStats(minutes).getTps();
+    }
+
+    /**
+     * Find the tick work time in milliseconds which the given fraction of ticks fall within, to 1ms resolution.
+     * @param buckets
+     * @param count
+     * @param fraction
+     * @param max - Used for ticks in the overflow bucket.
+     * @return millis
+     */
+    private static double percentile(int[] buckets, int count, double fraction, double max) {
+        long target = (long) Math.ceil(count * fraction);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if (seen >= target && seen > 0)
+                return Math.min(i, max);
+        }
+        return max;
+    }
+
+    @AllArgsConstructor @Getter
+    public static class TickStats {
+        private final int samples;
+        private final double tps;
+        private final double p50;
+        private final double p95;
+        private final double p99;
+        private final double max;
+
+        /**
+         * Get a short summary of the tick work times, such as "p50 12ms, p95 31ms, p99 44ms, max 104ms".
+         * @return summary
+         */
+        public String getSummary() {
+            return "p50 " + Math.round(getP50()) + "ms, p95 " + Math.round(getP95()) + "ms, p99 "
+                    + Math.round(getP99()) + "ms, max " + Math.round(getMax()) + "ms";
+        }
+    }
+}
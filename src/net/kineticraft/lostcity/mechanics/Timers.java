@@ -0,0 +1,202 @@
+package net.kineticraft.lostcity.mechanics;
+
+import net.kineticraft.lostcity.Core;
+import net.kineticraft.lostcity.mechanics.system.Mechanic;
+import net.kineticraft.lostcity.utils.TimeInterval;
+import net.kineticraft.lostcity.utils.tasks.TimedTask;
+import net.kineticraft.lostcity.utils.tasks.TimingWheel;
+import org.bukkit.Bukkit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.IntPredicate;
+
+/**
+ * Runs the plugin's repeating and calendar tasks from a single driver, instead of one Bukkit timer each.
+ *
+ * There are two timing wheels. The tick wheel counts server ticks, so its tasks slow down with the server like Bukkit's.
+ * The wall wheel counts real seconds, for calendar tasks which must happen at a certain time of day no matter the TPS.
+ * Every task is named, and keeps track of how long it takes to run. See /timers.
+ */
+public class Timers extends Mechanic {
+
+    private static final TimingWheel ticks = new TimingWheel(0);
+    private static final TimingWheel wall = new TimingWheel(getSecond());
+    private static final Queue<Runnable> pending = new ConcurrentLinkedQueue<>(); // Tasks scheduled off the main thread.
+
+    @Override
+    public void onEnable() {
+        Bukkit.getScheduler().runTaskTimer(Core.getInstance(), Timers::drive, 1L, 1L);
+        runTimer("Timer Purge", 20 * 60, Timers::purge);
+    }
+
+    /**
+     * Advance both wheels, running anything which is due.
+     */
+    private static void drive() {
+        Runnable r;
+        while ((r = pending.poll()) != null)
+            r.run();
+
+        ticks.advance(ticks.getTime() + 1, Timers::execute);
+        wall.advance(getSecond(), Timers::execute);
+    }
+
+    /**
+     * Run a due task, on the main thread or the IO pool.
+     * @param task
+     */
+    private static void execute(TimedTask task) {
+        if (task.isAsync()) {
+            Async.runIO(task.getName(), () -> safeRun(task));
+        } else {
+            safeRun(task);
+        }
+    }
+
+    private static void safeRun(TimedTask task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            e.printStackTrace();
+            Core.warn("Timer '" + task.getName() + "' failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Run a task once, after a delay in ticks.
+     * @param name
+     * @param delay
+     * @param task
+     * @return timedTask
+     */
+    public static TimedTask runLater(String name, long delay, Runnable task) {
+        return schedule(ticks, new TimedTask(name, task, ticks.getTime() + delay, 0, false));
+    }
+
+    /**
+     * Run a task on the main thread every given number of ticks, starting next tick.
+     * @param name
+     * @param period
+     * @param task
+     * @return timedTask
+     */
+    public static TimedTask runTimer(String name, long period, Runnable task) {
+        return schedule(ticks, new TimedTask(name, task, ticks.getTime() + 1, period, false));
+    }
+
+    /**
+     * Run a task asynchronously every given number of ticks, starting next tick.
+     * @param name
+     * @param period
+     * @param task
+     * @return timedTask
+     */
+    public static TimedTask runTimerAsync(String name, long period, Runnable task) {
+        return schedule(ticks, new TimedTask(name, task, ticks.getTime() + 1, period, true));
+    }
+
+    /**
+     * Run a task every time the calendar reaches the given value, such as 6 on the HOUR interval for 6AM daily.
+     * @param name
+     * @param interval
+     * @param unit
+     * @param task
+     * @return timedTask
+     */
+    public static TimedTask runCalendarAt(String name, TimeInterval interval, int unit, Runnable task) {
+        return runCalendar(name, interval, v -> v == unit, task);
+    }
+
+    /**
+     * Run a task every given interval on the calendar, such as every week.
+     * @param name
+     * @param interval
+     * @param task
+     * @return timedTask
+     */
+    public static TimedTask runCalendarEvery(String name, TimeInterval interval, Runnable task) {
+        return runCalendarEvery(name, interval, 1, task);
+    }
+
+    /**
+     * Run a task every time the calendar value of an interval becomes a multiple of unit.
+     * @param name
+     * @param interval
+     * @param unit
+     * @param task
+     * @return timedTask
+     */
+    public static TimedTask runCalendarEvery(String name, TimeInterval interval, int unit, Runnable task) {
+        return runCalendar(name, interval, v -> v % unit == 0, task);
+    }
+
+    /**
+     * Check a task at the start of every interval on the calendar, and run it if the calendar value matches.
+     * @param name
+     * @param interval
+     * @param test
+     * @param task
+     * @return timedTask
+     */
+    private static TimedTask runCalendar(String name, TimeInterval interval, IntPredicate test, Runnable task) {
+        return schedule(wall, new TimedTask(name, () -> {
+            if (test.test(interval.getValue()))
+                task.run();
+        }, interval.getNextStart() / 1000, 0, false) {
+            @Override
+            public long getNextRun(long now) {
+                return interval.getNextStart() / 1000;
+            }
+        });
+    }
+
+    /**
+     * Add a task to a wheel. Tasks scheduled off the main thread are added on the next tick.
+     * @param wheel
+     * @param task
+     * @return task
+     */
+    private static TimedTask schedule(TimingWheel wheel, TimedTask task) {
+        if (Bukkit.isPrimaryThread()) {
+            wheel.add(task);
+        } else {
+            pending.add(() -> wheel.add(task));
+        }
+        return task;
+    }
+
+    /**
+     * Drop cancelled tasks which haven't come up yet.
+     */
+    private static void purge() {
+        ticks.purge();
+        wall.purge();
+    }
+
+    /**
+     * Get every scheduled task, in both wheels.
+     * @return tasks
+     */
+    public static List<TimedTask> getTasks() {
+        List<TimedTask> tasks = new ArrayList<>(ticks.getTasks());
+        tasks.addAll(wall.getTasks());
+        return tasks;
+    }
+
+    /**
+     * Get the number of ticks until a task next runs. Calendar tasks are converted from seconds.
+     * @param task
+     * @return ticks
+     */
+    public static long getTicksUntil(TimedTask task) {
+        return wall.getTasks().contains(task) ? (task.getExpires() - wall.getTime()) * 20
+                : task.getExpires() - ticks.getTime();
+    }
+
+    private static long getSecond() {
+        return System.currentTimeMillis() / 1000;
+    }
+}
@@ -37,9 +37,8 @@ public class Vanish extends Mechanic {
     @Override
     public void onEnable() {
         // Tell vanished players they're vanished.
-        Bukkit.getScheduler().runTaskTimerAsynchronously(Core.getInstance(), () ->
-            Bukkit.getOnlinePlayers().stream().filter(p -> KCPlayer.getWrapper(p).isVanished())
-                    .forEach(p -> p.sendActionBar(ChatColor.GRAY + "You are vanished.")), 0L, 40L);
+        Timers.runTimerAsync("Vanish Notice", 40L, () ->
+            Core.getHiddenPlayers().forEach(p -> p.sendActionBar(ChatColor.GRAY + "You are vanished.")));
 
         // Hides GM3 from non-staff. Does not hide them from any players in GM3 to stop interferance.
         PacketListenerAPI.addPacketHandler(new PacketHandler(Core.getInstance()) {
@@ -65,11 +64,11 @@ public class Vanish extends Mechanic {
 
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onSendTabCompletes(TabCompleteEvent evt) {
-        if (Utils.getRank(evt.getSender()).isStaff()) // Remove vanished players from non-staff view.
+        if (!NameIndex.hasHidden() || NameIndex.canSeeHidden(evt.getSender())) // Remove vanished players from non-staff view.
             return;
 
         List<String> completes = new ArrayList<>(evt.getCompletions());
-        Core.getHiddenPlayers().stream().map(Player::getName).forEach(completes::remove);
+        completes.removeIf(NameIndex::isHidden);
         evt.setCompletions(completes);
     }
 
@@ -99,7 +98,8 @@ public class Vanish extends Mechanic {
     @Override
     public void onJoin(Player player) {
         showSpectator(player); // Show spectator.
-        updateVanish(); // Correct vanish stuff for new players.
+        hidePlayers(player); // Hide the new player if they're vanished.
+        Core.getHiddenPlayers().stream().filter(h -> h != player).forEach(player::hidePlayer); // Hide vanished players from them.
     }
 
     /**
@@ -111,7 +111,7 @@ public class Vanish extends Mechanic {
         boolean vanished = p.isVanished();
         Utils.setPotion(player, PotionEffectType.INVISIBILITY, vanished);
 
-        Bukkit.getOnlinePlayers().stream().filter(pl -> pl != player).forEach(pl -> {
+        Core.getOnlineAsync().stream().filter(pl -> pl != player).forEach(pl -> {
             if (!vanished) {
                 pl.showPlayer(player);
             } else {
@@ -124,7 +124,7 @@ public class Vanish extends Mechanic {
      * Update the vanish state of everyone on the server.
      */
     public static void updateVanish() {
-        Bukkit.getOnlinePlayers().forEach(Vanish::hidePlayers);
+        Core.getOnlineAsync().forEach(Vanish::hidePlayers);
     }
 
     /**
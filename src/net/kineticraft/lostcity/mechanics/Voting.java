@@ -15,6 +15,7 @@ import net.kineticraft.lostcity.utils.Dog;
 import net.kineticraft.lostcity.utils.TextBuilder;
 import net.kineticraft.lostcity.utils.TimeInterval;
 import net.kineticraft.lostcity.utils.Utils;
+import net.kineticraft.lostcity.utils.tasks.Job.Priority;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
@@ -34,11 +35,11 @@ public class Voting extends Mechanic {
 
     @Override
     public void onEnable() {
-        Bukkit.getScheduler().runTaskTimer(Core.getInstance(), () -> Bukkit.getOnlinePlayers().stream().map(KCPlayer::getWrapper)
+        Timers.runTimer("Vote Reminder", 5 * 60 * 20L + 1, () -> Bukkit.getOnlinePlayers().stream().map(KCPlayer::getWrapper)
                 .filter(k -> System.currentTimeMillis() - k.getLastVote() > 24 * 60 * 60 * 1000)
                 .forEach(p -> p.getPlayer().sendMessage(ChatColor.AQUA + "You have not voted recently, please support us with "
-                        + ChatColor.YELLOW + "/vote" + ChatColor.AQUA + ".")), 0L, 5 * 60 * 20L + 1);
-        Utils.runCalendarTaskEvery(TimeInterval.MONTH, Voting::resetVotes);
+                        + ChatColor.YELLOW + "/vote" + ChatColor.AQUA + ".")));
+        Timers.runCalendarEvery("Monthly Vote Reset", TimeInterval.MONTH, Voting::resetVotes);
     }
 
     @EventHandler
@@ -79,7 +80,7 @@ public class Voting extends Mechanic {
                 giveRewards(player.getPlayer());
         });
 
-        Configs.getVoteData().saveToDisk();
+        Configs.getVoteData().queueSave();
     }
 
     /**
@@ -88,12 +89,15 @@ public class Voting extends Mechanic {
     public static void doVoteParty() {
         Dog.KINETICA.say("Wooo! We made it! Parrrty!");
 
-        for (Player player : Bukkit.getOnlinePlayers()) {
+        WorkQueue.forEach("Vote Party", Priority.NORMAL, Bukkit.getOnlinePlayers(), player -> {
+            if (!player.isOnline())
+                return; // Left before their turn.
+
             ItemStack reward = generatePartyReward();
             Utils.giveItem(player, reward);
             player.sendMessage(ChatColor.GOLD + "You received " + ChatColor.YELLOW + reward.getAmount() + "x"
                     + Utils.getItemName(reward) + ChatColor.GOLD + " from the vote party.");
-        }
+        });
     }
 
     /**
@@ -161,7 +165,7 @@ public class Voting extends Mechanic {
 
             data.setTopVoter(null);
             Core.announce("Votes have reset for the month of " + getMonthName() + "! Better start voting to get top voter! (/vote)");
-            data.saveToDisk();
+            data.queueSave();
         });
     }
 
@@ -203,7 +207,7 @@ public class Voting extends Mechanic {
             if (oldTop != null)
                 KCPlayer.getWrapper(oldTop).updatePlayer();
 
-            data.saveToDisk();
+            data.queueSave();
         });
     }
 
@@ -0,0 +1,160 @@
+package net.kineticraft.lostcity.mechanics;
+
+import net.kineticraft.lostcity.Core;
+import net.kineticraft.lostcity.config.Configs;
+import net.kineticraft.lostcity.mechanics.system.Mechanic;
+import net.kineticraft.lostcity.utils.tasks.Job;
+import net.kineticraft.lostcity.utils.tasks.Job.Priority;
+import org.bukkit.Bukkit;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Spreads large main-thread jobs over several ticks. Each tick, queued jobs run step by step, highest priority first,
+ * until the tick's budget (workBudgetMs in the main config) is used up. At least one step runs every tick,
+ * so jobs always make progress. Jobs of the same priority run in the order they were queued.
+ *
+ * Jobs may be queued from any thread, they're picked up on the next tick.
+ * While the plugin is disabled there are no more ticks, so jobs run to completion as soon as they're queued.
+ */
+public class WorkQueue extends Mechanic {
+
+    private static final Queue<Job> incoming = new ConcurrentLinkedQueue<>();
+    private static final Map<Priority, Deque<Job>> queues = new EnumMap<>(Priority.class);
+
+    static {
+        for (Priority priority : Priority.values())
+            queues.put(priority, new ArrayDeque<>());
+    }
+
+    @Override
+    public void onEnable() {
+        Bukkit.getScheduler().runTaskTimer(Core.getInstance(), WorkQueue::runTick, 1L, 1L);
+    }
+
+    @Override
+    public void onDisable() {
+        accept();
+        queues.values().forEach(queue -> queue.forEach(WorkQueue::finish));
+        queues.values().forEach(Deque::clear);
+    }
+
+    /**
+     * Queue a job, which is stepped until it returns true.
+     * @param name
+     * @param priority
+     * @param step
+     * @return job
+     */
+    public static Job submit(String name, Priority priority, BooleanSupplier step) {
+        Job job = new Job(name, priority, step);
+        if (Core.getInstance().isEnabled()) {
+            incoming.add(job);
+        } else {
+            finish(job);
+        }
+        return job;
+    }
+
+    /**
+     * Queue a job which runs an action for each element, one element per step.
+     * @param name
+     * @param priority
+     * @param elements - Copied, so it may change after this is called.
+     * @param action
+     * @param <T>
+     * @return job
+     */
+    public static <T> Job forEach(String name, Priority priority, Collection<? extends T> elements, Consumer<T> action) {
+        Iterator<T> iterator = new ArrayList<T>(elements).iterator();
+        return submit(name, priority, () -> {
+            if (iterator.hasNext())
+                action.accept(iterator.next());
+            return !iterator.hasNext();
+        });
+    }
+
+    /**
+     * Queue a single task.
+     * @param name
+     * @param priority
+     * @param task
+     * @return job
+     */
+    public static Job run(String name, Priority priority, Runnable task) {
+        return submit(name, priority, () -> {
+            task.run();
+            return true;
+        });
+    }
+
+    /**
+     * Get every job waiting to be run, highest priority first.
+     * @return jobs
+     */
+    public static List<Job> getJobs() {
+        List<Job> jobs = new ArrayList<>();
+        queues.values().forEach(jobs::addAll);
+        jobs.addAll(incoming);
+        return jobs;
+    }
+
+    /**
+     * Run queued jobs until this tick's budget is used up.
+     */
+    private static void runTick() {
+        accept();
+        long budget = Configs.getMainConfig().getWorkBudgetMs() * 1000000L;
+        long start = System.nanoTime();
+        boolean ranStep = false;
+
+        for (Deque<Job> queue : queues.values()) {
+            while (!queue.isEmpty() && (!ranStep || System.nanoTime() - start < budget)) {
+                Job job = queue.peek();
+                ranStep = true;
+                if (job.isCancelled() || step(job))
+                    queue.poll();
+            }
+        }
+    }
+
+    /**
+     * Move jobs queued since the last tick into their priority's queue.
+     */
+    private static void accept() {
+        Job job;
+        while ((job = incoming.poll()) != null)
+            queues.get(job.getPriority()).add(job);
+    }
+
+    /**
+     * Run one step of a job, completing it if it's done. A job which throws an error is dropped.
+     * @param job
+     * @return finished
+     */
+    private static boolean step(Job job) {
+        try {
+            if (!job.runStep())
+                return false;
+        } catch (Exception e) {
+            e.printStackTrace();
+            Core.warn("Job '" + job.getName() + "' failed: " + e.getMessage());
+            job.cancel();
+            return true;
+        }
+
+        job.complete();
+        return true;
+    }
+
+    /**
+     * Run a job to completion right away.
+     * @param job
+     */
+    private static void finish(Job job) {
+        while (!job.isCancelled() && !step(job));
+    }
+}
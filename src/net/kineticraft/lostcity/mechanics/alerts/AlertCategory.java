@@ -0,0 +1,36 @@
+package net.kineticraft.lostcity.mechanics.alerts;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.kineticraft.lostcity.EnumRank;
+import net.kineticraft.lostcity.discord.DiscordChannel;
+
+/**
+ * The categories staff alerts are grouped into.
+ * Each category collapses duplicates inside its window and sends at most a set number of alerts per window.
+ */
+@AllArgsConstructor @Getter
+public enum AlertCategory {
+
+    COMMAND("Commands", EnumRank.TRIAL, DiscordChannel.ORYX, 10, 20),
+    CRAKE("Crake", EnumRank.TRIAL, DiscordChannel.ORYX, 10, 6),
+    BOATFLY("BoatFly", EnumRank.TRIAL, DiscordChannel.ORYX, 10, 3),
+    DIAMOND("Diamonds", EnumRank.TRIAL, DiscordChannel.ORYX, 30, 5),
+    TAB_COMPLETE("Tab", EnumRank.TRIAL, DiscordChannel.ORYX, 10, 5),
+    LAG("Lag", EnumRank.TRIAL, DiscordChannel.ORYX, 60, 3),
+    WARNING("Warnings", EnumRank.TRIAL, DiscordChannel.ORYX, 10, 10);
+
+    private final String display;
+    private final EnumRank minRank;
+    private final DiscordChannel channel; // The staff channel alerts and summaries are sent to.
+    private final int windowSeconds;
+    private final int maxPerWindow;
+
+    /**
+     * Get the length of this category's window in milliseconds.
+     * @return windowMs
+     */
+    public long getWindowMs() {
+        return getWindowSeconds() * 1000L;
+    }
+}
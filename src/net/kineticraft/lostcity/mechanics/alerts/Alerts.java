@@ -0,0 +1,180 @@
+package net.kineticraft.lostcity.mechanics.alerts;
+
+import net.kineticraft.lostcity.Core;
+import net.kineticraft.lostcity.discord.DiscordAPI;
+import net.kineticraft.lostcity.discord.DiscordQueue;
+import net.kineticraft.lostcity.mechanics.Roster;
+import net.kineticraft.lostcity.mechanics.system.Mechanic;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+
+import java.util.*;
+
+/**
+ * Aggregates staff alerts.
+ * The first occurrence of an alert is sent right away, while repeats within the category window are counted
+ * and sent as a single summary line ("x12 in 10s") when the window closes. Each category is also rate limited,
+ * anything over the limit is held back and summarized instead of being dropped.
+ */
+public class Alerts extends Mechanic {
+
+    private static final Map<AlertCategory, Window> windows = new EnumMap<>(AlertCategory.class);
+
+    @Override
+    public void onEnable() {
+        Bukkit.getScheduler().runTaskTimer(Core.getInstance(), () -> flush(false), 20L, 20L);
+    }
+
+    @Override
+    public void onDisable() {
+        flush(true); // Don't lose anything we were holding on to.
+    }
+
+    /**
+     * Raise an alert, using the message itself to detect duplicates.
+     * @param category
+     * @param message
+     */
+    public static void alert(AlertCategory category, String message) {
+        alert(category, message, message);
+    }
+
+    /**
+     * Raise an alert. Alerts with the same key inside the category's window are collapsed into one.
+     * @param category
+     * @param key
+     * @param message
+     */
+    public static void alert(AlertCategory category, String key, String message) {
+        boolean send;
+        Window closed = null;
+        synchronized (windows) {
+            long now = System.currentTimeMillis();
+            Window window = windows.get(category);
+            if (window != null && window.isOver(now)) {
+                closed = windows.remove(category);
+                window = null;
+            }
+
+            if (window == null)
+                windows.put(category, window = new Window(category, now));
+
+            send = window.add(key, message);
+        }
+
+        if (closed != null)
+            closed.flush(); // Summarize the previous window before sending anything new.
+        if (send)
+            deliver(category, message);
+    }
+
+    /**
+     * Flush any windows that have closed.
+     * @param force - Flush every window, even if it hasn't closed yet.
+     */
+    public static void flush(boolean force) {
+        List<Window> closed = new ArrayList<>();
+        synchronized (windows) {
+            long now = System.currentTimeMillis();
+            Iterator<Window> iterator = windows.values().iterator();
+            while (iterator.hasNext()) {
+                Window window = iterator.next();
+                if (force || window.isOver(now)) {
+                    closed.add(window);
+                    iterator.remove();
+                }
+            }
+        }
+
+        closed.forEach(Window::flush);
+    }
+
+    /**
+     * Send an alert to staff, the console and the category's discord channel.
+     * @param category
+     * @param message
+     */
+    private static void deliver(AlertCategory category, String message) {
+        String colored = ChatColor.RED + message;
+        Roster.getSnapshot().forEachAtLeast(category.getMinRank(), p -> p.sendMessage(colored));
+        Bukkit.getConsoleSender().sendMessage(colored);
+
+        if (category.getChannel() != null)
+            DiscordAPI.sendMessage(category.getChannel(), ChatColor.stripColor(message), DiscordQueue.Priority.ALERT);
+    }
+
+    /**
+     * Tracks the alerts of one category over one window of time.
+     */
+    private static class Window {
+        private final AlertCategory category;
+        private final long start;
+        private final Map<String, Entry> entries = new LinkedHashMap<>();
+        private int sent;
+
+        Window(AlertCategory category, long start) {
+            this.category = category;
+            this.start = start;
+        }
+
+        boolean isOver(long now) {
+            return now - start >= category.getWindowMs();
+        }
+
+        /**
+         * Record an alert. Returns whether it should be sent right away.
+         */
+        boolean add(String key, String message) {
+            Entry entry = entries.get(key);
+            if (entry != null) { // A duplicate, count it for the summary.
+                entry.message = message;
+                entry.count++;
+                return false;
+            }
+
+            entry = new Entry(message);
+            entries.put(key, entry);
+            entry.delivered = sent < category.getMaxPerWindow();
+            if (entry.delivered)
+                sent++;
+            return entry.delivered;
+        }
+
+        /**
+         * Send summaries of everything that was collapsed or held back.
+         */
+        void flush() {
+            String suffix = " in " + category.getWindowSeconds() + "s)";
+            int lines = 0;
+            int extraAlerts = 0;
+            int extraTotal = 0;
+
+            for (Entry entry : entries.values()) {
+                if (entry.delivered && entry.count == 1)
+                    continue; // Already sent, nothing new to report.
+
+                if (lines < category.getMaxPerWindow()) {
+                    deliver(category, entry.message + ChatColor.GRAY + " (x" + entry.count + suffix);
+                    lines++;
+                } else {
+                    extraAlerts++;
+                    extraTotal += entry.count;
+                }
+            }
+
+            if (extraAlerts > 0)
+                deliver(category, "[" + category.getDisplay() + "] " + ChatColor.GRAY + extraAlerts
+                        + " more alerts (" + extraTotal + " total" + suffix);
+        }
+    }
+
+    private static class Entry {
+        private String message;
+        private int count = 1;
+        private boolean delivered;
+
+        Entry(String message) {
+            this.message = message;
+        }
+    }
+}
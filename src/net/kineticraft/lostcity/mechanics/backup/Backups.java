@@ -0,0 +1,342 @@
+package net.kineticraft.lostcity.mechanics.backup;
+
+import lombok.Getter;
+import net.kineticraft.lostcity.Core;
+import net.kineticraft.lostcity.mechanics.Async;
+import net.kineticraft.lostcity.mechanics.DataHandler;
+import net.kineticraft.lostcity.mechanics.LagGovernor;
+import net.kineticraft.lostcity.mechanics.system.Mechanic;
+import net.kineticraft.lostcity.utils.Utils;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental world backups, stored in a local content-addressed store.
+ *
+ * Each backup compares files against the last snapshot by size and modified time, and only reads those that changed.
+ * Region files are stored chunk by chunk, so a region with one edited chunk only stores that chunk.
+ * Everything is copied once with saving on, then saving is turned off just long enough to pick up what changed since.
+ */
+public class Backups extends Mechanic {
+
+    @Getter private static volatile boolean running;
+    @Getter private static volatile boolean savingOff;
+    private static Snapshot latest;
+
+    private static final String FOLDER = "backups";
+    private static final long MAX_BYTES_PER_SECOND = 32L * 1024 * 1024;
+    private static final long MIN_BYTES_PER_SECOND = 8L * 1024 * 1024;
+    private static final List<String> SKIP = Arrays.asList("session.lock", "uid.dat");
+    private static final ObjectStore store = new ObjectStore(new File(FOLDER, "objects"), MAX_BYTES_PER_SECOND);
+
+    @Override
+    public void onEnable() {
+        LagGovernor.register("Backup Speed", level -> store.setBytesPerSecond(LagGovernor.scale(
+                (int) (MAX_BYTES_PER_SECOND / 1024), (int) (MIN_BYTES_PER_SECOND / 1024)) * 1024L));
+    }
+
+    /**
+     * Take a backup of the server.
+     */
+    public static void takeBackup() {
+        if (!Bukkit.isPrimaryThread()) {
+            Bukkit.getScheduler().runTask(Core.getInstance(), Backups::takeBackup);
+            return;
+        }
+
+        if (!begin(null))
+            return;
+
+        // Work out what to back up on the main thread. Worlds which don't save (dungeons) are skipped.
+        List<File> roots = Bukkit.getWorlds().stream().filter(World::isAutoSave).map(World::getWorldFolder)
+                .collect(Collectors.toList());
+        roots.add(Core.getInstance().getDataFolder());
+        String name = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+        long start = System.currentTimeMillis();
+        Core.alertStaff("Backup '" + name + "' started.");
+
+        async(() -> {
+            store.resetStats();
+            Snapshot first = scan(name, roots, getLatest()); // Copy with saving on. This is the bulk of the work.
+            Bukkit.getScheduler().runTask(Core.getInstance(), () -> {
+                Bukkit.dispatchCommand(Bukkit.getConsoleSender(), "save-all flush");
+                Bukkit.dispatchCommand(Bukkit.getConsoleSender(), "save-off");
+                savingOff = true;
+                long offSince = System.currentTimeMillis();
+
+                async(() -> {
+                    try {
+                        DataHandler.saveAllPlayers();
+                        Snapshot last = scan(name, roots, first); // Only picks up files written since the first pass.
+                        last.save(getManifest(name));
+                        latest = last;
+
+                        long held = System.currentTimeMillis() - offSince;
+                        Core.alertStaff("Backup '" + name + "' complete in " + Utils.formatTimeFull(System.currentTimeMillis() - start)
+                                + ". Stored " + store.getObjectsWritten() + " new objects (" + formatSize(store.getBytesWritten())
+                                + "), saving was off for " + held + "ms.");
+                    } finally {
+                        Bukkit.getScheduler().runTask(Core.getInstance(), () -> {
+                            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), "save-on");
+                            savingOff = false;
+                            running = false;
+                        });
+                    }
+                }, true);
+            });
+        }, false);
+    }
+
+    /**
+     * Rebuild the files in a snapshot into backups/restore/[snapshot], to be swapped in while the server is off.
+     * @param sender
+     * @param name
+     * @param prefix - Only restore files whose path starts with this.
+     */
+    public static void restore(CommandSender sender, String name, String prefix) {
+        File manifest = getManifest(name);
+        if (!manifest.exists()) {
+            sender.sendMessage(ChatColor.RED + "Unknown backup '" + name + "'.");
+            return;
+        }
+
+        if (!begin(sender))
+            return;
+
+        sender.sendMessage(ChatColor.GOLD + "Restoring '" + name + "'...");
+        async(() -> {
+            Snapshot snapshot = Snapshot.load(manifest);
+            File output = new File(FOLDER, "restore" + File.separator + name);
+            int restored = 0;
+            for (Snapshot.FileEntry entry : snapshot.getFiles().values()) {
+                if (!entry.getPath().startsWith(prefix))
+                    continue;
+
+                File file = new File(output, entry.getPath());
+                file.getParentFile().mkdirs();
+                Files.write(file.toPath(), rebuild(entry));
+                file.setLastModified(entry.getModified());
+                restored++;
+            }
+
+            int count = restored;
+            Bukkit.getScheduler().runTask(Core.getInstance(), () -> {
+                running = false;
+                sender.sendMessage(ChatColor.GOLD + "Restored " + count + " files into " + output.getPath()
+                        + ". Stop the server before copying them over.");
+            });
+        }, false);
+    }
+
+    /**
+     * Delete all but the newest backups, and any objects only they used.
+     * @param sender
+     * @param keep - At least 1, since the newest backup is what the next one builds on.
+     */
+    public static void prune(CommandSender sender, int keep) {
+        if (keep < 1) {
+            sender.sendMessage(ChatColor.RED + "At least one backup must be kept.");
+            return;
+        }
+
+        if (!begin(sender))
+            return;
+
+        async(() -> {
+            List<File> manifests = getManifests();
+            int removed = 0;
+            for (int i = 0; i < manifests.size() - keep; i++)
+                if (manifests.get(i).delete())
+                    removed++;
+
+            Set<String> used = new HashSet<>();
+            for (File manifest : getManifests())
+                for (Snapshot.FileEntry entry : Snapshot.load(manifest).getFiles().values()) {
+                    if (entry.isRegion()) {
+                        Arrays.stream(entry.getChunks()).filter(Objects::nonNull).forEach(used::add);
+                    } else {
+                        used.add(entry.getHash());
+                    }
+                }
+
+            int removedBackups = removed;
+            int removedObjects = store.sweep(used);
+            latest = null; // Reload from disk next time.
+            Bukkit.getScheduler().runTask(Core.getInstance(), () -> {
+                running = false;
+                sender.sendMessage(ChatColor.GOLD + "Removed " + removedBackups + " backups and " + removedObjects + " unused objects.");
+            });
+        }, false);
+    }
+
+    /**
+     * Get the names of all backups, oldest first.
+     * @return names
+     */
+    public static List<String> getBackups() {
+        return getManifests().stream().map(File::getName).map(n -> n.substring(0, n.lastIndexOf('.')))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Mark a backup task as running, if nothing else is.
+     * @param sender - Told why if we can't, may be null.
+     * @return started
+     */
+    private static boolean begin(CommandSender sender) {
+        if (isRunning()) {
+            if (sender != null)
+                sender.sendMessage(ChatColor.RED + "A backup task is already running.");
+            return false;
+        }
+
+        running = true;
+        return true;
+    }
+
+    /**
+     * Run a backup task off the main thread. If it fails, staff are warned and the task is marked as done.
+     * @param task
+     * @param finishes - Does the task clear the running flag itself, even if it fails?
+     */
+    private static void async(BackupTask task, boolean finishes) {
+        Async.runIO("Backup", () -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                e.printStackTrace();
+                Core.warn("Backup task failed: " + e.getMessage());
+                if (!finishes)
+                    Bukkit.getScheduler().runTask(Core.getInstance(), () -> running = false);
+            }
+        });
+    }
+
+    /**
+     * Build a snapshot of the given folders, reusing entries from a base snapshot for files that haven't changed.
+     * @param name
+     * @param roots
+     * @param base - May be null.
+     * @return snapshot
+     */
+    private static Snapshot scan(String name, List<File> roots, Snapshot base) throws IOException {
+        Snapshot snapshot = new Snapshot(name);
+        Deque<File> queue = new ArrayDeque<>(roots);
+        while (!queue.isEmpty()) {
+            File file = queue.pop();
+            if (file.isDirectory()) {
+                File[] children = file.listFiles();
+                if (children != null)
+                    queue.addAll(Arrays.asList(children));
+                continue;
+            }
+
+            if (SKIP.contains(file.getName()) || !file.isFile())
+                continue;
+
+            String path = getPath(file);
+            long size = file.length();
+            long modified = file.lastModified();
+            Snapshot.FileEntry old = base != null ? base.get(path) : null;
+            snapshot.add(old != null && old.getSize() == size && old.getModified() == modified ? old
+                    : store(path, file, size, modified));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Store a file which has changed.
+     * @param path
+     * @param file
+     * @param size
+     * @param modified
+     * @return entry
+     */
+    private static Snapshot.FileEntry store(String path, File file, long size, long modified) throws IOException {
+        byte[] data = store.read(file);
+        byte[][] chunks = RegionFiles.isRegion(path) ? RegionFiles.split(data) : null;
+        if (chunks == null) // Not a region, or one we can't read. Store it whole.
+            return new Snapshot.FileEntry(path, size, modified, store.put(data), null, null);
+
+        String[] hashes = new String[RegionFiles.CHUNKS];
+        for (int i = 0; i < chunks.length; i++)
+            if (chunks[i] != null)
+                hashes[i] = store.put(chunks[i]);
+        return new Snapshot.FileEntry(path, size, modified, null, hashes, RegionFiles.getTimestamps(data));
+    }
+
+    /**
+     * Rebuild the contents of a backed up file.
+     * @param entry
+     * @return data
+     */
+    private static byte[] rebuild(Snapshot.FileEntry entry) throws IOException {
+        if (!entry.isRegion())
+            return store.get(entry.getHash());
+
+        byte[][] chunks = new byte[RegionFiles.CHUNKS][];
+        for (int i = 0; i < chunks.length; i++)
+            if (entry.getChunks()[i] != null)
+                chunks[i] = store.get(entry.getChunks()[i]);
+        return RegionFiles.join(chunks, entry.getTimestamps());
+    }
+
+    /**
+     * Get the newest snapshot, loading it from disk the first time.
+     * @return latest - Null if there are no backups.
+     */
+    private static Snapshot getLatest() throws IOException {
+        if (latest == null) {
+            List<File> manifests = getManifests();
+            if (!manifests.isEmpty())
+                latest = Snapshot.load(manifests.get(manifests.size() - 1));
+        }
+        return latest;
+    }
+
+    /**
+     * Get every backup manifest, oldest first. Backup names are timestamps, so they sort by name.
+     * @return manifests
+     */
+    private static List<File> getManifests() {
+        File[] files = new File(FOLDER, "snapshots").listFiles((dir, n) -> n.endsWith(".manifest"));
+        return files != null ? Arrays.stream(files).sorted(Comparator.comparing(File::getName)).collect(Collectors.toList())
+                : new ArrayList<>();
+    }
+
+    private static File getManifest(String name) {
+        return new File(FOLDER, "snapshots" + File.separator + name + ".manifest");
+    }
+
+    /**
+     * Get the path of a file relative to the server folder, with / separators.
+     * @param file
+     * @return path
+     */
+    private static String getPath(File file) {
+        return new File(".").getAbsoluteFile().toPath().normalize().relativize(file.getAbsoluteFile().toPath().normalize())
+                .toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * Format a number of bytes for display.
+     * @param bytes
+     * @return size
+     */
+    public static String formatSize(long bytes) {
+        return bytes >= 1024 * 1024 ? (bytes / (1024 * 1024)) + "MB" : (bytes / 1024) + "KB";
+    }
+
+    private interface BackupTask {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,160 @@
+package net.kineticraft.lostcity.mechanics.backup;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+
+/**
+ * A content-addressed store of backup objects. Each object is saved once, under the SHA-1 hash of its contents.
+ * All reads and writes go through a shared throttle, so a backup never saturates the disk.
+ * Not thread-safe, only one backup task uses it at a time.
+ */
+public class ObjectStore {
+
+    private final File folder;
+    @Setter private volatile long bytesPerSecond; // Changed from the main thread by the lag governor.
+    private long windowStart;
+    private long windowBytes;
+    @Getter private long bytesWritten;
+    @Getter private int objectsWritten;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    public ObjectStore(File folder, long bytesPerSecond) {
+        this.folder = folder;
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    /**
+     * Store data, if an identical object isn't already stored.
+     * @param data
+     * @return hash
+     */
+    public String put(byte[] data) throws IOException {
+        String hash = hash(data);
+        File file = getFile(hash);
+        if (file.exists())
+            return hash;
+
+        throttle(data.length);
+        file.getParentFile().mkdirs();
+        File temp = new File(file.getPath() + ".tmp");
+        Files.write(temp.toPath(), data);
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING); // Never leave a half-written object.
+        bytesWritten += data.length;
+        objectsWritten++;
+        return hash;
+    }
+
+    /**
+     * Read a stored object.
+     * @param hash
+     * @return data
+     */
+    public byte[] get(String hash) throws IOException {
+        File file = getFile(hash);
+        if (!file.exists())
+            throw new IOException("Missing backup object " + hash + ".");
+        return read(file);
+    }
+
+    /**
+     * Read a file, counting it against the throttle.
+     * @param file
+     * @return data
+     */
+    public byte[] read(File file) throws IOException {
+        throttle(file.length());
+        return Files.readAllBytes(file.toPath());
+    }
+
+    /**
+     * Delete every object which isn't in the given set.
+     * @param keep
+     * @return deleted
+     */
+    public int sweep(Set<String> keep) {
+        int deleted = 0;
+        File[] buckets = folder.listFiles(File::isDirectory);
+        if (buckets == null)
+            return 0;
+
+        for (File bucket : buckets) {
+            File[] objects = bucket.listFiles();
+            if (objects == null)
+                continue;
+
+            for (File object : objects)
+                if (!keep.contains(bucket.getName() + object.getName()) && object.delete())
+                    deleted++;
+        }
+        return deleted;
+    }
+
+    /**
+     * Reset the written counters, at the start of a backup.
+     */
+    public void resetStats() {
+        bytesWritten = 0;
+        objectsWritten = 0;
+    }
+
+    /**
+     * Get the file an object is stored in. Objects are split into folders by the first two characters of their hash.
+     * @param hash
+     * @return file
+     */
+    private File getFile(String hash) {
+        return new File(folder, hash.substring(0, 2) + File.separator + hash.substring(2));
+    }
+
+    /**
+     * Sleep if more than a second's worth of bytes have gone through in the current second.
+     * @param bytes
+     */
+    private void throttle(long bytes) {
+        long now = System.nanoTime();
+        if (now - windowStart >= 1000000000L) {
+            windowStart = now;
+            windowBytes = 0;
+        }
+
+        windowBytes += bytes;
+        if (windowBytes < bytesPerSecond)
+            return;
+
+        try {
+            Thread.sleep(Math.max(0, (1000000000L - (now - windowStart)) / 1000000L));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        windowStart = System.nanoTime();
+        windowBytes = 0;
+    }
+
+    /**
+     * Get the SHA-1 hash of some data, in hex.
+     * @param data
+     * @return hash
+     */
+    public static String hash(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(data);
+            char[] hex = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+                hex[i * 2 + 1] = HEX[digest[i] & 0xF];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e); // Every JVM has SHA-1.
+        }
+    }
+}
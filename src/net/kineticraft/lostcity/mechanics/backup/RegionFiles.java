@@ -0,0 +1,107 @@
+package net.kineticraft.lostcity.mechanics.backup;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Splits anvil region files (.mca) into their chunks and puts them back together, so a backup only has to store
+ * the chunks which changed instead of the whole region.
+ *
+ * A region file starts with 1024 location entries (3 byte sector offset, 1 byte sector count), then 1024 timestamps.
+ * Each chunk lives at its sector offset as a 4 byte length, followed by that many bytes (compression type and data).
+ */
+public class RegionFiles {
+
+    public static final int CHUNKS = 1024;
+    private static final int SECTOR = 4096;
+    private static final int HEADER_SECTORS = 2;
+
+    /**
+     * Is this file a region file?
+     * @param path
+     * @return isRegion
+     */
+    public static boolean isRegion(String path) {
+        return path.endsWith(".mca");
+    }
+
+    /**
+     * Split a region file into its chunks. Each chunk is stored as its compression type followed by its data.
+     * @param region
+     * @return chunks - Null entries are chunks which haven't been generated. Null if the region is malformed.
+     */
+    public static byte[][] split(byte[] region) {
+        if (region.length < HEADER_SECTORS * SECTOR)
+            return null;
+
+        ByteBuffer buf = ByteBuffer.wrap(region);
+        byte[][] chunks = new byte[CHUNKS][];
+        for (int i = 0; i < CHUNKS; i++) {
+            int location = buf.getInt(i * 4);
+            int offset = (location >>> 8) * SECTOR;
+            if (location == 0)
+                continue;
+
+            if (offset < HEADER_SECTORS * SECTOR || offset + 4 > region.length)
+                return null;
+
+            int length = buf.getInt(offset);
+            if (length <= 0 || offset + 4 + length > region.length)
+                return null;
+
+            chunks[i] = new byte[length];
+            System.arraycopy(region, offset + 4, chunks[i], 0, length);
+        }
+        return chunks;
+    }
+
+    /**
+     * Get the last-saved timestamp of every chunk in a region file.
+     * @param region
+     * @return timestamps
+     */
+    public static int[] getTimestamps(byte[] region) {
+        ByteBuffer buf = ByteBuffer.wrap(region);
+        int[] timestamps = new int[CHUNKS];
+        for (int i = 0; i < CHUNKS; i++)
+            timestamps[i] = buf.getInt(SECTOR + i * 4);
+        return timestamps;
+    }
+
+    /**
+     * Build a region file from its chunks, laid out one after another.
+     * @param chunks
+     * @param timestamps
+     * @return region
+     */
+    public static byte[] join(byte[][] chunks, int[] timestamps) {
+        int sectors = HEADER_SECTORS;
+        for (byte[] chunk : chunks)
+            if (chunk != null)
+                sectors += getSectors(chunk);
+
+        ByteBuffer buf = ByteBuffer.allocate(sectors * SECTOR);
+        int sector = HEADER_SECTORS;
+        for (int i = 0; i < CHUNKS; i++) {
+            buf.putInt(SECTOR + i * 4, timestamps[i]);
+            if (chunks[i] == null)
+                continue;
+
+            int count = getSectors(chunks[i]);
+            buf.putInt(i * 4, sector << 8 | Math.min(count, 255));
+            buf.putInt(sector * SECTOR, chunks[i].length);
+            buf.position(sector * SECTOR + 4);
+            buf.put(chunks[i]);
+            sector += count;
+        }
+        return buf.array();
+    }
+
+    /**
+     * Get the number of sectors a chunk takes up, including its length.
+     * @param chunk
+     * @return sectors
+     */
+    private static int getSectors(byte[] chunk) {
+        return (chunk.length + 4 + SECTOR - 1) / SECTOR;
+    }
+}
@@ -0,0 +1,139 @@
+package net.kineticraft.lostcity.mechanics.backup;
+
+import lombok.AllArgsConstructor;
+import lombok.Cleanup;
+import lombok.Getter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The manifest of a single backup. Lists every backed up file and the objects needed to rebuild it.
+ *
+ * Saved as gzipped text:
+ *  KCBACKUP 1
+ *  F size modified hash path      - A file stored as a single object.
+ *  R size modified path           - A region file, followed by its chunks:
+ *  C index timestamp hash
+ */
+@Getter
+public class Snapshot {
+
+    private final String name;
+    private final Map<String, FileEntry> files = new TreeMap<>();
+
+    private static final String HEADER = "KCBACKUP 1";
+
+    public Snapshot(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the entry for a file, if it was backed up.
+     * @param path
+     * @return entry
+     */
+    public FileEntry get(String path) {
+        return files.get(path);
+    }
+
+    /**
+     * Add a file to this snapshot.
+     * @param entry
+     */
+    public void add(FileEntry entry) {
+        files.put(entry.getPath(), entry);
+    }
+
+    /**
+     * Get the total size of every file in this snapshot.
+     * @return size
+     */
+    public long getSize() {
+        return files.values().stream().mapToLong(FileEntry::getSize).sum();
+    }
+
+    /**
+     * Save this manifest to a file.
+     * @param file
+     */
+    public void save(File file) throws IOException {
+        file.getParentFile().mkdirs();
+        File temp = new File(file.getPath() + ".tmp");
+        try (PrintWriter out = new PrintWriter(new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(temp)),
+                StandardCharsets.UTF_8))) {
+            out.println(HEADER);
+            for (FileEntry e : files.values()) {
+                if (!e.isRegion()) {
+                    out.println("F " + e.getSize() + " " + e.getModified() + " " + e.getHash() + " " + e.getPath());
+                    continue;
+                }
+
+                out.println("R " + e.getSize() + " " + e.getModified() + " " + e.getPath());
+                for (int i = 0; i < RegionFiles.CHUNKS; i++)
+                    if (e.getChunks()[i] != null)
+                        out.println("C " + i + " " + e.getTimestamps()[i] + " " + e.getChunks()[i]);
+            }
+        }
+
+        if (!temp.renameTo(file))
+            throw new IOException("Could not save backup manifest " + file.getName() + ".");
+    }
+
+    /**
+     * Load a manifest from a file.
+     * @param file
+     * @return snapshot
+     */
+    public static Snapshot load(File file) throws IOException {
+        String name = file.getName().substring(0, file.getName().lastIndexOf('.'));
+        Snapshot snapshot = new Snapshot(name);
+        @Cleanup BufferedReader in = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(file)),
+                StandardCharsets.UTF_8));
+
+        if (!HEADER.equals(in.readLine()))
+            throw new IOException(file.getName() + " is not a backup manifest.");
+
+        FileEntry region = null;
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] split = line.split(" ", line.startsWith("F") ? 5 : 4);
+            if (split[0].equals("F")) {
+                snapshot.add(new FileEntry(split[4], Long.parseLong(split[1]), Long.parseLong(split[2]), split[3], null, null));
+            } else if (split[0].equals("R")) {
+                region = new FileEntry(split[3], Long.parseLong(split[1]), Long.parseLong(split[2]), null,
+                        new String[RegionFiles.CHUNKS], new int[RegionFiles.CHUNKS]);
+                snapshot.add(region);
+            } else if (split[0].equals("C") && region != null) {
+                int index = Integer.parseInt(split[1]);
+                region.getTimestamps()[index] = Integer.parseInt(split[2]);
+                region.getChunks()[index] = split[3];
+            } else {
+                throw new IOException("Bad line in " + file.getName() + ": " + line);
+            }
+        }
+        return snapshot;
+    }
+
+    @AllArgsConstructor @Getter
+    public static class FileEntry {
+        private final String path; // Relative to the server folder, with / separators.
+        private final long size;
+        private final long modified;
+        private final String hash; // Null for region files.
+        private final String[] chunks; // Region files only. The hash of each chunk, null if not generated.
+        private final int[] timestamps; // Region files only.
+
+        /**
+         * Is this entry stored chunk by chunk?
+         * @return isRegion
+         */
+        public boolean isRegion() {
+            return chunks != null;
+        }
+    }
+}
@@ -15,6 +15,9 @@ import net.kineticraft.lostcity.events.MechanicRegisterEvent;
 import net.kineticraft.lostcity.guis.GUIManager;
 import net.kineticraft.lostcity.item.Items;
 import net.kineticraft.lostcity.mechanics.*;
+import net.kineticraft.lostcity.mechanics.alerts.Alerts;
+import net.kineticraft.lostcity.mechanics.backup.Backups;
+import net.kineticraft.lostcity.mechanics.trace.Traces;
 import net.kineticraft.lostcity.mechanics.enchants.Enchants;
 import net.kineticraft.lostcity.mechanics.metadata.Metadata;
 import net.kineticraft.lostcity.mechanics.metadata.MetadataManager;
@@ -48,7 +51,14 @@ public class MechanicManager implements Listener {
      */
     private static void registerDefault() {
         addMechanic(Configs.class);
+        addMechanic(TickClock.class);
+        addMechanic(LagGovernor.class);
+        addMechanic(Timers.class);
+        addMechanic(WorkQueue.class);
+        addMechanic(Sessions.class);
         addMechanic(DataHandler.class);
+        addMechanic(Roster.class);
+        addMechanic(Alerts.class);
         addMechanic(Punishments.class);
         addMechanic(Callbacks.class);
         addMechanic(Toggles.class);
@@ -58,6 +68,9 @@ public class MechanicManager implements Listener {
         addMechanic(DiscordAPI.class);
         addMechanic(Restrictions.class);
         addMechanic(ServerManager.class);
+        addMechanic(ChunkHousekeeper.class);
+        addMechanic(RandomTeleports.class);
+        addMechanic(Backups.class);
         addMechanic(GeneralMechanics.class);
         addMechanic(Vanish.class);
         addMechanic(GUIManager.class);
@@ -76,6 +89,8 @@ public class MechanicManager implements Listener {
         addMechanic(Parties.class);
         addMechanic(AFK.class);
         addMechanic(MetadataManager.class);
+        addMechanic(Traces.class);
+        addMechanic(Async.class); // Last, so it's disabled after everything which may still queue work.
     }
 
     /**
@@ -6,7 +6,10 @@ import net.kineticraft.lostcity.data.JsonData;
 import net.kineticraft.lostcity.data.Jsonable;
 import net.kineticraft.lostcity.data.maps.JsonMap;
 import net.kineticraft.lostcity.data.reflect.JsonSerializer;
+import net.kineticraft.lostcity.mechanics.WorkQueue;
 import net.kineticraft.lostcity.utils.Utils;
+import net.kineticraft.lostcity.utils.tasks.Job;
+import net.kineticraft.lostcity.utils.tasks.Job.Priority;
 import org.bukkit.Bukkit;
 
 import java.io.File;
@@ -52,11 +55,16 @@ public class ModularMechanic<T extends Jsonable> extends Mechanic {
     }
 
     /**
-     * Save all module data to disk.
+     * Save all module data to disk, one module per step of a job.
+     * @return job
      */
-    public void save() {
+    public Job save() {
         Core.makeFolder(getDirectory());
-        getMap().keySet().forEach(f -> new JsonData(getModule(f)).toFile(getDirectory() + "/" + Utils.sanitizeFileName(f)));
+        return WorkQueue.forEach("Save " + getDirectory(), Priority.LOW, getMap().keySet(), f -> {
+            T module = getModule(f);
+            if (module != null) // Removed since the save was queued.
+                new JsonData(module).toFile(getDirectory() + "/" + Utils.sanitizeFileName(f));
+        });
     }
 
     /**
@@ -0,0 +1,81 @@
+package net.kineticraft.lostcity.mechanics.trace;
+
+import net.kineticraft.lostcity.EnumRank;
+import net.kineticraft.lostcity.commands.StaffCommand;
+import net.kineticraft.lostcity.utils.Utils;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Record and replay event traces.
+ */
+public class CommandTrace extends StaffCommand {
+
+    public CommandTrace() {
+        super(EnumRank.ADMIN, "<start|stop|replay> [name] [types...]", "Record or replay an event trace.", "trace");
+    }
+
+    @Override
+    protected void onCommand(CommandSender sender, String[] args) {
+        String action = args[0].toLowerCase();
+        if (action.equals("stop")) {
+            if (!Traces.isRecording()) {
+                sender.sendMessage(ChatColor.RED + "No trace is being recorded.");
+                return;
+            }
+
+            sender.sendMessage(ChatColor.GOLD + "Recorded " + Traces.stop() + " events.");
+            return;
+        }
+
+        if (args.length < 2) {
+            showUsage(sender);
+            return;
+        }
+
+        if (!Traces.isValidName(args[1])) {
+            sender.sendMessage(ChatColor.RED + "Trace names may not contain slashes or '..'.");
+            return;
+        }
+
+        File file = Traces.getFile(args[1]);
+        if (action.equals("replay")) {
+            if (!file.exists()) {
+                sender.sendMessage(ChatColor.RED + "Unknown trace '" + args[1] + "'.");
+                return;
+            }
+
+            TraceReplay.replay(sender, file);
+        } else if (action.equals("start")) {
+            Set<TraceType> types = EnumSet.allOf(TraceType.class);
+            if (args.length > 2) {
+                types.clear();
+                for (String type : Arrays.copyOfRange(args, 2, args.length)) {
+                    TraceType t = Utils.getEnum(type.toUpperCase(), TraceType.class);
+                    if (t == null) {
+                        sender.sendMessage(ChatColor.RED + "Unknown event type '" + type + "'. Options: "
+                                + Arrays.toString(TraceType.values()));
+                        return;
+                    }
+                    types.add(t);
+                }
+            }
+
+            try {
+                Traces.start(args[1], types);
+                sender.sendMessage(ChatColor.GOLD + "Recording " + types + " to " + file.getName() + ".");
+            } catch (IOException e) {
+                e.printStackTrace();
+                sender.sendMessage(ChatColor.RED + "Failed to start trace: " + e.getMessage());
+            }
+        } else {
+            showUsage(sender);
+        }
+    }
+}
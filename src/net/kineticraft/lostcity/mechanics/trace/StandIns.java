@@ -0,0 +1,255 @@
+package net.kineticraft.lostcity.mechanics.trace;
+
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.util.Vector;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Stand-ins for the players, blocks and entities in a trace, so replayed events can go through the real handlers.
+ * Anything a stand-in isn't told about answers with an empty value, and anything it's asked to do is ignored,
+ * so a replay can't message, teleport or change anything.
+ */
+public class StandIns {
+
+    /**
+     * Make a stand-in for a recorded player. It reports as online until removed.
+     * @param uuid
+     * @param name
+     * @param alerts - Receives the alerts detectors raise about this player.
+     * @return player
+     */
+    public static Player player(UUID uuid, String name, Consumer<String> alerts) {
+        return make(Player.class, new PlayerStandIn(uuid, name, alerts));
+    }
+
+    /**
+     * Make a stand-in for a real block, as it was when recorded. Reads come from the world, changes are ignored.
+     * @param block
+     * @param type
+     * @return block
+     */
+    public static Block block(Block block, Material type) {
+        return make(Block.class, new BlockStandIn(block, type));
+    }
+
+    /**
+     * Make a stand-in for a spawning entity.
+     * @param type
+     * @param loc
+     * @return entity
+     */
+    public static LivingEntity entity(EntityType type, Location loc) {
+        return make(LivingEntity.class, new EntityStandIn(type, loc));
+    }
+
+    /**
+     * Is this player a stand-in?
+     * @param player
+     * @return standIn
+     */
+    public static boolean isStandIn(Player player) {
+        return Proxy.isProxyClass(player.getClass()) && Proxy.getInvocationHandler(player) instanceof PlayerStandIn;
+    }
+
+    /**
+     * Pass an alert about a stand-in to whoever is replaying it.
+     * @param player
+     * @param alert
+     */
+    public static void alert(Player player, String alert) {
+        ((PlayerStandIn) Proxy.getInvocationHandler(player)).alerts.accept(alert);
+    }
+
+    /**
+     * Move a stand-in player.
+     * @param player
+     * @param loc
+     */
+    public static void move(Player player, Location loc) {
+        ((PlayerStandIn) Proxy.getInvocationHandler(player)).location = loc.clone();
+    }
+
+    /**
+     * Take a stand-in player offline, so anything still holding it lets it go.
+     * @param player
+     */
+    public static void remove(Player player) {
+        ((PlayerStandIn) Proxy.getInvocationHandler(player)).online = false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T make(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    /**
+     * Get the value a stand-in answers with when it doesn't know better.
+     * @param type
+     * @return value
+     */
+    private static Object getDefault(Class<?> type) {
+        if (type == void.class)
+            return null;
+        if (type.isPrimitive())
+            return Array.get(Array.newInstance(type, 1), 0);
+        if (type == List.class || type == Collection.class)
+            return new ArrayList<>();
+        if (type == Set.class)
+            return new HashSet<>();
+        if (type == Map.class)
+            return new HashMap<>();
+        return null;
+    }
+
+    private static abstract class StandIn implements InvocationHandler {
+        protected Location location;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getWorld":
+                    return location != null ? location.getWorld() : null;
+                case "getLocation":
+                    if (location == null || args == null)
+                        return location != null ? location.clone() : null;
+
+                    Location loc = (Location) args[0];
+                    loc.setWorld(location.getWorld());
+                    loc.setX(location.getX());
+                    loc.setY(location.getY());
+                    loc.setZ(location.getZ());
+                    return loc;
+            }
+
+            Object answer = answer(method, args);
+            return answer != null ? answer : getDefault(method.getReturnType());
+        }
+
+        /**
+         * Answer a call which isn't common to all stand-ins.
+         * @return answer - Null for the default.
+         */
+        protected abstract Object answer(Method method, Object[] args) throws Throwable;
+    }
+
+    private static class PlayerStandIn extends StandIn {
+        private final UUID uuid;
+        private final String name;
+        private final Consumer<String> alerts;
+        private boolean online = true;
+
+        PlayerStandIn(UUID uuid, String name, Consumer<String> alerts) {
+            this.uuid = uuid;
+            this.name = name;
+            this.alerts = alerts;
+        }
+
+        @Override
+        protected Object answer(Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return uuid;
+                case "getName":
+                case "getDisplayName":
+                case "getPlayerListName":
+                case "toString":
+                    return name;
+                case "getType":
+                    return EntityType.PLAYER;
+                case "getGameMode":
+                    return GameMode.SURVIVAL;
+                case "getVelocity":
+                    return new Vector();
+                case "isOnline":
+                case "isValid":
+                    return online;
+                case "hasPlayedBefore":
+                    return true;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    private static class BlockStandIn extends StandIn {
+        private final Block block;
+        private final Material type;
+
+        BlockStandIn(Block block, Material type) {
+            this.block = block;
+            this.type = type;
+            this.location = block.getLocation();
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        protected Object answer(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "getType":
+                    return type;
+                case "getTypeId":
+                    return type.getId();
+                case "isEmpty":
+                    return type == Material.AIR;
+                case "isLiquid":
+                    return type == Material.WATER || type == Material.STATIONARY_WATER
+                            || type == Material.LAVA || type == Material.STATIONARY_LAVA;
+                case "toString":
+                    return "StandIn" + block;
+            }
+
+            if (!name.startsWith("get") && !name.startsWith("is") && !name.startsWith("has"))
+                return null; // Don't change the real block.
+
+            try {
+                return method.invoke(block, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static class EntityStandIn extends StandIn {
+        private final EntityType type;
+        private final UUID uuid = UUID.randomUUID();
+
+        EntityStandIn(EntityType type, Location loc) {
+            this.type = type;
+            this.location = loc.clone();
+        }
+
+        @Override
+        protected Object answer(Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getType":
+                    return type;
+                case "getUniqueId":
+                    return uuid;
+                case "isValid":
+                    return true;
+                case "toString":
+                    return "StandIn" + type;
+                default:
+                    return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package net.kineticraft.lostcity.mechanics.trace;
+
+import lombok.Getter;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Reads a trace file written by TraceWriter.
+ */
+public class TraceReader implements Closeable {
+
+    private final DataInputStream in;
+    private final List<UUID> players = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<String> strings = new ArrayList<>();
+    @Getter private final long startTime;
+    private int tick;
+
+    public TraceReader(File file) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        if (in.readInt() != TraceWriter.MAGIC)
+            throw new IOException(file.getName() + " is not a trace file.");
+        int version = in.readUnsignedByte();
+        if (version != TraceWriter.VERSION)
+            throw new IOException("Unsupported trace version " + version + ".");
+        this.startTime = in.readLong();
+    }
+
+    /**
+     * Read the next record.
+     * @return record, or null at the end of the trace.
+     */
+    public TraceRecord next() throws IOException {
+        while (true) {
+            int type;
+            try {
+                type = in.readUnsignedByte();
+            } catch (EOFException eof) {
+                return null;
+            }
+
+            if (type == TraceWriter.PLAYER_ENTRY) {
+                readVarInt();
+                players.add(new UUID(in.readLong(), in.readLong()));
+                names.add(in.readUTF());
+                continue;
+            }
+
+            if (type == TraceWriter.STRING_ENTRY) {
+                readVarInt();
+                strings.add(in.readUTF());
+                continue;
+            }
+
+            TraceRecord record = new TraceRecord();
+            record.setType(TraceType.values()[type]);
+            tick += readVarInt();
+            record.setTick(tick);
+            int playerId = readVarInt();
+            if (playerId > 0) {
+                record.setPlayer(players.get(playerId - 1));
+                record.setPlayerName(names.get(playerId - 1));
+            }
+
+            switch (record.getType()) {
+                case MOVE:
+                    record.setWorld(readString());
+                    record.setX(in.readFloat());
+                    record.setY(in.readFloat());
+                    record.setZ(in.readFloat());
+                    record.setToX(in.readFloat());
+                    record.setToY(in.readFloat());
+                    record.setToZ(in.readFloat());
+                    break;
+                case BLOCK_BREAK:
+                    record.setWorld(readString());
+                    readBlock(record);
+                    record.setMaterial(readString());
+                    break;
+                case INTERACT:
+                    record.setMaterial(readString());
+                    record.setAction(readString());
+                    record.setClickedBlock(in.readBoolean());
+                    if (record.isClickedBlock()) {
+                        record.setWorld(readString());
+                        readBlock(record);
+                    }
+                    break;
+                case SPAWN:
+                    record.setWorld(readString());
+                    record.setX(in.readFloat());
+                    record.setY(in.readFloat());
+                    record.setZ(in.readFloat());
+                    record.setEntity(readString());
+                    record.setReason(readString());
+                    break;
+                case CHAT:
+                case COMMAND:
+                    record.setText(in.readUTF());
+                    break;
+            }
+            return record;
+        }
+    }
+
+    /**
+     * Read every remaining record.
+     * @return records
+     */
+    public List<TraceRecord> readAll() throws IOException {
+        List<TraceRecord> records = new ArrayList<>();
+        TraceRecord record;
+        while ((record = next()) != null)
+            records.add(record);
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String readString() throws IOException {
+        int id = readVarInt();
+        return id > 0 ? strings.get(id - 1) : null;
+    }
+
+    private void readBlock(TraceRecord record) throws IOException {
+        record.setX(in.readInt());
+        record.setY(in.readShort());
+        record.setZ(in.readInt());
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,30 @@
+package net.kineticraft.lostcity.mechanics.trace;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * A single recorded event. Which fields are used depends on the type.
+ */
+@Getter @Setter
+public class TraceRecord {
+    private TraceType type;
+    private int tick;
+    private UUID player; // Null for SPAWN.
+    private String playerName;
+    private String world;
+    private double x;
+    private double y;
+    private double z;
+    private double toX; // MOVE only.
+    private double toY;
+    private double toZ;
+    private String material; // Material name, the block broken or the item used. Null if nothing was used.
+    private String action; // Action name for INTERACT.
+    private boolean clickedBlock; // INTERACT only, whether the position fields hold the block clicked.
+    private String entity; // EntityType name for SPAWN.
+    private String reason; // SpawnReason name for SPAWN.
+    private String text; // CHAT and COMMAND.
+}
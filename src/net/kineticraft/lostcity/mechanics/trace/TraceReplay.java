@@ -0,0 +1,283 @@
+package net.kineticraft.lostcity.mechanics.trace;
+
+import net.kineticraft.lostcity.Core;
+import net.kineticraft.lostcity.commands.Command;
+import net.kineticraft.lostcity.commands.CommandType;
+import net.kineticraft.lostcity.commands.Commands;
+import net.kineticraft.lostcity.commands.args.ArgException;
+import net.kineticraft.lostcity.crake.Crake;
+import net.kineticraft.lostcity.crake.detectors.misc.Xray;
+import net.kineticraft.lostcity.crake.detectors.movement.Flight;
+import net.kineticraft.lostcity.data.KCPlayer;
+import net.kineticraft.lostcity.events.PlayerChangeRegionEvent;
+import net.kineticraft.lostcity.mechanics.Async;
+import net.kineticraft.lostcity.mechanics.Chat;
+import net.kineticraft.lostcity.mechanics.FarmLimiter;
+import net.kineticraft.lostcity.mechanics.GeneralMechanics;
+import net.kineticraft.lostcity.mechanics.system.MechanicManager;
+import net.kineticraft.lostcity.utils.TextUtils;
+import net.kineticraft.lostcity.utils.Utils;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.entity.CreatureSpawnEvent;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.File;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Feeds a recorded trace back through the server's handlers, and reports how long each kind of event took.
+ * Replay runs on the main thread a slice at a time, so handlers which read the world behave as they do live.
+ * Recorded players, blocks and entities are replaced with StandIns, and detections about them are reported here
+ * instead of alerting staff.
+ */
+public class TraceReplay {
+
+    private static final int PER_TICK = 2000; // Records replayed per tick.
+
+    private final CommandSender sender;
+    private final List<TraceRecord> records;
+    private final Map<TraceType, Consumer<TraceRecord>> handlers = new EnumMap<>(TraceType.class);
+    private final Map<TraceType, long[]> timings = new EnumMap<>(TraceType.class);
+    private final Map<TraceType, Integer> counts = new EnumMap<>(TraceType.class);
+    private final Map<UUID, Player> players = new HashMap<>();
+    private final Set<UUID> moved = new HashSet<>(); // Players with recorded moves, so their location is known.
+    private final List<String> alerts = Collections.synchronizedList(new ArrayList<>()); // Raised on the analysis thread.
+    private final Flight flight = (Flight) Crake.getDetector("flight");
+    private final Xray xray = (Xray) Crake.getDetector("xray");
+    private final Chat chat = MechanicManager.getInstance(Chat.class);
+    private final GeneralMechanics general = MechanicManager.getInstance(GeneralMechanics.class);
+    private final FarmLimiter farmLimiter = MechanicManager.getInstance(FarmLimiter.class);
+    private int spawnsLimited;
+    private int index;
+    private long wallStart;
+
+    private TraceReplay(CommandSender sender, List<TraceRecord> records) {
+        this.sender = sender;
+        this.records = records;
+
+        handlers.put(TraceType.MOVE, this::replayMove);
+        handlers.put(TraceType.CHAT, this::replayChat);
+        handlers.put(TraceType.BLOCK_BREAK, this::replayBreak);
+        handlers.put(TraceType.INTERACT, this::replayInteract);
+        handlers.put(TraceType.COMMAND, this::replayCommand);
+        handlers.put(TraceType.SPAWN, this::replaySpawn);
+    }
+
+    /**
+     * Load a trace asynchronously, then replay it.
+     * @param sender - Who to report results to.
+     * @param file
+     */
+    public static void replay(CommandSender sender, File file) {
+        Async.supplyIO("Trace Load", () -> {
+            try (TraceReader reader = new TraceReader(file)) {
+                return reader.readAll();
+            }
+        }).thenSync(records -> new TraceReplay(sender, records).start())
+                .failSync(e -> sender.sendMessage(ChatColor.RED + "Failed to read trace: " + e.getMessage()));
+    }
+
+    private void start() {
+        sender.sendMessage(ChatColor.GOLD + "Replaying " + records.size() + " records...");
+        wallStart = System.currentTimeMillis();
+        Bukkit.getScheduler().runTask(Core.getInstance(), this::replaySlice);
+    }
+
+    private void replaySlice() {
+        int end = Math.min(records.size(), index + PER_TICK);
+        for (; index < end; index++) {
+            TraceRecord record = records.get(index);
+            if (record.getType() == TraceType.MOVE)
+                moved.add(record.getPlayer());
+            Consumer<TraceRecord> handler = handlers.get(record.getType());
+            long start = System.nanoTime();
+            if (handler != null)
+                handler.accept(record);
+            time(record.getType(), System.nanoTime() - start);
+        }
+
+        if (index < records.size()) {
+            Bukkit.getScheduler().runTask(Core.getInstance(), this::replaySlice);
+        } else {
+            Bukkit.getScheduler().runTaskLater(Core.getInstance(), this::finish, 20L); // Let the analysis thread catch up.
+        }
+    }
+
+    /**
+     * Report the results, then forget the stand-ins.
+     */
+    private void finish() {
+        report();
+        Crake crake = MechanicManager.getInstance(Crake.class);
+        players.values().stream().filter(p -> Bukkit.getPlayer(p.getUniqueId()) == null).forEach(p -> {
+            crake.onQuit(p); // Drop their movement contexts, queued checks and detector state.
+            StandIns.remove(p);
+        });
+    }
+
+    private void time(TraceType type, long nanos) {
+        int count = counts.getOrDefault(type, 0);
+        long[] times = timings.computeIfAbsent(type, t -> new long[64]);
+        if (count == times.length)
+            timings.put(type, times = Arrays.copyOf(times, count * 2));
+        times[count] = nanos;
+        counts.put(type, count + 1);
+    }
+
+    private void report() {
+        long wall = System.currentTimeMillis() - wallStart;
+        long total = 0;
+        sender.sendMessage(ChatColor.GOLD + "Replay Results: " + ChatColor.GRAY + "(p50 / p95 / p99 / max µs)");
+        for (TraceType type : TraceType.values()) {
+            int count = counts.getOrDefault(type, 0);
+            if (count == 0)
+                continue;
+
+            long[] times = Arrays.copyOf(timings.get(type), count);
+            Arrays.sort(times);
+            long sum = Arrays.stream(times).sum();
+            total += sum;
+            sender.sendMessage(" - " + ChatColor.YELLOW + type.name() + ChatColor.GRAY + " x" + count + ": "
+                    + micros(percentile(times, 50)) + " / " + micros(percentile(times, 95)) + " / "
+                    + micros(percentile(times, 99)) + " / " + micros(times[count - 1])
+                    + (handlers.containsKey(type) ? "" : " (no handler)"));
+        }
+
+        sender.sendMessage(ChatColor.GOLD + "Detections: " + ChatColor.YELLOW + alerts.size()
+                + ChatColor.GOLD + ", spawns stopped by farm limits: " + ChatColor.YELLOW + spawnsLimited);
+        synchronized (alerts) {
+            alerts.stream().limit(10).forEach(alert -> sender.sendMessage(" - " + ChatColor.GRAY + alert));
+        }
+
+        double seconds = Math.max(1, total) / 1e9;
+        sender.sendMessage(ChatColor.GOLD + "Throughput: " + ChatColor.YELLOW + (int) (records.size() / seconds)
+                + ChatColor.GOLD + " records/s of handler time, " + ChatColor.YELLOW + wall + "ms" + ChatColor.GOLD + " wall.");
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        return sorted[Math.min(sorted.length - 1, (sorted.length * percent) / 100)];
+    }
+
+    private static String micros(long nanos) {
+        return String.valueOf(TextUtils.toFixed(nanos / 1000D, 1));
+    }
+
+    /**
+     * Get the stand-in for a record's player. Players without saved data are skipped, handlers expect it.
+     * @param record
+     * @return player
+     */
+    private Player getPlayer(TraceRecord record) {
+        if (record.getPlayer() == null || KCPlayer.getWrapper(record.getPlayer()) == null)
+            return null;
+
+        return players.computeIfAbsent(record.getPlayer(), u -> StandIns.player(u, record.getPlayerName(),
+                alert -> alerts.add(ChatColor.stripColor(alert))));
+    }
+
+    private Location getLocation(TraceRecord record, double x, double y, double z) {
+        World world = Bukkit.getWorld(record.getWorld());
+        return world != null ? new Location(world, x, y, z) : null;
+    }
+
+    private static <E extends Enum<E>> E getEnum(String name, Class<E> type) {
+        return name != null ? Utils.getEnum(name, type) : null;
+    }
+
+    // Crake flight checks, water breathing and region lookups.
+    private void replayMove(TraceRecord record) {
+        Player player = getPlayer(record);
+        Location from = getLocation(record, record.getX(), record.getY(), record.getZ());
+        Location to = getLocation(record, record.getToX(), record.getToY(), record.getToZ());
+        if (player == null || from == null)
+            return;
+
+        StandIns.move(player, from);
+        PlayerMoveEvent evt = new PlayerMoveEvent(player, from, to);
+        flight.onMove(evt);
+        general.onWaterTraverse(evt);
+        new PlayerChangeRegionEvent(evt); // Worked out like GeneralMechanics does, but not fired. It could start a real dungeon.
+        StandIns.move(player, to);
+    }
+
+    // Chat mutes and filters.
+    private void replayChat(TraceRecord record) {
+        Player player = getPlayer(record);
+        if (player == null)
+            return;
+
+        AsyncPlayerChatEvent evt = new AsyncPlayerChatEvent(false, player, record.getText(), new HashSet<>());
+        chat.onChat(evt);
+        chat.idiotMode(evt);
+    }
+
+    // Crake xray checks, against the block as it was when mined.
+    private void replayBreak(TraceRecord record) {
+        Player player = getPlayer(record);
+        Location loc = getLocation(record, record.getX(), record.getY(), record.getZ());
+        Material type = getEnum(record.getMaterial(), Material.class);
+        if (player == null || loc == null || type == null)
+            return;
+
+        if (!moved.contains(record.getPlayer())) // Without recorded moves, assume they mined it from right beside it.
+            StandIns.move(player, loc.clone().add(.5, 0, .5));
+        xray.onBlockBreak(new BlockBreakEvent(StandIns.block(loc.getBlock(), type), player));
+    }
+
+    // Dragon egg pickups. The clicked block is a stand-in, so the egg stays put.
+    private void replayInteract(TraceRecord record) {
+        Player player = getPlayer(record);
+        Action action = getEnum(record.getAction(), Action.class);
+        if (player == null || action == null)
+            return;
+
+        Material item = getEnum(record.getMaterial(), Material.class);
+        Location loc = record.isClickedBlock() ? getLocation(record, record.getX(), record.getY(), record.getZ()) : null;
+        Block clicked = loc != null ? StandIns.block(loc.getBlock(), loc.getBlock().getType()) : null;
+        general.onEggPunch(new PlayerInteractEvent(player, action, item != null ? new ItemStack(item) : null, clicked, BlockFace.SELF));
+    }
+
+    // Chicken farm limits.
+    private void replaySpawn(TraceRecord record) {
+        Location loc = getLocation(record, record.getX(), record.getY(), record.getZ());
+        EntityType type = getEnum(record.getEntity(), EntityType.class);
+        SpawnReason reason = getEnum(record.getReason(), SpawnReason.class);
+        if (loc == null || type == null || reason == null)
+            return;
+
+        CreatureSpawnEvent evt = new CreatureSpawnEvent(StandIns.entity(type, loc), reason);
+        farmLimiter.onChickenSpawn(evt);
+        if (evt.isCancelled())
+            spawnsLimited++;
+    }
+
+    // Command lookup and argument parsing, without running the command.
+    private void replayCommand(TraceRecord record) {
+        String[] split = record.getText().substring(1).split(" ");
+        Command command = Commands.getCommand(CommandType.SLASH, split[0]);
+        if (command == null)
+            return;
+
+        try {
+            command.getSchema().parse(Bukkit.getConsoleSender(), Arrays.copyOfRange(split, 1, split.length));
+        } catch (ArgException e) {
+            // Players who were online while recording usually aren't now.
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package net.kineticraft.lostcity.mechanics.trace;
+
+/**
+ * The kinds of events which can be recorded into a trace.
+ */
+public enum TraceType {
+    MOVE,
+    CHAT,
+    BLOCK_BREAK,
+    INTERACT,
+    COMMAND,
+    SPAWN
+}
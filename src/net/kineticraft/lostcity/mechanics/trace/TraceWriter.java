@@ -0,0 +1,169 @@
+package net.kineticraft.lostcity.mechanics.trace;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes records to a compact binary trace file.
+ * Records are buffered in memory by whichever thread fires the event, and written to disk by flush.
+ *
+ * Format: magic, version, start time, then a stream of records. Each record is a type byte, the tick delta since the
+ * previous record and a player id (0 for none), then its fields. Players are written once, the first time they're seen.
+ * Worlds and enum constants are written by name into a string table the same way, so traces survive enum changes.
+ */
+public class TraceWriter implements Closeable {
+
+    public static final int MAGIC = 0x4B435452; // KCTR
+    public static final int VERSION = 2;
+    public static final int PLAYER_ENTRY = 255;
+    public static final int STRING_ENTRY = 254;
+
+    private final OutputStream file;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(buffer);
+    private final Map<UUID, Integer> players = new HashMap<>();
+    private final Map<String, Integer> strings = new HashMap<>();
+    private int lastTick = -1;
+    private int records;
+
+    public TraceWriter(File file) throws IOException {
+        this.file = new BufferedOutputStream(new FileOutputStream(file));
+        DataOutputStream header = new DataOutputStream(this.file);
+        header.writeInt(MAGIC);
+        header.writeByte(VERSION);
+        header.writeLong(System.currentTimeMillis());
+    }
+
+    /**
+     * Write a record.
+     * @param record
+     */
+    public synchronized void write(TraceRecord record) throws IOException {
+        int playerId = getPlayerId(record);
+        int worldId = getStringId(record.getWorld());
+
+        out.writeByte(record.getType().ordinal());
+        writeVarInt(lastTick < 0 ? 0 : Math.max(0, record.getTick() - lastTick));
+        lastTick = record.getTick();
+        writeVarInt(playerId);
+
+        switch (record.getType()) {
+            case MOVE:
+                writeVarInt(worldId);
+                out.writeFloat((float) record.getX());
+                out.writeFloat((float) record.getY());
+                out.writeFloat((float) record.getZ());
+                out.writeFloat((float) record.getToX());
+                out.writeFloat((float) record.getToY());
+                out.writeFloat((float) record.getToZ());
+                break;
+            case BLOCK_BREAK:
+                writeVarInt(worldId);
+                writeBlock(record);
+                writeVarInt(getStringId(record.getMaterial()));
+                break;
+            case INTERACT:
+                writeVarInt(getStringId(record.getMaterial()));
+                writeVarInt(getStringId(record.getAction()));
+                out.writeBoolean(record.isClickedBlock());
+                if (record.isClickedBlock()) {
+                    writeVarInt(worldId);
+                    writeBlock(record);
+                }
+                break;
+            case SPAWN:
+                writeVarInt(worldId);
+                out.writeFloat((float) record.getX());
+                out.writeFloat((float) record.getY());
+                out.writeFloat((float) record.getZ());
+                writeVarInt(getStringId(record.getEntity()));
+                writeVarInt(getStringId(record.getReason()));
+                break;
+            case CHAT:
+            case COMMAND:
+                out.writeUTF(record.getText());
+                break;
+        }
+        records++;
+    }
+
+    /**
+     * Write anything buffered to disk. Safe to call from an async thread.
+     */
+    public void flush() throws IOException {
+        byte[] data;
+        synchronized (this) {
+            data = buffer.toByteArray();
+            buffer.reset();
+        }
+
+        synchronized (file) {
+            file.write(data);
+            file.flush();
+        }
+    }
+
+    /**
+     * Get the number of records written.
+     * @return records
+     */
+    public synchronized int getRecords() {
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        synchronized (file) {
+            file.close();
+        }
+    }
+
+    private int getPlayerId(TraceRecord record) throws IOException {
+        if (record.getPlayer() == null)
+            return 0;
+
+        Integer id = players.get(record.getPlayer());
+        if (id == null) {
+            id = players.size() + 1;
+            players.put(record.getPlayer(), id);
+            out.writeByte(PLAYER_ENTRY);
+            writeVarInt(id);
+            out.writeLong(record.getPlayer().getMostSignificantBits());
+            out.writeLong(record.getPlayer().getLeastSignificantBits());
+            out.writeUTF(record.getPlayerName());
+        }
+        return id;
+    }
+
+    private int getStringId(String value) throws IOException {
+        if (value == null)
+            return 0;
+
+        Integer id = strings.get(value);
+        if (id == null) {
+            id = strings.size() + 1;
+            strings.put(value, id);
+            out.writeByte(STRING_ENTRY);
+            writeVarInt(id);
+            out.writeUTF(value);
+        }
+        return id;
+    }
+
+    private void writeBlock(TraceRecord record) throws IOException {
+        out.writeInt((int) Math.floor(record.getX()));
+        out.writeShort((int) Math.floor(record.getY()));
+        out.writeInt((int) Math.floor(record.getZ()));
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+}
@@ -0,0 +1,236 @@
+package net.kineticraft.lostcity.mechanics.trace;
+
+import lombok.Getter;
+import net.kineticraft.lostcity.Core;
+import net.kineticraft.lostcity.events.CommandRegisterEvent;
+import net.kineticraft.lostcity.mechanics.Async;
+import net.kineticraft.lostcity.mechanics.system.Mechanic;
+import net.kineticraft.lostcity.utils.ServerUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.entity.CreatureSpawnEvent;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Records live events into a trace file, so a busy session can be replayed later with TraceReplay.
+ */
+public class Traces extends Mechanic {
+
+    private static TraceWriter writer;
+    private static BukkitTask flushTask;
+    @Getter private static Set<TraceType> recording = EnumSet.noneOf(TraceType.class);
+
+    @Override
+    public void onDisable() {
+        stop();
+    }
+
+    @EventHandler
+    public void onCommandRegister(CommandRegisterEvent evt) {
+        evt.register(new CommandTrace());
+    }
+
+    /**
+     * Get the file a trace is stored in.
+     * @param name
+     * @return file
+     */
+    public static File getFile(String name) {
+        if (!isValidName(name))
+            throw new IllegalArgumentException("Invalid trace name '" + name + "'.");
+        return Core.getFile("traces/" + name + ".trace");
+    }
+
+    /**
+     * Is this a name a trace can be saved as? Names which could leave the traces folder aren't.
+     * @param name
+     * @return valid
+     */
+    public static boolean isValidName(String name) {
+        return !name.isEmpty() && !name.contains("/") && !name.contains("\\") && !name.contains("..");
+    }
+
+    /**
+     * Start recording events into a trace.
+     * @param name
+     * @param types
+     */
+    public static void start(String name, Set<TraceType> types) throws IOException {
+        stop();
+        File file = getFile(name);
+        file.getParentFile().mkdirs();
+        writer = new TraceWriter(file);
+        recording = EnumSet.copyOf(types);
+        flushTask = Bukkit.getScheduler().runTaskTimerAsynchronously(Core.getInstance(), Traces::flush, 20L, 20L);
+    }
+
+    /**
+     * Stop recording, if we are.
+     * @return records - The number of records written.
+     */
+    public static int stop() {
+        if (writer == null)
+            return 0;
+
+        TraceWriter old = writer;
+        writer = null;
+        recording = EnumSet.noneOf(TraceType.class);
+        flushTask.cancel();
+
+        try {
+            old.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return old.getRecords();
+    }
+
+    /**
+     * Is a trace being recorded?
+     * @return recording
+     */
+    public static boolean isRecording() {
+        return writer != null;
+    }
+
+    /**
+     * Is a given type of event being recorded?
+     * @param type
+     * @return recording
+     */
+    public static boolean isRecording(TraceType type) {
+        return writer != null && recording.contains(type);
+    }
+
+    private static void flush() {
+        TraceWriter w = writer;
+        try {
+            if (w != null)
+                w.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Record an event, if its type is being recorded.
+     * @param type
+     * @param player - Null if the event has no player.
+     * @param setup - Fills in the record's fields.
+     */
+    private static void record(TraceType type, Player player, Consumer<TraceRecord> setup) {
+        TraceWriter w = writer;
+        if (w == null)
+            return;
+
+        TraceRecord record = new TraceRecord();
+        record.setType(type);
+        record.setTick(ServerUtils.getCurrentTick());
+        if (player != null) {
+            record.setPlayer(player.getUniqueId());
+            record.setPlayerName(player.getName());
+        }
+        setup.accept(record);
+
+        try {
+            w.write(record);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void setBlock(TraceRecord record, Location loc) {
+        record.setWorld(loc.getWorld().getName());
+        record.setX(loc.getBlockX());
+        record.setY(loc.getBlockY());
+        record.setZ(loc.getBlockZ());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMove(PlayerMoveEvent evt) {
+        if (!isRecording(TraceType.MOVE))
+            return;
+
+        record(TraceType.MOVE, evt.getPlayer(), r -> {
+            r.setWorld(evt.getFrom().getWorld().getName());
+            r.setX(evt.getFrom().getX());
+            r.setY(evt.getFrom().getY());
+            r.setZ(evt.getFrom().getZ());
+            r.setToX(evt.getTo().getX());
+            r.setToY(evt.getTo().getY());
+            r.setToZ(evt.getTo().getZ());
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onChat(AsyncPlayerChatEvent evt) {
+        if (!isRecording(TraceType.CHAT))
+            return;
+
+        // Chat fires on its own thread, so it's recorded on the main thread to keep tick order.
+        Player player = evt.getPlayer();
+        String message = evt.getMessage();
+        Async.SYNC.execute(() -> record(TraceType.CHAT, player, r -> r.setText(message)));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBreak(BlockBreakEvent evt) {
+        if (!isRecording(TraceType.BLOCK_BREAK))
+            return;
+
+        record(TraceType.BLOCK_BREAK, evt.getPlayer(), r -> {
+            setBlock(r, evt.getBlock().getLocation());
+            r.setMaterial(evt.getBlock().getType().name());
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInteract(PlayerInteractEvent evt) {
+        if (!isRecording(TraceType.INTERACT))
+            return;
+
+        record(TraceType.INTERACT, evt.getPlayer(), r -> {
+            r.setMaterial(evt.getItem() != null ? evt.getItem().getType().name() : null);
+            r.setAction(evt.getAction().name());
+            r.setClickedBlock(evt.getClickedBlock() != null);
+            if (evt.getClickedBlock() != null)
+                setBlock(r, evt.getClickedBlock().getLocation());
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR) // Cancelled spawns are recorded too, farm limits are what cancel them.
+    public void onSpawn(CreatureSpawnEvent evt) {
+        if (!isRecording(TraceType.SPAWN))
+            return;
+
+        Location loc = evt.getLocation();
+        record(TraceType.SPAWN, null, r -> {
+            r.setWorld(loc.getWorld().getName());
+            r.setX(loc.getX());
+            r.setY(loc.getY());
+            r.setZ(loc.getZ());
+            r.setEntity(evt.getEntityType().name());
+            r.setReason(evt.getSpawnReason().name());
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onCommand(PlayerCommandPreprocessEvent evt) {
+        if (isRecording(TraceType.COMMAND))
+            record(TraceType.COMMAND, evt.getPlayer(), r -> r.setText(evt.getMessage()));
+    }
+}
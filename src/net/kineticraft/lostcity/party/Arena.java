@@ -3,7 +3,9 @@ package net.kineticraft.lostcity.party;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import net.kineticraft.lostcity.Core;
+import net.kineticraft.lostcity.utils.RegionEngine;
 import net.kineticraft.lostcity.utils.Utils;
+import net.kineticraft.lostcity.utils.tasks.Promise;
 import org.bukkit.Location;
 import org.bukkit.World;
 
@@ -64,6 +66,24 @@ public class Arena {
                     cb.accept(new Location(getWorld(), x, yLevel, z));
     }
 
+    /**
+     * Get a single Y level of this region.
+     * @param yLevel
+     * @return layer
+     */
+    public Arena getLayer(int yLevel) {
+        return new Arena(getXMin(), getXMax(), getZMin(), getZMax(), yLevel, yLevel, getWorld());
+    }
+
+    /**
+     * Edit the blocks in this region without stalling the main thread. See RegionEngine.
+     * @param edit
+     * @return changed
+     */
+    public Promise<Integer> edit(RegionEngine.BlockEdit edit) {
+        return RegionEngine.edit(this, edit);
+    }
+
     public Location randSpot(int yLevel) {
         return new Location(getWorld(), Utils.randInt(getXMin(), getXMax()), yLevel, Utils.randInt(getZMin(), getZMax()));
     }
@@ -1,11 +1,12 @@
 package net.kineticraft.lostcity.party.anniversary;
 
 import com.destroystokyo.paper.Title;
+import net.kineticraft.lostcity.party.Arena;
 import net.kineticraft.lostcity.party.games.SinglePlayerGame;
 import net.kineticraft.lostcity.utils.ColorConverter;
+import net.kineticraft.lostcity.utils.RegionEngine;
 import net.kineticraft.lostcity.utils.Utils;
 import org.bukkit.*;
-import org.bukkit.block.Block;
 
 /**
  * Dance with DJ Khaled.
@@ -74,13 +75,12 @@ public class DJBooth extends SinglePlayerGame {
 
     @SuppressWarnings("deprecation")
     private void drawBoard(boolean disable) {
-        for (int x = 22; x < 32; x++) {
-            for (int z = 73; z < 87; z++) {
-                Block bk = getWorld().getBlockAt(x, 63, z);
-                if (bk.getType() == Material.WOOL && (bk.getData() != 15 || !isGoing())) // If the game isn't going, that means we should reset all parts of the board.
-                    bk.setData(disable ? (byte) 15 : randColor(true)); // If the board is being disabled, set everything to black.
-            }
-        }
+        boolean going = isGoing();
+        int wool = Material.WOOL.getId();
+        new Arena(22, 31, 73, 86, 63, 63, getWorld()).edit((x, y, z, id, data) ->
+                id == wool && (data != 15 || !going) // If the game isn't going, that means we should reset all parts of the board.
+                        ? RegionEngine.combine(Material.WOOL, disable ? 15 : randColor(true)) // If the board is being disabled, set everything to black.
+                        : RegionEngine.KEEP);
     }
 
     private byte randColor(boolean allowBlack) {
@@ -2,6 +2,7 @@ package net.kineticraft.lostcity.party.anniversary;
 
 import net.kineticraft.lostcity.Core;
 import net.kineticraft.lostcity.party.games.FreeplayGame;
+import net.kineticraft.lostcity.utils.RegionEngine;
 import net.kineticraft.lostcity.utils.Utils;
 import org.bukkit.*;
 import org.bukkit.block.Sign;
@@ -43,10 +44,8 @@ public class Splef extends FreeplayGame {
         }
 
         broadcastPlayers("The arena has been reset by " + player.getName() + ".");
-        getArena().forEachBlock(l -> {
-            if (l.getBlock().getType() == Material.AIR)
-                l.getBlock().setType(Material.TNT);
-        }, 192);
+        int tnt = RegionEngine.combine(Material.TNT, 0);
+        getArena().getLayer(192).edit((x, y, z, id, data) -> id == 0 ? tnt : RegionEngine.KEEP);
         lastReset = System.currentTimeMillis();
     }
 
@@ -3,6 +3,7 @@ package net.kineticraft.lostcity.party.games;
 import com.destroystokyo.paper.Title;
 import lombok.Getter;
 import net.kineticraft.lostcity.Core;
+import net.kineticraft.lostcity.mechanics.ChunkHousekeeper;
 import net.kineticraft.lostcity.party.Arena;
 import net.kineticraft.lostcity.party.Parties;
 import net.kineticraft.lostcity.utils.Utils;
@@ -90,6 +91,8 @@ public class PartyGame implements Listener {
     public void start() {
         if (isGoing())
             return;
+        if (getArena() != null)
+            ChunkHousekeeper.hold(this, getArena());
         getPlayers().forEach(this::spawnPlayer);
         onStart();
         going = true;
@@ -102,6 +105,7 @@ public class PartyGame implements Listener {
         if (!isGoing())
             return;
         going = false;
+        ChunkHousekeeper.release(this);
         getScheduler().cancelAll();
         onStop();
         new ArrayList<>(getPlayers()).forEach(this::removePlayer); // Remove all players.
@@ -58,4 +58,18 @@ public class PacketUtil {
 
         player.getEquipment().setItemInMainHand(saved); // Restore hand item.
     }
+
+    /**
+     * Send the current state of changed blocks in a chunk section to a player.
+     * Like vanilla, sections with many changes are resent whole rather than block by block.
+     * @param player
+     * @param chunk
+     * @param section - The section's y index (0-15).
+     * @param positions - Changed blocks in multi-block-change format, (x << 12) | (z << 8) | y.
+     * @param count
+     */
+    public static void sendBlockChanges(Player player, Chunk chunk, int section, short[] positions, int count) {
+        sendPacket(player, count >= 64 ? new PacketPlayOutMapChunk(chunk, 1 << section)
+                : new PacketPlayOutMultiBlockChange(count, positions, chunk));
+    }
 }
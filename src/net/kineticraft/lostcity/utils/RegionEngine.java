@@ -0,0 +1,269 @@
+package net.kineticraft.lostcity.utils;
+
+import lombok.Getter;
+import net.kineticraft.lostcity.crake.internal.MovementTracker;
+import net.kineticraft.lostcity.mechanics.Async;
+import net.kineticraft.lostcity.mechanics.WorkQueue;
+import net.kineticraft.lostcity.party.Arena;
+import net.kineticraft.lostcity.utils.tasks.Job.Priority;
+import net.kineticraft.lostcity.utils.tasks.Promise;
+import net.minecraft.server.v1_12_R1.BlockPosition;
+import net.minecraft.server.v1_12_R1.ChunkSection;
+import net.minecraft.server.v1_12_R1.EnumSkyBlock;
+import net.minecraft.server.v1_12_R1.IBlockData;
+import net.minecraft.server.v1_12_R1.ITileEntity;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.craftbukkit.v1_12_R1.CraftChunk;
+import org.bukkit.entity.Player;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reads and writes whole regions of blocks without stalling the main thread.
+ *
+ * Reads copy the chunks into ChunkSnapshots on the main thread, then look at them on the compute pool.
+ * Edits work out what changes the same way, then write the changes straight into the chunk sections on the main thread,
+ * one section per WorkQueue step, and send each section's changes to nearby players in a single packet.
+ * Writes skip physics and block events, so lighting is fixed up by hand. Block light is rechecked around each light
+ * source placed or removed. Once a chunk's last section is written, its heightmap and sky light are recalculated,
+ * and sky light is rechecked at the top change of each edited column on the chunk's border, so neighbours follow.
+ * The movement caches of nearby players are cleared after each section, since no block events fire to do it.
+ * Blocks with tile entities fall back to Bukkit, which relights them itself.
+ *
+ * Block types are combined ids, typeId | data << 12, as used by Minecraft.
+ */
+public class RegionEngine {
+
+    public static final int KEEP = -1;
+    private static final boolean[] EMITS_LIGHT = new boolean[4096]; // By type id.
+
+    static {
+        for (Material type : Arrays.asList(Material.GLOWSTONE, Material.TORCH, Material.REDSTONE_TORCH_ON,
+                Material.JACK_O_LANTERN, Material.SEA_LANTERN, Material.LAVA, Material.STATIONARY_LAVA, Material.FIRE,
+                Material.GLOWING_REDSTONE_ORE, Material.REDSTONE_LAMP_ON, Material.END_ROD, Material.MAGMA,
+                Material.PORTAL, Material.ENDER_PORTAL, Material.ENDER_PORTAL_FRAME, Material.DIODE_BLOCK_ON,
+                Material.DRAGON_EGG, Material.BROWN_MUSHROOM))
+            EMITS_LIGHT[type.getId()] = true;
+    }
+
+    /**
+     * Find every block in a region which passes a test.
+     * @param region
+     * @param test - Run off the main thread.
+     * @return matches
+     */
+    public static Promise<List<Location>> find(Arena region, BlockTest test) {
+        World world = region.getWorld();
+        Map<Long, ChunkSnapshot> snapshots = snapshot(region);
+        return Async.supplyCompute("Region Find", () -> {
+            List<Location> found = new ArrayList<>();
+            scan(region, snapshots, (x, y, z, id, data) -> {
+                if (test.test(x, y, z, id, data))
+                    found.add(new Location(world, x, y, z));
+                return KEEP;
+            });
+            return found;
+        });
+    }
+
+    /**
+     * Edit every block in a region. The changes are applied over the following ticks.
+     * @param region
+     * @param edit - Run off the main thread.
+     * @return changed - Completes once every change has been applied.
+     */
+    public static Promise<Integer> edit(Arena region, BlockEdit edit) {
+        Map<Long, ChunkSnapshot> snapshots = snapshot(region);
+        CompletableFuture<Integer> applied = new CompletableFuture<>();
+
+        Async.supplyCompute("Region Diff", () -> {
+            Map<Long, ChunkEdit> chunks = new LinkedHashMap<>();
+            scan(region, snapshots, (x, y, z, id, data) -> {
+                int result = edit.edit(x, y, z, id, data);
+                if (result != KEEP && result != (id | data << 12))
+                    chunks.computeIfAbsent(getKey(x >> 4, z >> 4), k -> new ChunkEdit()).add(x, y, z, result);
+                return KEEP;
+            });
+
+            List<SectionEdit> sections = new ArrayList<>(); // Keep each chunk's sections together, so it's relit once.
+            chunks.values().forEach(chunk -> sections.addAll(chunk.getSections().values()));
+            return sections;
+        }).thenSync(sections -> {
+            int total = sections.stream().mapToInt(SectionEdit::getCount).sum();
+            WorkQueue.forEach("Region Edit", Priority.NORMAL, sections, section -> apply(region.getWorld(), section))
+                    .onComplete(() -> applied.complete(total));
+        }).failSync(applied::completeExceptionally);
+
+        return new Promise<>(applied);
+    }
+
+    /**
+     * Get the combined id of a block type.
+     * @param type
+     * @param data
+     * @return combinedId
+     */
+    @SuppressWarnings("deprecation")
+    public static int combine(Material type, int data) {
+        return type.getId() | data << 12;
+    }
+
+    /**
+     * Copy every chunk the region touches, loading them if needed. Must be called on the main thread.
+     * @param region
+     * @return snapshots
+     */
+    private static Map<Long, ChunkSnapshot> snapshot(Arena region) {
+        Map<Long, ChunkSnapshot> snapshots = new HashMap<>();
+        for (int cx = region.getXMin() >> 4; cx <= region.getXMax() >> 4; cx++)
+            for (int cz = region.getZMin() >> 4; cz <= region.getZMax() >> 4; cz++)
+                snapshots.put(getKey(cx, cz), region.getWorld().getChunkAt(cx, cz).getChunkSnapshot(false, false, false));
+        return snapshots;
+    }
+
+    /**
+     * Visit every block of a region in its snapshots.
+     * @param region
+     * @param snapshots
+     * @param visitor
+     */
+    @SuppressWarnings("deprecation")
+    private static void scan(Arena region, Map<Long, ChunkSnapshot> snapshots, BlockEdit visitor) {
+        int yMin = Math.max(0, region.getYMin());
+        int yMax = Math.min(255, region.getYMax());
+        for (int x = region.getXMin(); x <= region.getXMax(); x++) {
+            for (int z = region.getZMin(); z <= region.getZMax(); z++) {
+                ChunkSnapshot snapshot = snapshots.get(getKey(x >> 4, z >> 4));
+                for (int y = yMin; y <= yMax; y++)
+                    visitor.edit(x, y, z, snapshot.getBlockTypeId(x & 15, y, z & 15), snapshot.getBlockData(x & 15, y, z & 15));
+            }
+        }
+    }
+
+    /**
+     * Write a section's changes into the world, and show them to nearby players.
+     * @param world
+     * @param edit
+     */
+    @SuppressWarnings("deprecation")
+    private static void apply(World world, SectionEdit edit) {
+        Chunk chunk = world.getChunkAt(edit.getX(), edit.getZ());
+        net.minecraft.server.v1_12_R1.Chunk handle = ((CraftChunk) chunk).getHandle();
+        ChunkSection section = handle.getSections()[edit.getY()];
+
+        for (int i = 0; i < edit.getCount(); i++) {
+            short pos = edit.getPositions()[i];
+            int x = pos >> 12 & 15;
+            int z = pos >> 8 & 15;
+            int y = pos & 255;
+            int combined = edit.getBlocks()[i];
+            IBlockData data = net.minecraft.server.v1_12_R1.Block.getByCombinedId(combined);
+
+            // Empty sections don't exist yet, and tile entities need creating or removing, so let Bukkit handle those.
+            if (section == null || data.getBlock() instanceof ITileEntity
+                    || section.getType(x, y & 15, z).getBlock() instanceof ITileEntity) {
+                chunk.getBlock(x, y, z).setTypeIdAndData(combined & 4095, (byte) (combined >> 12), false);
+                section = handle.getSections()[edit.getY()];
+                continue;
+            }
+
+            int old = net.minecraft.server.v1_12_R1.Block.getCombinedId(section.getType(x, y & 15, z));
+            section.setType(x, y & 15, z, data);
+            if (EMITS_LIGHT[combined & 4095] || EMITS_LIGHT[old & 4095]) // A light source was placed or removed.
+                handle.world.c(EnumSkyBlock.BLOCK, new BlockPosition(edit.getX() << 4 | x, y, edit.getZ() << 4 | z));
+        }
+
+        ChunkEdit chunkEdit = edit.getChunk();
+        if (chunkEdit.getSections().get(chunkEdit.getLastSection()) == edit) {
+            handle.initLighting(); // Recalculates the heightmap and sky light, and marks the chunk dirty.
+            for (int x = 0; x < 16; x++)
+                for (int z = 0; z < 16; z++)
+                    if ((x == 0 || x == 15 || z == 0 || z == 15) && chunkEdit.getTopChanged()[x << 4 | z] >= 0)
+                        handle.world.c(EnumSkyBlock.SKY, new BlockPosition(edit.getX() << 4 | x,
+                                chunkEdit.getTopChanged()[x << 4 | z], edit.getZ() << 4 | z));
+        }
+        MovementTracker.touchSection(world, edit.getX(), edit.getY(), edit.getZ());
+
+        int view = Bukkit.getViewDistance();
+        for (Player player : world.getPlayers()) {
+            Location loc = player.getLocation();
+            if (Math.abs((loc.getBlockX() >> 4) - edit.getX()) <= view && Math.abs((loc.getBlockZ() >> 4) - edit.getZ()) <= view)
+                PacketUtil.sendBlockChanges(player, handle, edit.getY(), edit.getPositions(), edit.getCount());
+        }
+    }
+
+    private static long getKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The changes to one chunk, by section from the bottom up.
+     */
+    @Getter
+    private static class ChunkEdit {
+        private final TreeMap<Integer, SectionEdit> sections = new TreeMap<>();
+        private final int[] topChanged = new int[256]; // The highest changed y of each column, or -1.
+
+        ChunkEdit() {
+            Arrays.fill(topChanged, -1);
+        }
+
+        void add(int x, int y, int z, int combined) {
+            sections.computeIfAbsent(y >> 4, k -> new SectionEdit(this, x >> 4, y >> 4, z >> 4)).add(x, y, z, combined);
+            int column = (x & 15) << 4 | (z & 15);
+            topChanged[column] = Math.max(topChanged[column], y);
+        }
+
+        int getLastSection() {
+            return sections.lastKey();
+        }
+    }
+
+    /**
+     * The changes to one chunk section, in multi-block-change format.
+     */
+    @Getter
+    private static class SectionEdit {
+        private final ChunkEdit chunk;
+        private final int x;
+        private final int y;
+        private final int z;
+        private short[] positions = new short[16];
+        private int[] blocks = new int[16];
+        private int count;
+
+        SectionEdit(ChunkEdit chunk, int x, int y, int z) {
+            this.chunk = chunk;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        void add(int blockX, int blockY, int blockZ, int combined) {
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+                blocks = Arrays.copyOf(blocks, count * 2);
+            }
+            positions[count] = (short) ((blockX & 15) << 12 | (blockZ & 15) << 8 | blockY);
+            blocks[count++] = combined;
+        }
+    }
+
+    public interface BlockTest {
+        boolean test(int x, int y, int z, int typeId, int data);
+    }
+
+    public interface BlockEdit {
+        /**
+         * Get what a block should become.
+         * @return combinedId - Or KEEP to leave it alone.
+         */
+        int edit(int x, int y, int z, int typeId, int data);
+    }
+}
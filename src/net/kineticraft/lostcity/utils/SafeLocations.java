@@ -0,0 +1,179 @@
+package net.kineticraft.lostcity.utils;
+
+import lombok.Getter;
+import net.kineticraft.lostcity.mechanics.Async;
+import net.kineticraft.lostcity.utils.tasks.Promise;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Finds safe places to put players in a column, closest to the height they asked for.
+ *
+ * The search starts at the requested height and works outward, so it usually stops within a few blocks.
+ * Nothing above the heightmap is looked at, since it's all air and only the block right above the surface can be stood on.
+ * The search can run against the live world for a quick answer on the main thread, or against a ChunkSnapshot on the
+ * compute pool, which is what find() does.
+ */
+public class SafeLocations {
+
+    private static final int NETHER_ROOF = 127;
+
+    /**
+     * Find a safe location near the given one off the main thread.
+     * @param origin
+     * @return safe
+     */
+    public static Promise<Location> find(Location origin) {
+        return find(origin, new Rules());
+    }
+
+    /**
+     * Find a safe location near the given one off the main thread. Must be called on the main thread, which loads the chunk.
+     * @param origin
+     * @param rules
+     * @return safe
+     */
+    public static Promise<Location> find(Location origin, Rules rules) {
+        Location start = origin.clone();
+        ChunkSnapshot snapshot = start.getWorld().getChunkAt(start).getChunkSnapshot(true, false, false);
+        int x = start.getBlockX() & 15;
+        int z = start.getBlockZ() & 15;
+        return Async.supplyCompute("Safe Location", () -> search(start, rules, snapshot.getHighestBlockYAt(x, z),
+                y -> snapshot.getBlockTypeId(x, y, z)));
+    }
+
+    /**
+     * Find a safe location near the given one right away, reading the world directly.
+     * @param origin
+     * @param rules
+     * @return safe
+     */
+    @SuppressWarnings("deprecation")
+    public static Location findNow(Location origin, Rules rules) {
+        World world = origin.getWorld();
+        int x = origin.getBlockX();
+        int z = origin.getBlockZ();
+        return search(origin.clone(), rules, world.getHighestBlockYAt(x, z), y -> world.getBlockTypeIdAt(x, y, z));
+    }
+
+    /**
+     * Can a player stand at this location right now? Reads the world directly.
+     * @param loc
+     * @param rules
+     * @return safe
+     */
+    @SuppressWarnings("deprecation")
+    public static boolean isSafe(Location loc, Rules rules) {
+        World world = loc.getWorld();
+        int x = loc.getBlockX();
+        int z = loc.getBlockZ();
+        return isSafe(y -> world.getBlockTypeIdAt(x, y, z), loc.getBlockY(), rules);
+    }
+
+    /**
+     * Find the safe standing height closest to the origin's.
+     * If there isn't one, the origin is moved to the highest height it's allowed, so never onto the nether roof
+     * unless the rules allow it.
+     * @param origin - Moved to the safe location.
+     * @param rules
+     * @param highest - The first air block above the surface, from the heightmap.
+     * @param column - Gets the type id at a y coordinate in the column.
+     * @return safe
+     */
+    private static Location search(Location origin, Rules rules, int highest, Column column) {
+        int top = Math.min(highest, origin.getWorld().getMaxHeight() - rules.getHeadroom());
+        if (origin.getWorld().getEnvironment() == World.Environment.NETHER && !rules.isNetherRoof())
+            top = Math.min(top, NETHER_ROOF - rules.getHeadroom());
+
+        int start = Math.max(1, Math.min(top, origin.getBlockY()));
+        for (int offset = 0; start - offset >= 1 || start + offset <= top; offset++) {
+            if (start + offset <= top && isSafe(column, start + offset, rules))
+                return atHeight(origin, start + offset);
+            if (offset > 0 && start - offset >= 1 && isSafe(column, start - offset, rules))
+                return atHeight(origin, start - offset);
+        }
+
+        return atHeight(origin, Math.max(1, top));
+    }
+
+    /**
+     * Can a player stand with their feet at this height?
+     * @param column
+     * @param y
+     * @param rules
+     * @return safe
+     */
+    @SuppressWarnings("deprecation")
+    private static boolean isSafe(Column column, int y, Rules rules) {
+        Material floor = Material.getMaterial(column.getTypeId(y - 1));
+        if (floor == null || floor == Material.AIR || !rules.isAllowed(floor) || (!rules.isLiquids() && isLiquid(floor)))
+            return false;
+
+        for (int i = 0; i < rules.getHeadroom(); i++) {
+            Material mat = Material.getMaterial(column.getTypeId(y + i));
+            if (mat == null || Utils.isSolid(mat) || !rules.isAllowed(mat) || (!rules.isLiquids() && isLiquid(mat)))
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean isLiquid(Material mat) {
+        return mat == Material.WATER || mat == Material.STATIONARY_WATER || mat == Material.LAVA || mat == Material.STATIONARY_LAVA;
+    }
+
+    private static Location atHeight(Location loc, int y) {
+        loc.setY(y + 0.5); // Half a block up, so players don't clip into slabs and the like.
+        return loc;
+    }
+
+    private interface Column {
+        int getTypeId(int y);
+    }
+
+    /**
+     * What counts as safe.
+     */
+    @Getter
+    public static class Rules {
+        private boolean liquids; // Can players be put in or on liquids?
+        private boolean netherRoof; // Can players be put on top of the nether roof?
+        private int headroom = 2;
+        private final Set<Material> banned = EnumSet.of(Material.CACTUS, Material.MAGMA, Material.FIRE, Material.WEB,
+                Material.LAVA, Material.STATIONARY_LAVA);
+
+        public Rules allowLiquids() {
+            this.liquids = true;
+            return this;
+        }
+
+        public Rules allowNetherRoof() {
+            this.netherRoof = true;
+            return this;
+        }
+
+        public Rules headroom(int blocks) {
+            this.headroom = blocks;
+            return this;
+        }
+
+        public Rules ban(Material... materials) {
+            for (Material mat : materials)
+                banned.add(mat);
+            return this;
+        }
+
+        /**
+         * Can a player stand on or in this material?
+         * @param mat
+         * @return allowed
+         */
+        public boolean isAllowed(Material mat) {
+            return !getBanned().contains(mat);
+        }
+    }
+}
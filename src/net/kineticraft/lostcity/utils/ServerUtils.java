@@ -1,10 +1,11 @@
 package net.kineticraft.lostcity.utils;
 
-import lombok.Getter;
 import net.kineticraft.lostcity.mechanics.system.BuildType;
 import net.kineticraft.lostcity.Core;
 import net.kineticraft.lostcity.config.Configs;
 import net.kineticraft.lostcity.mechanics.DataHandler;
+import net.kineticraft.lostcity.mechanics.TickClock;
+import net.kineticraft.lostcity.mechanics.backup.Backups;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.scheduler.BukkitTask;
@@ -20,8 +21,6 @@ import java.util.List;
  */
 public class ServerUtils {
 
-    @Getter private static boolean backingUp;
-
     private static final List<BukkitTask> rebootTasks = new ArrayList<>();
     private static final List<Integer> REBOOT_ALERTS = Arrays.asList(10, 30, 60, 300, 600, 1800, 3600);
     private static long rebootTime = System.currentTimeMillis() + (1000 * 60 * 60 * 24);
@@ -30,23 +29,15 @@ public class ServerUtils {
      * Take a backup of the server.
      */
     public static void takeBackup() {
-        assert !isBackingUp();
+        Backups.takeBackup();
+    }
 
-        if (!Bukkit.isPrimaryThread()) {
-            Bukkit.getScheduler().runTask(Core.getInstance(), ServerUtils::takeBackup);
-            return;
-        }
-
-        Dog.KINETICA.say("Server is backing up, expect lag!");
-        backingUp = true;
-        Bukkit.dispatchCommand(Bukkit.getConsoleSender(), "save-all");
-        Bukkit.dispatchCommand(Bukkit.getConsoleSender(), "save-off");
-
-        Utils.runShell("./backup.sh", () -> {
-            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), "save-on");
-            Dog.KINETICA.say("Backup complete.");
-            backingUp = false;
-        });
+    /**
+     * Is a backup task currently running?
+     * @return backingUp
+     */
+    public static boolean isBackingUp() {
+        return Backups.isRunning();
     }
 
     /**
@@ -129,7 +120,7 @@ public class ServerUtils {
      * @return tick
      */
     public static int getCurrentTick() {
-        return (int) ReflectionUtil.getField(ReflectionUtil.getNMS("MinecraftServer"), "currentTick");
+        return TickClock.getTick();
     }
 
     /**
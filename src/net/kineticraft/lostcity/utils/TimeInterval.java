@@ -46,4 +46,29 @@ public enum TimeInterval {
     public int getValue() {
         return Calendar.getInstance().get(getCalendarId());
     }
+
+    /**
+     * Get the time the next unit of this interval starts, such as the next midnight for DAY.
+     * @return nextStart - Epoch millis.
+     */
+    @SuppressWarnings("MagicConstant")
+    public long getNextStart() {
+        Calendar c = Calendar.getInstance();
+        c.set(Calendar.MILLISECOND, 0);
+        if (this != SECOND)
+            c.set(Calendar.SECOND, 0);
+        if (ordinal() >= HOUR.ordinal())
+            c.set(Calendar.MINUTE, 0);
+        if (ordinal() >= DAY.ordinal())
+            c.set(Calendar.HOUR_OF_DAY, 0);
+        if (this == WEEK)
+            c.set(Calendar.DAY_OF_WEEK, c.getFirstDayOfWeek());
+        if (ordinal() >= MONTH.ordinal())
+            c.set(Calendar.DAY_OF_MONTH, 1);
+        if (this == YEAR)
+            c.set(Calendar.MONTH, Calendar.JANUARY);
+
+        c.add(getCalendarId(), 1);
+        return c.getTimeInMillis();
+    }
 }
@@ -15,8 +15,10 @@ import net.kineticraft.lostcity.data.KCPlayer;
 import net.kineticraft.lostcity.discord.DiscordAPI;
 import net.kineticraft.lostcity.item.ItemType;
 import net.kineticraft.lostcity.item.ItemWrapper;
+import net.kineticraft.lostcity.mechanics.Async;
 import net.kineticraft.lostcity.mechanics.metadata.Metadata;
 import net.kineticraft.lostcity.mechanics.metadata.MetadataManager;
+import net.kineticraft.lostcity.utils.tasks.Promise;
 import org.apache.commons.io.FileUtils;
 import org.bukkit.*;
 import org.bukkit.Material;
@@ -41,8 +43,6 @@ import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -98,17 +98,6 @@ public class Utils {
         return String.join(" ", out);
     }
 
-    /**
-     * Is the given location 'safe'?
-     * @param loc
-     * @return safe
-     */
-    private static boolean isSafe(Location loc) {
-        Block bk = loc.getBlock();
-        Block below = bk.getRelative(BlockFace.DOWN);
-        return !isSolid(bk) && !isSolid(bk.getRelative(BlockFace.UP)) && below.getType() != Material.AIR  && !below.isLiquid();
-    }
-
     /**
      * Is this block solid? (Meaning players cannot walk through it)
      * @param bk
@@ -128,23 +117,12 @@ public class Utils {
     }
 
     /**
-     * Find the first available 'safe' teleport location.
+     * Find the closest 'safe' teleport location in the origin's column. See SafeLocations for an async version.
      * @param origin
      * @return safe
      */
     public static Location findSafe(Location origin) {
-        int maxHeight = origin.getWorld().getMaxHeight();
-        Location safe = origin.clone();
-        safe.setY(maxHeight); // Default location
-
-        Location temp = origin.clone();
-        temp.setY(0);
-        while(temp.getBlockY() < maxHeight - 1) { // Don't go to the very max height because we check the block above tempY.
-            temp.setY(temp.getBlockY() + 1);
-            if (isSafe(temp) && origin.distanceSquared(safe) > origin.distanceSquared(temp))
-                safe = temp.clone(); // This location is closer than the saved one, and it's safe.
-        }
-        return safe.add(0, 0.5, 0);
+        return SafeLocations.findNow(origin, new SafeLocations.Rules());
     }
 
     /**
@@ -696,14 +674,13 @@ public class Utils {
     }
 
     /**
-     * Get entities nearby a location. Async-Safe
-     * TODO: Make this actually async-safe.
+     * Get entities nearby a location. Async-Safe, off the main thread this waits for the next tick.
      * @param loc
      * @param radius
      * @return entities
      */
     public static Collection<Entity> getNearbyEntities(Location loc, int radius) {
-        return loc.getWorld().getNearbyEntities(loc, radius, radius, radius);
+        return Async.callSync(() -> new ArrayList<>(loc.getWorld().getNearbyEntities(loc, radius, radius, radius)));
     }
 
     /**
@@ -962,31 +939,25 @@ public class Utils {
      * @param onFinish
      */
     public static void runShell(String cmd, Runnable onFinish) {
-        Bukkit.getScheduler().runTaskAsynchronously(Core.getInstance(), () -> {
+        Promise<Void> shell = Async.runIO("Shell " + cmd, () -> {
             try {
-                final ProcessBuilder childBuilder = new ProcessBuilder(cmd);
+                ProcessBuilder childBuilder = new ProcessBuilder(cmd);
                 childBuilder.redirectErrorStream(true);
                 childBuilder.directory(Core.getInstance().getDataFolder().getParentFile().getParentFile());
-                final Process child = childBuilder.start();
-
-                Bukkit.getScheduler().runTaskAsynchronously(Core.getInstance(), () -> {
-                    try {
-                        @Cleanup BufferedReader reader = new BufferedReader(new InputStreamReader(child.getInputStream()));
-                        String line;
-                        while ((line = reader.readLine()) != null)
-                            Bukkit.getLogger().info(line);
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                    }
-                });
+                Process child = childBuilder.start();
+
+                @Cleanup BufferedReader reader = new BufferedReader(new InputStreamReader(child.getInputStream()));
+                String line;
+                while ((line = reader.readLine()) != null) // Ends once the process closes its output.
+                    Bukkit.getLogger().info(line);
                 child.waitFor();
             } catch (Exception e) {
                 e.printStackTrace();
-            } finally {
-                if (onFinish != null)
-                    Bukkit.getScheduler().runTask(Core.getInstance(), onFinish);
             }
         });
+
+        if (onFinish != null)
+            shell.alwaysSync(onFinish);
     }
 
     /**
@@ -1100,48 +1071,6 @@ public class Utils {
         return list;
     }
 
-    /**
-     * Run a task repeatedly at a given calendar time, accurate to the second.
-     * @param interval
-     * @param unit
-     * @param task
-     */
-    public static void runCalendarTaskAt(TimeInterval interval, int unit, Runnable task) {
-        AtomicBoolean runYet = new AtomicBoolean();
-        Bukkit.getScheduler().runTaskTimer(Core.getInstance(), () -> {
-            boolean isTime = interval.getValue() == unit;
-            if (!runYet.get() && isTime)
-                task.run();
-            runYet.set(isTime);
-        }, 0L, 20L);
-    }
-
-    /**
-     * Run a task every given interval on the calendar. Accurate to the second.
-     * @param interval
-     * @param task
-     */
-    public static void runCalendarTaskEvery(TimeInterval interval, Runnable task) {
-        runCalendarTaskEvery(interval, 1, task);
-    }
-
-    /**
-     * Run a task every given interval on the calendar. Accurate to the second.
-     * @param interval
-     * @param unit
-     * @param task
-     */
-    public static void runCalendarTaskEvery(TimeInterval interval, int unit, Runnable task) {
-        AtomicInteger lastRun = new AtomicInteger(interval.getValue());
-        Bukkit.getScheduler().runTaskTimer(Core.getInstance(), () -> {
-            int now = interval.getValue();
-            if (now % unit == 0 && now != lastRun.get()) {
-                task.run();
-                lastRun.set(now);
-            }
-        }, 0L, 20L);
-    }
-
     /**
      * Get all the blocks between the two supplied blocks. Inclusive.
      * @param a
@@ -1159,9 +1088,19 @@ public class Utils {
      * @return blocks
      */
     public static List<Block> getBlocksBetween(Location a, Location b) {
-        List<Block> blocks = new ArrayList<>();
-        looseFor(a.getBlockX(), b.getBlockX(), x -> looseFor(a.getBlockY(), b.getBlockY(), y ->
-                looseFor(a.getBlockZ(), b.getBlockZ(), z -> blocks.add(new Location(a.getWorld(), x, y, z).getBlock()))));
+        World world = a.getWorld();
+        int xMin = Math.min(a.getBlockX(), b.getBlockX());
+        int xMax = Math.max(a.getBlockX(), b.getBlockX());
+        int yMin = Math.min(a.getBlockY(), b.getBlockY());
+        int yMax = Math.max(a.getBlockY(), b.getBlockY());
+        int zMin = Math.min(a.getBlockZ(), b.getBlockZ());
+        int zMax = Math.max(a.getBlockZ(), b.getBlockZ());
+
+        List<Block> blocks = new ArrayList<>((xMax - xMin + 1) * (yMax - yMin + 1) * (zMax - zMin + 1));
+        for (int x = xMin; x <= xMax; x++)
+            for (int y = yMin; y <= yMax; y++)
+                for (int z = zMin; z <= zMax; z++)
+                    blocks.add(world.getBlockAt(x, y, z)); // No Location per block.
         return blocks;
     }
 
@@ -0,0 +1,100 @@
+package net.kineticraft.lostcity.utils.tasks;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A piece of main-thread work run by the WorkQueue, one small step at a time.
+ */
+@Getter
+public class Job {
+
+    private final String name;
+    private final Priority priority;
+    private final BooleanSupplier step; // Does one step of work, returns true once there's nothing left.
+    private final List<Runnable> callbacks = new ArrayList<>();
+    private volatile boolean done;
+    private volatile boolean cancelled;
+    private int steps;
+    private long nanos;
+
+    public Job(String name, Priority priority, BooleanSupplier step) {
+        this.name = name;
+        this.priority = priority;
+        this.step = step;
+    }
+
+    /**
+     * Run a step of this job.
+     * @return finished
+     */
+    public boolean runStep() {
+        long start = System.nanoTime();
+        try {
+            return getStep().getAsBoolean();
+        } finally {
+            steps++;
+            nanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Run something on the main thread once this job finishes. Runs right away if it already has.
+     * Not run if the job is cancelled or fails.
+     * @param callback
+     * @return this
+     */
+    public Job onComplete(Runnable callback) {
+        synchronized (callbacks) {
+            if (!isDone()) {
+                callbacks.add(callback);
+                return this;
+            }
+        }
+
+        if (!isCancelled())
+            callback.run();
+        return this;
+    }
+
+    /**
+     * Mark this job as finished, and run its callbacks.
+     */
+    public void complete() {
+        List<Runnable> run;
+        synchronized (callbacks) {
+            if (isDone())
+                return;
+            done = true;
+            run = new ArrayList<>(callbacks);
+            callbacks.clear();
+        }
+
+        if (!isCancelled())
+            run.forEach(Runnable::run);
+    }
+
+    /**
+     * Stop this job, it won't run any more steps or callbacks.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Get the time spent running this job so far, in milliseconds.
+     * @return time
+     */
+    public double getTimeMs() {
+        return nanos / 1000000D;
+    }
+
+    public enum Priority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+}
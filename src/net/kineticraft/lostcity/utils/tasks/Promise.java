@@ -0,0 +1,77 @@
+package net.kineticraft.lostcity.utils.tasks;
+
+import lombok.Getter;
+import net.kineticraft.lostcity.Core;
+import net.kineticraft.lostcity.mechanics.Async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The result of work done off the main thread. Continuations ending in "Sync" run on the main thread, so they may use Bukkit.
+ * If the work fails, it has already been reported to staff. Continuations are skipped, except for failSync and alwaysSync.
+ */
+@Getter
+public class Promise<T> {
+
+    private final CompletableFuture<T> future;
+
+    public Promise(CompletableFuture<T> future) {
+        this.future = future;
+    }
+
+    /**
+     * Use the result on the main thread.
+     * @param callback
+     * @return promise
+     */
+    public Promise<Void> thenSync(Consumer<T> callback) {
+        return thenApplySync(value -> {
+            callback.accept(value);
+            return null;
+        });
+    }
+
+    /**
+     * Transform the result on the main thread.
+     * @param function
+     * @param <R>
+     * @return promise
+     */
+    public <R> Promise<R> thenApplySync(Function<T, R> function) {
+        return new Promise<>(getFuture().thenApplyAsync(value -> {
+            try {
+                return function.apply(value);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                Core.warn("Main thread continuation failed: " + e.getMessage());
+                throw e;
+            }
+        }, Async.SYNC));
+    }
+
+    /**
+     * Handle a failure on the main thread.
+     * @param handler
+     * @return this
+     */
+    public Promise<T> failSync(Consumer<Throwable> handler) {
+        getFuture().whenCompleteAsync((value, error) -> {
+            if (error != null)
+                handler.accept(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+        }, Async.SYNC);
+        return this;
+    }
+
+    /**
+     * Run something on the main thread once the work is done, whether or not it succeeded.
+     * @param callback
+     * @return this
+     */
+    public Promise<T> alwaysSync(Runnable callback) {
+        getFuture().whenCompleteAsync((value, error) -> callback.run(), Async.SYNC);
+        return this;
+    }
+}
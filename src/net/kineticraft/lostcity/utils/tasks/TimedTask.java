@@ -0,0 +1,76 @@
+package net.kineticraft.lostcity.utils.tasks;
+
+import lombok.Getter;
+
+/**
+ * A named task run by a TimingWheel, which keeps track of how long it takes to run.
+ */
+@Getter
+public class TimedTask {
+
+    private final String name;
+    private final Runnable task;
+    private final long period; // 0 if this only runs once.
+    private final boolean async;
+    long expires; // Managed by the wheel.
+    private volatile boolean cancelled;
+
+    private volatile long runs;
+    private volatile long totalNanos;
+    private volatile long maxNanos;
+
+    public TimedTask(String name, Runnable task, long expires, long period, boolean async) {
+        this.name = name;
+        this.task = task;
+        this.expires = expires;
+        this.period = period;
+        this.async = async;
+    }
+
+    /**
+     * Stop this task from running again.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Run this task, recording how long it took.
+     */
+    public void run() {
+        long start = System.nanoTime();
+        try {
+            getTask().run();
+        } finally {
+            long taken = System.nanoTime() - start;
+            runs++;
+            totalNanos += taken;
+            maxNanos = Math.max(maxNanos, taken);
+        }
+    }
+
+    /**
+     * Get when this task should next run, after running at the given time.
+     * @param now
+     * @return nextRun - Negative if this task shouldn't run again.
+     */
+    public long getNextRun(long now) {
+        return getPeriod() > 0 ? now + getPeriod() : -1;
+    }
+
+    /**
+     * Get the time this task is next due, in its wheel's units.
+     * @return expires
+     */
+    public long getExpires() {
+        return expires;
+    }
+
+    /**
+     * Get the average time this task takes to run, in milliseconds.
+     * @return average
+     */
+    public double getAverageMs() {
+        return getRuns() > 0 ? getTotalNanos() / (double) getRuns() / 1000000D : 0;
+    }
+}
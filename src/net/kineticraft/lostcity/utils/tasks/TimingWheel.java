@@ -0,0 +1,140 @@
+package net.kineticraft.lostcity.utils.tasks;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel. Scheduling and cancelling are O(1), and advancing only looks at the tasks which are due.
+ *
+ * Each level has 64 slots, and each slot of a level covers 64 times as much time as a slot in the level below.
+ * Tasks go in the lowest level that can hold them, and move down a level each time the level above wraps around,
+ * until they reach level 0 and run. Four levels cover 64^4 (~16.7 million) units, anything later waits in the top level.
+ *
+ * The wheel has no idea what its units are, the owner decides (ticks, seconds, ...) by how it calls advance.
+ */
+public class TimingWheel {
+
+    private final List<List<TimedTask>> slots = new ArrayList<>();
+    @Getter private long time;
+    @Getter private int size;
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long RANGE = 1L << (BITS * LEVELS);
+
+    public TimingWheel(long startTime) {
+        this.time = startTime;
+        for (int i = 0; i < SLOTS * LEVELS; i++)
+            slots.add(new ArrayList<>());
+    }
+
+    /**
+     * Add a task to the wheel. Tasks which are already due will run on the next advance.
+     * @param task
+     */
+    public void add(TimedTask task) {
+        task.expires = Math.max(task.expires, time + 1);
+        insert(task);
+        size++;
+    }
+
+    /**
+     * Advance the wheel up to the given time, running every task which comes due.
+     * @param to
+     * @param runner - Runs each due task. Periodic tasks are re-added after.
+     */
+    public void advance(long to, Consumer<TimedTask> runner) {
+        while (time < to) {
+            time++;
+            int slot = (int) (time & MASK);
+            if (slot == 0)
+                cascade(1);
+
+            List<TimedTask> due = slots.get(slot);
+            if (due.isEmpty())
+                continue;
+
+            slots.set(slot, new ArrayList<>()); // Tasks run here may add more tasks.
+            for (TimedTask task : due) {
+                size--;
+                if (task.isCancelled())
+                    continue;
+
+                if (task.expires > time) { // Only happens to tasks beyond the wheel's range.
+                    add(task);
+                    continue;
+                }
+
+                runner.accept(task);
+                long next = task.getNextRun(time);
+                if (next >= 0 && !task.isCancelled()) {
+                    task.expires = next;
+                    add(task);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove cancelled tasks, so they stop counting towards the size.
+     * Cancelled tasks are otherwise dropped whenever their slot comes up.
+     */
+    public void purge() {
+        for (List<TimedTask> slot : slots) {
+            int before = slot.size();
+            slot.removeIf(TimedTask::isCancelled);
+            size -= before - slot.size();
+        }
+    }
+
+    /**
+     * Get every task in the wheel.
+     * @return tasks
+     */
+    public List<TimedTask> getTasks() {
+        List<TimedTask> tasks = new ArrayList<>();
+        slots.forEach(tasks::addAll);
+        return tasks;
+    }
+
+    /**
+     * Move the tasks in the current slot of a level down into the levels below.
+     * @param level
+     */
+    private void cascade(int level) {
+        if (level >= LEVELS)
+            return;
+
+        int slot = (int) ((time >> (BITS * level)) & MASK);
+        if (slot == 0)
+            cascade(level + 1); // This level wrapped around too, so bring down the next one first.
+
+        int index = level * SLOTS + slot;
+        List<TimedTask> tasks = slots.get(index);
+        if (tasks.isEmpty())
+            return;
+
+        slots.set(index, new ArrayList<>());
+        tasks.forEach(this::insert);
+    }
+
+    /**
+     * Put a task in the slot it belongs in, for its due time.
+     * @param task
+     */
+    private void insert(TimedTask task) {
+        long expires = Math.min(task.expires, time + RANGE - 1); // Tasks beyond the range wait at the end of it.
+        long delta = expires - time;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1)))
+            level++;
+
+        int slot = (int) ((expires >> (BITS * level)) & MASK);
+        slots.get(level * SLOTS + slot).add(task);
+    }
+}
@@ -0,0 +1,160 @@
+package net.kineticraft.lostcity.utils.tasks;
+
+import lombok.Getter;
+import net.kineticraft.lostcity.Core;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A named, bounded pool of worker threads, which keeps track of how long work waits and runs.
+ * Work which doesn't fit in the queue is rejected rather than run on the caller, since the caller is usually the main thread.
+ */
+public class WorkPool {
+
+    @Getter private final String name;
+    @Getter private final int threads;
+    @Getter private final int queueSize;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong runNanos = new AtomicLong();
+
+    public WorkPool(String name, int threads, int queueSize) {
+        this.name = name;
+        this.threads = threads;
+        this.queueSize = queueSize;
+
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), r -> {
+            Thread thread = new Thread(r, "KC-" + name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Run work in this pool.
+     * @param task - A name for the work, used when it fails.
+     * @param work
+     * @return promise
+     */
+    public Promise<Void> run(String task, Runnable work) {
+        return supply(task, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Compute a value in this pool.
+     * @param task - A name for the work, used when it fails.
+     * @param work
+     * @param <T>
+     * @return promise
+     */
+    public <T> Promise<T> supply(String task, Callable<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long queued = System.nanoTime();
+        submitted.incrementAndGet();
+
+        try {
+            executor.execute(() -> {
+                long start = System.nanoTime();
+                long waited = start - queued;
+                waitNanos.addAndGet(waited);
+                maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+                try {
+                    future.complete(work.call());
+                    completed.incrementAndGet();
+                } catch (Throwable t) {
+                    failed.incrementAndGet();
+                    t.printStackTrace();
+                    Core.warn(getName() + " task '" + task + "' failed: " + t.getMessage());
+                    future.completeExceptionally(t);
+                } finally {
+                    runNanos.addAndGet(System.nanoTime() - start);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            Core.warn(getName() + " pool is full, rejected task '" + task + "'.");
+            future.completeExceptionally(e);
+        }
+
+        return new Promise<>(future);
+    }
+
+    /**
+     * Get the number of tasks waiting for a thread.
+     * @return queued
+     */
+    public int getQueued() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Get the number of tasks running right now.
+     * @return active
+     */
+    public int getActive() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Get the average time tasks waited in the queue before running, in milliseconds.
+     * @return averageWait
+     */
+    public double getAverageWaitMs() {
+        long done = completed.get() + failed.get();
+        return done > 0 ? waitNanos.get() / (double) done / 1000000D : 0;
+    }
+
+    /**
+     * Get the average time tasks took to run, in milliseconds.
+     * @return averageRun
+     */
+    public double getAverageRunMs() {
+        long done = completed.get() + failed.get();
+        return done > 0 ? runNanos.get() / (double) done / 1000000D : 0;
+    }
+
+    public double getMaxWaitMs() {
+        return maxWaitNanos.get() / 1000000D;
+    }
+
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Stop taking work, and wait for queued work to finish.
+     * @param timeoutMs - How long to wait before interrupting whatever is still running.
+     */
+    public void shutdown(long timeoutMs) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS))
+                Core.warn(getName() + " pool still had " + (executor.shutdownNow().size() + getActive()) + " tasks at shutdown.");
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}